@@ -1,43 +1,158 @@
 package edu.univ.software.verification.manager;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSet;
+import edu.univ.software.verification.model.Automaton;
 import edu.univ.software.verification.model.BuchiAutomaton;
 import edu.univ.software.verification.model.KripkeStructure;
 import edu.univ.software.verification.model.LtlFormula;
 import edu.univ.software.verification.model.MullerAutomaton;
 import edu.univ.software.verification.model.ltl.Atom;
+import edu.univ.software.verification.model.ltl.Guard;
 import edu.univ.software.verification.utils.AutomataUtils;
-import edu.univ.software.verification.utils.LtlUtils;
+import edu.univ.software.verification.utils.Lasso;
+import edu.univ.software.verification.utils.SpecificationCache;
 
-import java.util.HashSet;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Created by Daryna_Ragimova on 6/12/2015.
  */
 public class ApplicationRunner {
 
+    /**
+     * Maximum number of specification automata kept by the default cache
+     */
+    public static final int SPECIFICATION_CACHE_SIZE = 1024;
+
+    /**
+     * System property naming directory, where specification automata are
+     * persisted between runs (not persisted if not set)
+     */
+    public static final String SPECIFICATION_CACHE_DIRECTORY_PROPERTY = "verification.cache.directory";
+
+    private static final SpecificationCache specificationCache = createSpecificationCache();
+
+    /**
+     * @return cache of specification automata shared by all verifications
+     */
+    public static SpecificationCache getSpecificationCache() {
+        return specificationCache;
+    }
+
+    private static SpecificationCache createSpecificationCache() {
+        SpecificationCache.Builder builder = SpecificationCache.builder().withMaximumSize(SPECIFICATION_CACHE_SIZE)
+                .withSimulationReduction(true);
+        String directory = System.getProperty(SPECIFICATION_CACHE_DIRECTORY_PROPERTY);
+
+        if (directory != null) {
+            builder.withDirectory(Paths.get(directory));
+        }
+
+        return builder.build();
+    }
+
     public static VerificationResult verify(KripkeStructure kripkeStructure, LtlFormula ltlFormula) {
-        BuchiAutomaton<Set<Atom>> buchiAutomatonForSystem = AutomataUtils.INSTANCE.convert(kripkeStructure);
-        MullerAutomaton<Set<Atom>> ma = LtlUtils.INSTANCE.convertToAutomata(ltlFormula.invert().normalized());
-        BuchiAutomaton<Set<Atom>> buchiAutomatonForSpecification = AutomataUtils.INSTANCE.convert(ma);
+        return verify(kripkeStructure, convert(kripkeStructure, 1), ltlFormula);
+    }
+
+    /**
+     * Verifies several specifications against the same system, using a pool
+     * of one thread per available processor
+     *
+     * @param kripkeStructure system model
+     * @param ltlFormulas specifications to check
+     * @return verification results in the order of specifications
+     */
+    public static List<VerificationResult> verify(KripkeStructure kripkeStructure, List<LtlFormula> ltlFormulas) {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+        try {
+            return verify(kripkeStructure, ltlFormulas, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Verifies several specifications against the same system concurrently.
+     * System automaton is built once and shared by all checks
+     *
+     * @param kripkeStructure system model
+     * @param ltlFormulas specifications to check
+     * @param executor executor running the checks (bounds the concurrency)
+     * @return verification results in the order of specifications
+     */
+    public static List<VerificationResult> verify(KripkeStructure kripkeStructure, List<LtlFormula> ltlFormulas, ExecutorService executor) {
+        BuchiAutomaton<Set<Atom>> buchiAutomatonForSystem = convert(kripkeStructure, ltlFormulas.size());
 
-        BuchiAutomaton<Set<Atom>> productResult = AutomataUtils.INSTANCE.product(buchiAutomatonForSystem,
-                buchiAutomatonForSpecification);
-        Set<String> counterexamples = new HashSet<>();
-        boolean result = AutomataUtils.INSTANCE.emptinessCheck(productResult, counterexamples);
+        List<Future<VerificationResult>> futures = new ArrayList<>();
+
+        for (LtlFormula ltlFormula : ltlFormulas) {
+            futures.add(executor.submit(() -> verify(kripkeStructure, buchiAutomatonForSystem, ltlFormula)));
+        }
+
+        List<VerificationResult> results = new ArrayList<>();
+
+        try {
+            for (Future<VerificationResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+
+            throw new CancellationException("Batch verification interrupted");
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+
+            throw Throwables.propagate(e.getCause());
+        }
+
+        return results;
+    }
+
+    /**
+     * Converts system into Buchi automaton, reduced only if shared by several
+     * checks: single product is explored on the fly just up to the first
+     * counterexample, which costs less than reduction of the whole system
+     * (specification automata are reduced once and cached), so single check
+     * gets just an automaton view of the system
+     */
+    private static BuchiAutomaton<Set<Atom>> convert(KripkeStructure kripkeStructure, int checks) {
+        return checks > 1 ? AutomataUtils.INSTANCE.convert(kripkeStructure, Automaton.Reduction.BISIMULATION)
+                : AutomataUtils.INSTANCE.automatonView(kripkeStructure);
+    }
+
+    private static VerificationResult verify(KripkeStructure kripkeStructure,
+            BuchiAutomaton<Set<Atom>> buchiAutomatonForSystem, LtlFormula ltlFormula) {
+        MullerAutomaton<Guard> ma = specificationCache.getGuardedAutomaton(ltlFormula);
+
+        // generalized product is checked directly, skipping k-fold degeneralization blow-up;
+        // it is explored on the fly, only up to the first accepting lasso, matching system
+        // valuations against specification guards
+        MullerAutomaton<Set<Atom>> product = AutomataUtils.INSTANCE.guardedProductView(buchiAutomatonForSystem, ma);
+        Optional<Lasso<Set<Atom>>> counterexample = AutomataUtils.INSTANCE.findAcceptingLasso(product);
+        Set<String> counterexamples = counterexample.map(l -> ImmutableSet.of(l.toString())).orElse(ImmutableSet.of());
 
         VerificationResultBuilder builder = new VerificationResultBuilder();
         builder.withKripkeStructure(kripkeStructure)
                 .withBuchiAutomatonForSystem(buchiAutomatonForSystem)
                 .withSpecification(ltlFormula)
-                .withMullerAutomatonForSpecification(ma)
-                .withBuchiAutomatonForSpecification(buchiAutomatonForSpecification)
-                .withProductResult(productResult)
-                .withAnswer(result)
-                .withCounterExamples(counterexamples);
+                .withGuardedAutomatonForSpecification(ma)
+                .withProduct(product)
+                .withAnswer(!counterexample.isPresent())
+                .withCounterExamples(counterexamples)
+                .withCounterExample(counterexample.orElse(null));
         return builder.build();
     }
-
-
-
 }
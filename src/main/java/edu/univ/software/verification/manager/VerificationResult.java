@@ -1,26 +1,39 @@
 package edu.univ.software.verification.manager;
 
 import com.google.common.collect.ImmutableSet;
+import edu.univ.software.verification.model.Automaton;
 import edu.univ.software.verification.model.BuchiAutomaton;
 import edu.univ.software.verification.model.KripkeStructure;
 import edu.univ.software.verification.model.LtlFormula;
 import edu.univ.software.verification.model.MullerAutomaton;
 import edu.univ.software.verification.model.ltl.Atom;
+import edu.univ.software.verification.model.ltl.Guard;
+import edu.univ.software.verification.utils.AutomataUtils;
+import edu.univ.software.verification.utils.Lasso;
+import edu.univ.software.verification.utils.LtlUtils;
 
+import java.util.Optional;
 import java.util.Set;
 
 /**
  * Created by Daryna_Ragimova on 6/12/2015.
+ *
+ * Specification automata over valuations and the Buchi product are built on
+ * request when verification did not need them (it checks guarded automata on
+ * the fly), so they cost nothing unless asked for.
  */
 public class VerificationResult {
     private final KripkeStructure kripkeStructure;
     private final BuchiAutomaton<Set<Atom>> buchiAutomatonForSystem;
     private final LtlFormula specification;
-    private final MullerAutomaton<Set<Atom>> mullerAutomatonForSpecification;
-    private final BuchiAutomaton<Set<Atom>> buchiAutomatonForSpecification;
-    private final BuchiAutomaton<Set<Atom>> productResult;
+    private MullerAutomaton<Set<Atom>> mullerAutomatonForSpecification;
+    private final MullerAutomaton<Guard> guardedAutomatonForSpecification;
+    private BuchiAutomaton<Set<Atom>> buchiAutomatonForSpecification;
+    private BuchiAutomaton<Set<Atom>> productResult;
+    private final Automaton<Set<Atom>> product;
     private final boolean confirmed;
     private final ImmutableSet<String> counterExamples;
+    private final Lasso<Set<Atom>> counterExample;
 
     public VerificationResult(KripkeStructure kripkeStructure,
                               BuchiAutomaton<Set<Atom>> buchiAutomatonForSystem,
@@ -29,14 +42,37 @@ public class VerificationResult {
                               BuchiAutomaton<Set<Atom>> productResult,
                               boolean confirmed,
                               ImmutableSet<String> counterExamples) {
+        this(kripkeStructure, buchiAutomatonForSystem, specification, mullerAutomatonForSpecification, null,
+                buchiAutomatonForSpecification, productResult, productResult, confirmed, counterExamples, null);
+    }
+
+    /**
+     * @param guardedAutomatonForSpecification guarded automaton checked, may
+     * be null
+     * @param product product checked for emptiness, may be null
+     * @param counterExample accepting lasso of the product, null if confirmed
+     */
+    public VerificationResult(KripkeStructure kripkeStructure,
+                              BuchiAutomaton<Set<Atom>> buchiAutomatonForSystem,
+                              LtlFormula specification, MullerAutomaton<Set<Atom>> mullerAutomatonForSpecification,
+                              MullerAutomaton<Guard> guardedAutomatonForSpecification,
+                              BuchiAutomaton<Set<Atom>> buchiAutomatonForSpecification,
+                              BuchiAutomaton<Set<Atom>> productResult,
+                              Automaton<Set<Atom>> product,
+                              boolean confirmed,
+                              ImmutableSet<String> counterExamples,
+                              Lasso<Set<Atom>> counterExample) {
         this.kripkeStructure = kripkeStructure;
         this.buchiAutomatonForSystem = buchiAutomatonForSystem;
         this.specification = specification;
         this.mullerAutomatonForSpecification = mullerAutomatonForSpecification;
+        this.guardedAutomatonForSpecification = guardedAutomatonForSpecification;
         this.buchiAutomatonForSpecification = buchiAutomatonForSpecification;
         this.productResult = productResult;
+        this.product = product;
         this.confirmed = confirmed;
         this.counterExamples = counterExamples;
+        this.counterExample = counterExample;
     }
 
     public KripkeStructure getKripkeStructure() {
@@ -51,18 +87,73 @@ public class VerificationResult {
         return specification;
     }
 
-    public MullerAutomaton<Set<Atom>> getMullerAutomatonForSpecification() {
+    /**
+     * @return automaton over valuations for negation of specification, built
+     * on the first request if verification did not build it
+     */
+    public synchronized MullerAutomaton<Set<Atom>> getMullerAutomatonForSpecification() {
+        if (mullerAutomatonForSpecification == null) {
+            mullerAutomatonForSpecification = LtlUtils.INSTANCE.convertToAutomata(specification.invert().normalized());
+        }
+
         return mullerAutomatonForSpecification;
     }
 
-    public BuchiAutomaton<Set<Atom>> getBuchiAutomatonForSpecification() {
+    /**
+     * @return automaton over valuations, empty if it has not been built yet
+     */
+    public synchronized Optional<MullerAutomaton<Set<Atom>>> findMullerAutomatonForSpecification() {
+        return Optional.ofNullable(mullerAutomatonForSpecification);
+    }
+
+    public MullerAutomaton<Guard> getGuardedAutomatonForSpecification() {
+        return guardedAutomatonForSpecification;
+    }
+
+    /**
+     * @return degeneralized specification automaton, built on the first
+     * request if verification did not build it
+     */
+    public synchronized BuchiAutomaton<Set<Atom>> getBuchiAutomatonForSpecification() {
+        if (buchiAutomatonForSpecification == null) {
+            buchiAutomatonForSpecification = AutomataUtils.INSTANCE.convert(getMullerAutomatonForSpecification());
+        }
+
         return buchiAutomatonForSpecification;
     }
 
-    public BuchiAutomaton<Set<Atom>> getProductResult() {
+    /**
+     * @return degeneralized specification automaton, empty if it has not been
+     * built yet
+     */
+    public synchronized Optional<BuchiAutomaton<Set<Atom>>> findBuchiAutomatonForSpecification() {
+        return Optional.ofNullable(buchiAutomatonForSpecification);
+    }
+
+    /**
+     * @return Buchi product of system and specification automata, built on
+     * the first request if verification checked another product (generalized
+     * one is degeneralized)
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized BuchiAutomaton<Set<Atom>> getProductResult() {
+        if (productResult == null) {
+            productResult = product instanceof MullerAutomaton
+                    ? AutomataUtils.INSTANCE.convert((MullerAutomaton<Set<Atom>>) product)
+                    : AutomataUtils.INSTANCE.product(buchiAutomatonForSystem, getBuchiAutomatonForSpecification());
+        }
+
         return productResult;
     }
 
+    /**
+     * @return product checked for emptiness (possibly generalized and
+     * explored on the fly), Buchi product if no other was checked
+     */
+    public Automaton<Set<Atom>> getProduct() {
+        return product != null ? product : getProductResult();
+    }
+
     public boolean isConfirmed() {
         return confirmed;
     }
@@ -70,4 +161,8 @@ public class VerificationResult {
     public ImmutableSet<String> getCounterExamples() {
         return counterExamples;
     }
+
+    public Optional<Lasso<Set<Atom>>> getCounterExample() {
+        return Optional.ofNullable(counterExample);
+    }
 }
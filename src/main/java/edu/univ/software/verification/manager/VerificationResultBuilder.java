@@ -1,11 +1,14 @@
 package edu.univ.software.verification.manager;
 
 import com.google.common.collect.ImmutableSet;
+import edu.univ.software.verification.model.Automaton;
 import edu.univ.software.verification.model.BuchiAutomaton;
 import edu.univ.software.verification.model.KripkeStructure;
 import edu.univ.software.verification.model.LtlFormula;
 import edu.univ.software.verification.model.MullerAutomaton;
 import edu.univ.software.verification.model.ltl.Atom;
+import edu.univ.software.verification.model.ltl.Guard;
+import edu.univ.software.verification.utils.Lasso;
 
 import java.util.Set;
 
@@ -18,10 +21,13 @@ public class VerificationResultBuilder {
     private BuchiAutomaton<Set<Atom>> buchiAutomatonForSystem;
     private LtlFormula specification;
     private MullerAutomaton<Set<Atom>> mullerAutomatonForSpecification;
+    private MullerAutomaton<Guard> guardedAutomatonForSpecification;
     private BuchiAutomaton<Set<Atom>> buchiAutomatonForSpecification;
     private BuchiAutomaton<Set<Atom>> productResult;
+    private Automaton<Set<Atom>> product;
     private boolean confirmed;
     private ImmutableSet<String> counterExamples;
+    private Lasso<Set<Atom>> counterExample;
 
     public VerificationResultBuilder withKripkeStructure(KripkeStructure kripkeStructure) {
         this.kripkeStructure = kripkeStructure;
@@ -43,6 +49,11 @@ public class VerificationResultBuilder {
         return this;
     }
 
+    public VerificationResultBuilder withGuardedAutomatonForSpecification(MullerAutomaton<Guard> guardedAutomatonForSpecification) {
+        this.guardedAutomatonForSpecification = guardedAutomatonForSpecification;
+        return this;
+    }
+
     public VerificationResultBuilder withBuchiAutomatonForSpecification(BuchiAutomaton<Set<Atom>> buchiAutomatonForSpecification) {
         this.buchiAutomatonForSpecification = buchiAutomatonForSpecification;
         return this;
@@ -53,6 +64,11 @@ public class VerificationResultBuilder {
         return this;
     }
 
+    public VerificationResultBuilder withProduct(Automaton<Set<Atom>> product) {
+        this.product = product;
+        return this;
+    }
+
     public VerificationResultBuilder withAnswer(boolean answer) {
         this.confirmed = answer;
         return this;
@@ -63,15 +79,23 @@ public class VerificationResultBuilder {
         return this;
     }
 
+    public VerificationResultBuilder withCounterExample(Lasso<Set<Atom>> counterExample) {
+        this.counterExample = counterExample;
+        return this;
+    }
+
     public VerificationResult build() {
         return new VerificationResult(
                 kripkeStructure,
                 buchiAutomatonForSystem,
                 specification,
                 mullerAutomatonForSpecification,
+                guardedAutomatonForSpecification,
                 buchiAutomatonForSpecification,
                 productResult,
+                product,
                 confirmed,
-                counterExamples);
+                counterExamples,
+                counterExample);
     }
 }
@@ -90,4 +90,31 @@ public interface Automaton<T> {
     interface Builder<T> {
         // no methods yet
     }
+
+    /**
+     * State reduction applied by automaton builders; every strategy keeps
+     * the accepted language and joins only states which are both initial or
+     * not and have the same acceptance
+     */
+    enum Reduction {
+
+        /**
+         * States are kept as added
+         */
+        NONE,
+        /**
+         * States with the same outgoing transitions are joined, until there
+         * are no such states (default of builders)
+         */
+        SAME_SUCCESSORS,
+        /**
+         * States simulating each other (with their acceptance included in the
+         * acceptance of simulating state) are joined
+         */
+        DIRECT_SIMULATION,
+        /**
+         * Bisimilar states are joined
+         */
+        BISIMULATION
+    }
 }
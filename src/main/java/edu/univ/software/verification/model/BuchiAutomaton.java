@@ -20,6 +20,26 @@ public interface BuchiAutomaton<T> extends Automaton<T> {
      */
     Set<String> getFinalStates();
     
+    /**
+     * Checks whether state is final
+     * 
+     * @param label unique state identifier
+     * @return true if state is final, false otherwise
+     */
+    default boolean isFinal(String label) {
+        return getFinalStates().contains(label);
+    }
+    
+    /**
+     * Checks whether every state is final, without enumerating the states
+     * 
+     * @return true if every state is known to be final, false otherwise
+     * (also when it can not be told cheaply)
+     */
+    default boolean isEveryStateFinal() {
+        return false;
+    }
+    
     interface Builder<T> extends Automaton.Builder<T> {
         Builder<T> withState(String label);
         Builder<T> withState(String label, boolean initial);
@@ -30,6 +50,7 @@ public interface BuchiAutomaton<T> extends Automaton<T> {
         Builder<T> withTransition(String from, String to, T symbol);
         Builder<T> withTransition(String from, String to, Collection<T> symbols);
         Builder<T> withTransitions(Table<String, String, Set<T>> transitions);
+        Builder<T> withReduction(Reduction reduction);
         Builder<T> withFinalState(String label);
         Builder<T> withFinalStates(String... labels);
         Builder<T> withFinalStates(Collection<String> labels);
@@ -4,10 +4,17 @@ package edu.univ.software.verification.model;
 import edu.univ.software.verification.model.ltl.Atom;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
- * Kripke structure representation
+ * Kripke structure representation. Only states and transitions between them
+ * have to be implemented: default implementations of the other methods index
+ * states in the order of {@link #getStates()} and scan all states for
+ * adjacency on every call, structures extending AbstractStructure provide
+ * index based adjacency instead.
  *
  * @author arthur
  */
@@ -27,6 +34,15 @@ public interface KripkeStructure {
      * @return set of present states
      */
     Set<KripkeState> getStates();
+
+    /**
+     * Retrieves initial states only
+     *
+     * @return set of initial states
+     */
+    default Set<KripkeState> getInitialStates() {
+        return getStates().stream().filter(KripkeState::isInitial).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
     
     /**
      * Check for transition presence between <code>from</code>
@@ -38,7 +54,96 @@ public interface KripkeStructure {
      * @return whether transition is present
      */
     boolean hasTransition(String from, String to);
-    
+
+    /**
+     * Gets states reachable by single transition from the state
+     *
+     * @param label state identifier
+     * @return labels of successors, empty if there is no such state
+     */
+    default Set<String> successors(String label) {
+        return getState(label) == null ? Collections.emptySet() : getStates().stream().map(KripkeState::getLabel)
+                .filter(to -> hasTransition(label, to)).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Gets states having transition into the state
+     *
+     * @param label state identifier
+     * @return labels of predecessors, empty if there is no such state
+     */
+    default Set<String> predecessors(String label) {
+        return getState(label) == null ? Collections.emptySet() : getStates().stream().map(KripkeState::getLabel)
+                .filter(from -> hasTransition(from, label)).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Index based access">
+    /**
+     * States are identified by indices 0 to state count - 1 as well
+     *
+     * @return number of states
+     */
+    default int getStateCount() {
+        return getStates().size();
+    }
+
+    /**
+     * @param label state identifier
+     * @return state index, -1 if there is no such state
+     */
+    default int indexOf(String label) {
+        int state = 0;
+
+        for (KripkeState s : getStates()) {
+            if (s.getLabel().equals(label)) {
+                return state;
+            }
+
+            state++;
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param state state index
+     * @return state identifier
+     */
+    default String labelOf(int state) {
+        return getStates().stream().skip(state).findFirst().orElseThrow(IndexOutOfBoundsException::new).getLabel();
+    }
+
+    default int successorCount(int state) {
+        return successors(labelOf(state)).size();
+    }
+
+    /**
+     * @param state state index
+     * @param i successor number, 0 to successor count - 1
+     * @return index of the successor
+     */
+    default int successor(int state, int i) {
+        return indexOf(successors(labelOf(state)).stream().skip(i).findFirst().orElseThrow(IndexOutOfBoundsException::new));
+    }
+
+    default int predecessorCount(int state) {
+        return predecessors(labelOf(state)).size();
+    }
+
+    /**
+     * @param state state index
+     * @param i predecessor number, 0 to predecessor count - 1
+     * @return index of the predecessor
+     */
+    default int predecessor(int state, int i) {
+        return indexOf(predecessors(labelOf(state)).stream().skip(i).findFirst().orElseThrow(IndexOutOfBoundsException::new));
+    }
+
+    default boolean hasTransition(int from, int to) {
+        return hasTransition(labelOf(from), labelOf(to));
+    }
+    //</editor-fold>
+
     /**
      * Utilitarian builder for Kripke structure
      */
@@ -21,6 +21,12 @@ public interface LtlFormula extends Cloneable {
      */
     @Override
     int hashCode();
+
+    /**
+     * Get the dense id of the formula, equal formulas share the id
+     * @return id assigned by the formula factory, -1 if formula is not managed by it
+     */
+    int getId();
     
     /**
      * Check whether this formula is atomic preposition or its negation
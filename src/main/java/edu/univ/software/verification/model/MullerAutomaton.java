@@ -3,6 +3,7 @@ package edu.univ.software.verification.model;
 
 import com.google.common.collect.Table;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Set;
 
@@ -20,6 +21,36 @@ public interface MullerAutomaton<T> extends Automaton<T> {
      */
     Set<Set<String>> getFinalStateSets();
     
+    /**
+     * Retrieves number of final state sets
+     * 
+     * @return number of final state sets
+     */
+    default int getFinalStateSetCount() {
+        return getFinalStateSets().size();
+    }
+    
+    /**
+     * Retrieves final state sets containing specified state
+     * 
+     * @param label unique state identifier
+     * @return indices of final state sets (in iteration order) containing state
+     */
+    default BitSet getFinalStateSetIndices(String label) {
+        BitSet indices = new BitSet();
+        int i = 0;
+        
+        for (Set<String> finalStateSet : getFinalStateSets()) {
+            if (finalStateSet.contains(label)) {
+                indices.set(i);
+            }
+            
+            i++;
+        }
+        
+        return indices;
+    }
+    
     interface Builder<T> extends Automaton.Builder<T> {
         Builder<T> withState(String label);
         Builder<T> withState(String label, boolean initial);
@@ -30,6 +61,7 @@ public interface MullerAutomaton<T> extends Automaton<T> {
         Builder<T> withTransition(String from, String to, T symbol);
         Builder<T> withTransition(String from, String to, Collection<T> symbols);
         Builder<T> withTransitions(Table<String, String, Set<T>> transitions);
+        Builder<T> withReduction(Reduction reduction);
         Builder<T> withFinalStateSet(String... states);
         Builder<T> withFinalStateSet(Collection<String> states) throws IllegalArgumentException;
         Builder<T> withFinalStateSets(Collection<Set<String>> finalStateSets);
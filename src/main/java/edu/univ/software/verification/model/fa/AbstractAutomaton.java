@@ -10,8 +10,17 @@ import com.google.common.collect.Table;
 import edu.univ.software.verification.model.Automaton;
 import edu.univ.software.verification.model.AutomatonState;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -157,6 +166,8 @@ public abstract class AbstractAutomaton<T> implements Automaton<T> {
         protected final Map<String, AutomatonState> states = new LinkedHashMap<>();
         protected final Table<String, String, Set<T>> transitions = HashBasedTable.create();
 
+        protected Reduction reduction = Reduction.SAME_SUCCESSORS;
+
         public S withState(String label) {
             return withState(label, AutomatonState.DEFAULT_INITIAL);
         }
@@ -213,62 +224,249 @@ public abstract class AbstractAutomaton<T> implements Automaton<T> {
             return getBuilder();
         }
 
+        /**
+         * Sets reduction applied to states on build (same successors by default)
+         */
+        public S withReduction(Reduction reduction) {
+            this.reduction = reduction;
+
+            return getBuilder();
+        }
+
         protected void optimize() {
-            // execute state joins while possible
+            switch (reduction) {
+                case SAME_SUCCESSORS:
+                    joinSameSuccessors();
+                    break;
+                case DIRECT_SIMULATION:
+                    joinSimulationEquivalent();
+                    break;
+                case BISIMULATION:
+                    joinBisimilar();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Joins states with equal outgoing transitions into the first of them,
+         * round by round, as joins may make more rows equal
+         */
+        protected void joinSameSuccessors() {
             while (true) {
-                AutomatonState firstState = null;
-                AutomatonState secondState = null;
-
-                outer:
-                for (AutomatonState s1 : states.values()) {
-                    for (AutomatonState s2 : states.values()) {
-                        if (!Objects.equals(s1, s2) && checkStatesJoinable(s1, s2)) {
-                            firstState = s1;
-                            secondState = s2;
-
-                            break outer;
-                        }
+                Map<List<Object>, String> firstStates = new HashMap<>();
+                Map<String, String> representatives = new HashMap<>();
+
+                states.values().forEach(s -> {
+                    String first = firstStates.computeIfAbsent(Arrays.asList(s.isInitial(),
+                            acceptanceMarksOf(s.getLabel()), transitions.row(s.getLabel())), k -> s.getLabel());
+
+                    if (!first.equals(s.getLabel())) {
+                        representatives.put(s.getLabel(), first);
                     }
-                }
+                });
 
-                // check whether joinable states are present
-                if (firstState != null && secondState != null) {
-                    // join specified states into first one
-                    joinStates(firstState.getLabel(), secondState.getLabel());
-                } else {
-                    // no states to join left
+                if (representatives.isEmpty()) {
                     break;
                 }
+
+                joinStates(representatives);
             }
         }
 
-        protected boolean checkStatesJoinable(AutomatonState s1, AutomatonState s2) {
-            // states must be either both initial or not and have same outgoing transitions 
-            return s1.isInitial() == s2.isInitial() && Objects.equals(
-                    transitions.row(s1.getLabel()), transitions.row(s2.getLabel()));
+        /**
+         * Joins bisimilar states into the first of them, by partition
+         * refinement: blocks are split by signatures of states (map of
+         * successor blocks to transition symbols) until stable.
+         *
+         * Split blocks keep their number for the largest part and only
+         * predecessors of states moved out are examined again, so each state
+         * is moved O(log n) times.
+         */
+        protected void joinBisimilar() {
+            List<String> labels = new ArrayList<>(states.keySet());
+            Map<String, Integer> indices = indicesOf(labels);
+
+            int n = labels.size();
+            int[] blockOf = new int[n];
+            List<Set<Integer>> blocks = new ArrayList<>();
+            List<List<Integer>> predecessors = new ArrayList<>();
+
+            // initial partition by initial flag and acceptance
+            Map<List<Object>, Integer> keys = new HashMap<>();
+
+            for (int i = 0; i < n; i++) {
+                String label = labels.get(i);
+
+                blockOf[i] = keys.computeIfAbsent(Arrays.asList(states.get(label).isInitial(), acceptanceMarksOf(label)), k -> {
+                    blocks.add(new LinkedHashSet<>());
+
+                    return blocks.size() - 1;
+                });
+                blocks.get(blockOf[i]).add(i);
+                predecessors.add(new ArrayList<>());
+            }
+
+            transitions.cellSet().forEach(c -> predecessors.get(indices.get(c.getColumnKey())).add(indices.get(c.getRowKey())));
+
+            // blocks to examine with states having changed signatures
+            Map<Integer, Set<Integer>> pending = new LinkedHashMap<>();
+
+            for (int b = 0; b < blocks.size(); b++) {
+                pending.put(b, new LinkedHashSet<>(blocks.get(b)));
+            }
+
+            while (!pending.isEmpty()) {
+                Iterator<Map.Entry<Integer, Set<Integer>>> first = pending.entrySet().iterator();
+                Map.Entry<Integer, Set<Integer>> entry = first.next();
+                first.remove();
+
+                Set<Integer> block = blocks.get(entry.getKey());
+                Set<Integer> changed = entry.getValue();
+
+                // states may have been moved since they were queued
+                changed.retainAll(block);
+
+                if (block.size() == 1 || changed.isEmpty()) {
+                    continue;
+                }
+
+                // group states by signatures, unchanged ones share the former
+                Map<Map<Integer, Set<T>>, List<Integer>> groups = new LinkedHashMap<>();
+                List<Integer> unchanged = block.stream().filter(i -> !changed.contains(i)).collect(Collectors.toList());
+
+                if (!unchanged.isEmpty()) {
+                    groups.put(signatureOf(labels.get(unchanged.get(0)), indices, blockOf), unchanged);
+                }
+
+                changed.forEach(i -> groups.computeIfAbsent(signatureOf(labels.get(i), indices, blockOf), k -> new ArrayList<>()).add(i));
+
+                if (groups.size() == 1) {
+                    continue;
+                }
+
+                // the largest group stays, others are moved to new blocks
+                List<Integer> largest = groups.values().stream().max(Comparator.comparing(List::size)).get();
+                List<Integer> moved = new ArrayList<>();
+
+                groups.values().stream().filter(g -> g != largest).forEach(group -> {
+                    int b = blocks.size();
+                    blocks.add(new LinkedHashSet<>(group));
+
+                    group.forEach(i -> {
+                        block.remove(i);
+                        blockOf[i] = b;
+                    });
+
+                    moved.addAll(group);
+                });
+
+                // predecessors are queued under their blocks after the split
+                moved.forEach(i -> predecessors.get(i).forEach(p
+                        -> pending.computeIfAbsent(blockOf[p], k -> new LinkedHashSet<>()).add(p)));
+            }
+
+            // join each block into its first state
+            Map<String, String> representatives = new HashMap<>();
+
+            blocks.stream().filter(block -> block.size() > 1).forEach(block -> {
+                String representative = labels.get(Collections.min(block));
+                block.forEach(i -> representatives.put(labels.get(i), representative));
+            });
+
+            if (!representatives.isEmpty()) {
+                joinStates(representatives);
+            }
         }
 
-        protected void joinStates(String s1, String s2) {
-            // copy transitions into second state to transitions into first
-            states.keySet().stream().forEach((s) -> {
-                Set<T> newIncoming = !Objects.equals(s, s2) ? transitions.get(s, s2) : null;
+        /**
+         * Joins states simulating each other (see {@link DirectSimulation})
+         * into the first of them
+         */
+        protected void joinSimulationEquivalent() {
+            List<String> labels = new ArrayList<>(states.keySet());
+            Map<String, Integer> indices = indicesOf(labels);
+
+            int n = labels.size();
+            BitSet[] marks = new BitSet[n];
+            List<Map<T, BitSet>> successors = new ArrayList<>();
+
+            for (int i = 0; i < n; i++) {
+                Map<T, BitSet> bySymbol = new HashMap<>();
+
+                transitions.row(labels.get(i)).forEach((to, symbols) -> symbols.forEach(symbol
+                        -> bySymbol.computeIfAbsent(symbol, k -> new BitSet()).set(indices.get(to))));
 
-                // check for additional incoming transitions
-                if (newIncoming != null) {
-                    Set<T> oldIncoming = transitions.get(s, s1);
+                marks[i] = acceptanceMarksOf(labels.get(i));
+                successors.add(bySymbol);
+            }
+
+            BitSet[] simulators = DirectSimulation.INSTANCE.simulators(successors, marks);
 
-                    // add new transitions to the first state
-                    transitions.put(s, s1, Sets.union(oldIncoming != null
-                            ? oldIncoming : ImmutableSet.of(), newIncoming).immutableCopy());
+            // join classes of mutually simulating states
+            Map<String, String> representatives = new HashMap<>();
+            boolean[] isJoined = new boolean[n];
+
+            for (int r = 0; r < n; r++) {
+                for (int q = simulators[r].nextSetBit(r + 1); q >= 0 && !isJoined[r]; q = simulators[r].nextSetBit(q + 1)) {
+                    if (!isJoined[q] && simulators[q].get(r)
+                            && states.get(labels.get(r)).isInitial() == states.get(labels.get(q)).isInitial()) {
+                        representatives.put(labels.get(q), labels.get(r));
+                        isJoined[q] = true;
+                    }
                 }
+            }
+
+            if (!representatives.isEmpty()) {
+                joinStates(representatives);
+            }
+        }
+
+        /**
+         * @return acceptance of state as set of final state sets it belongs to,
+         * only states with equal marks may be joined
+         */
+        protected BitSet acceptanceMarksOf(String label) {
+            return new BitSet();
+        }
+
+        /**
+         * Replaces states by their representatives (states not mapped are
+         * kept), redirecting transitions into joined states
+         */
+        protected void joinStates(Map<String, String> representatives) {
+            Table<String, String, Set<T>> joined = HashBasedTable.create();
+
+            transitions.cellSet().stream().filter(c -> !representatives.containsKey(c.getRowKey())
+                    || representatives.get(c.getRowKey()).equals(c.getRowKey())).forEach(c -> {
+                String to = representatives.getOrDefault(c.getColumnKey(), c.getColumnKey());
+                Set<T> symbols = joined.get(c.getRowKey(), to);
 
-                // remove transitions between s and s2
-                transitions.remove(s, s2);
-                transitions.remove(s2, s);
+                joined.put(c.getRowKey(), to, symbols != null
+                        ? Sets.union(symbols, c.getValue()).immutableCopy() : c.getValue());
             });
 
-            // remove second state
-            states.remove(s2);
+            transitions.clear();
+            transitions.putAll(joined);
+
+            states.keySet().removeIf(s -> representatives.containsKey(s) && !representatives.get(s).equals(s));
+        }
+
+        private Map<String, Integer> indicesOf(List<String> labels) {
+            Map<String, Integer> indices = new HashMap<>();
+            labels.forEach(label -> indices.put(label, indices.size()));
+
+            return indices;
+        }
+
+        private Map<Integer, Set<T>> signatureOf(String label, Map<String, Integer> indices, int[] blockOf) {
+            Map<Integer, Set<T>> signature = new HashMap<>();
+
+            transitions.row(label).forEach((to, symbols) -> signature.merge(blockOf[indices.get(to)], symbols,
+                    (s1, s2) -> Sets.union(s1, s2).immutableCopy()));
+
+            return signature;
         }
 
         protected abstract S getBuilder();
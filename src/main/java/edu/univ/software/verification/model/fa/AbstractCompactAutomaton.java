@@ -0,0 +1,337 @@
+package edu.univ.software.verification.model.fa;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Table;
+
+import edu.univ.software.verification.model.Automaton;
+import edu.univ.software.verification.model.AutomatonState;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Automaton with states interned to dense indices (0 to state count - 1) and
+ * transitions stored in compressed sparse row arrays: outgoing transitions of
+ * state i are edges offsets[i] to offsets[i + 1] - 1, each with its target
+ * state index and symbols. Algorithms may iterate successors through the
+ * index based methods without hashing labels or allocating; the label based
+ * {@link Automaton} methods are derived from them.
+ *
+ * @param <T> automaton transition symbol data type
+ *
+ * @author arthur
+ */
+public abstract class AbstractCompactAutomaton<T> implements Automaton<T> {
+
+    /**
+     * State labels by index
+     */
+    protected final String[] labels;
+
+    /**
+     * State indices by label
+     */
+    protected final Map<String, Integer> indices;
+
+    protected final BitSet initial;
+
+    /**
+     * First edge of each state, offsets[stateCount] is the edge count
+     */
+    protected final int[] offsets;
+
+    /**
+     * Target state of each edge
+     */
+    protected final int[] targets;
+
+    /**
+     * Transition symbols of each edge
+     */
+    protected final Object[] symbols;
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    public AbstractCompactAutomaton(String[] labels, BitSet initial, int[] offsets, int[] targets, List<Set<T>> symbols) {
+        if (offsets.length != labels.length + 1 || targets.length != offsets[labels.length]
+                || symbols.size() != targets.length) {
+            throw new IllegalArgumentException("Inconsistent compact automaton arrays");
+        }
+
+        this.labels = labels;
+        this.initial = initial;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.symbols = symbols.toArray();
+
+        ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+
+        for (int i = 0; i < labels.length; i++) {
+            builder.put(labels[i], i);
+        }
+
+        indices = builder.build();
+    }
+
+    /**
+     * Interns states of the automaton in their iteration order
+     *
+     * @param automaton automaton to copy
+     */
+    protected AbstractCompactAutomaton(Automaton<T> automaton) {
+        Set<AutomatonState> states = automaton.getStates();
+        Map<String, Integer> interned = new LinkedHashMap<>();
+
+        labels = new String[states.size()];
+        initial = new BitSet(labels.length);
+        offsets = new int[labels.length + 1];
+
+        for (AutomatonState state : states) {
+            int index = interned.size();
+
+            labels[index] = state.getLabel();
+            initial.set(index, state.isInitial());
+            interned.put(state.getLabel(), index);
+        }
+
+        int edgeCount = 0;
+
+        for (int i = 0; i < labels.length; i++) {
+            offsets[i] = edgeCount;
+            edgeCount += automaton.getTransitionsFrom(labels[i]).size();
+        }
+
+        offsets[labels.length] = edgeCount;
+        targets = new int[edgeCount];
+        symbols = new Object[edgeCount];
+
+        int edge = 0;
+
+        for (int i = 0; i < labels.length; i++) {
+            for (Map.Entry<String, Set<T>> transition : automaton.getTransitionsFrom(labels[i]).entrySet()) {
+                targets[edge] = interned.get(transition.getKey());
+                symbols[edge] = transition.getValue();
+                edge++;
+            }
+        }
+
+        indices = ImmutableMap.copyOf(interned);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Index based access">
+    public int getStateCount() {
+        return labels.length;
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Gets index of state
+     *
+     * @param label unique state identifier
+     * @return state index, -1 if there is no such state
+     */
+    public int indexOf(String label) {
+        Integer index = indices.get(label);
+
+        return index != null ? index : -1;
+    }
+
+    public String labelOf(int state) {
+        return labels[state];
+    }
+
+    public boolean isInitial(int state) {
+        return initial.get(state);
+    }
+
+    /**
+     * Gets indices of initial states
+     *
+     * @return initial state indices in ascending order
+     */
+    public int[] getInitialIndices() {
+        return initial.stream().toArray();
+    }
+
+    /**
+     * First outgoing edge of state
+     *
+     * @param state state index
+     * @return edge index
+     */
+    public int edgesFrom(int state) {
+        return offsets[state];
+    }
+
+    /**
+     * Outgoing edges end of state (exclusive)
+     *
+     * @param state state index
+     * @return edge index
+     */
+    public int edgesTo(int state) {
+        return offsets[state + 1];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    @SuppressWarnings("unchecked")
+    public Set<T> getSymbols(int edge) {
+        return (Set<T>) symbols[edge];
+    }
+    //</editor-fold>
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AutomatonState getState(String label) {
+        int state = indexOf(label);
+
+        return state >= 0 ? new BasicState(label, isInitial(state)) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasState(String label) {
+        return indices.containsKey(label);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<AutomatonState> getStates() {
+        Set<AutomatonState> states = new LinkedHashSet<>();
+
+        for (int i = 0; i < labels.length; i++) {
+            states.add(new BasicState(labels[i], isInitial(i)));
+        }
+
+        return states;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<AutomatonState> getInitialStates() {
+        Set<AutomatonState> states = new LinkedHashSet<>();
+
+        initial.stream().forEach(i -> states.add(new BasicState(labels[i], true)));
+
+        return states;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Set<T>> getTransitionsFrom(String from) {
+        int state = indexOf(from);
+
+        if (state < 0) {
+            return ImmutableMap.of();
+        }
+
+        Map<String, Set<T>> outgoing = new LinkedHashMap<>();
+
+        for (int edge = edgesFrom(state); edge < edgesTo(state); edge++) {
+            outgoing.put(labels[targets[edge]], getSymbols(edge));
+        }
+
+        return outgoing;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Set<T>> getTransitionsTo(String to) {
+        int state = indexOf(to);
+        Map<String, Set<T>> incoming = new LinkedHashMap<>();
+
+        for (int i = 0; state >= 0 && i < labels.length; i++) {
+            for (int edge = edgesFrom(i); edge < edgesTo(i); edge++) {
+                if (targets[edge] == state) {
+                    incoming.put(labels[i], getSymbols(edge));
+                }
+            }
+        }
+
+        return incoming;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<T> getTransitionSymbols(String from, String to) {
+        int source = indexOf(from);
+        int target = indexOf(to);
+
+        for (int edge = source >= 0 ? edgesFrom(source) : 0; source >= 0 && edge < edgesTo(source); edge++) {
+            if (targets[edge] == target) {
+                return getSymbols(edge);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasTransition(String from, String to) {
+        return getTransitionSymbols(from, to) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Table<String, String, Set<T>> getTransitions() {
+        Table<String, String, Set<T>> transitions = HashBasedTable.create();
+
+        for (int i = 0; i < labels.length; i++) {
+            for (int edge = edgesFrom(i); edge < edgesTo(i); edge++) {
+                transitions.put(labels[i], labels[targets[edge]], getSymbols(edge));
+            }
+        }
+
+        return transitions;
+    }
+
+    /**
+     * Copies state definitions for the conversion to label based automata
+     *
+     * @return label to state mapping
+     */
+    protected Map<String, AutomatonState> stateMap() {
+        Map<String, AutomatonState> states = new LinkedHashMap<>();
+
+        getStates().forEach(s -> states.put(s.getLabel(), s));
+
+        return states;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + "labels=" + Arrays.toString(labels) + ", offsets="
+                + Arrays.toString(offsets) + ", targets=" + Arrays.toString(targets) + '}';
+    }
+}
@@ -6,6 +6,7 @@ import com.google.common.collect.Table;
 import edu.univ.software.verification.model.AutomatonState;
 import edu.univ.software.verification.model.BuchiAutomaton;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -49,6 +50,14 @@ public class BasicBuchiAutomaton<T> extends AbstractAutomaton<T> implements Buch
     }
     //</editor-fold>
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEveryStateFinal() {
+        return finalStates.size() == states.size();
+    }
+
     //<editor-fold defaultstate="collapsed" desc="hashCode + equals + toString">
     @Override
     public int hashCode() {
@@ -126,18 +135,20 @@ public class BasicBuchiAutomaton<T> extends AbstractAutomaton<T> implements Buch
         }
 
         @Override
-        protected boolean checkStatesJoinable(AutomatonState s1, AutomatonState s2) {
-            // specified states must be both either final or non-final
-            return finalStates.contains(s1.getLabel()) == finalStates.contains(s2.getLabel())
-                    && super.checkStatesJoinable(s1, s2);
+        protected BitSet acceptanceMarksOf(String label) {
+            // final states are marked as belonging to the only final state set
+            BitSet marks = new BitSet();
+            marks.set(0, finalStates.contains(label));
+
+            return marks;
         }
 
         @Override
-        protected void joinStates(String s1, String s2) {
-            super.joinStates(s1, s2);
+        protected void joinStates(Map<String, String> representatives) {
+            super.joinStates(representatives);
 
-            // remove second state from final state set
-            finalStates.remove(s2);
+            // remove joined states from final state set
+            finalStates.retainAll(states.keySet());
         }
     }
 }
@@ -7,6 +7,7 @@ import com.google.common.collect.Table;
 import edu.univ.software.verification.model.AutomatonState;
 import edu.univ.software.verification.model.MullerAutomaton;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -130,20 +131,26 @@ public class BasicMullerAutomaton<T> extends AbstractAutomaton<T> implements Mul
         }
 
         @Override
-        protected boolean checkStatesJoinable(AutomatonState s1, AutomatonState s2) {
-            // specified states must belong to the same final state sets
-            return finalStateSets.stream().allMatch(fss -> fss.contains(s1.getLabel()) == fss.contains(s2.getLabel()))
-                    && super.checkStatesJoinable(s1, s2);
+        protected BitSet acceptanceMarksOf(String label) {
+            // final state sets are numbered in the order they were added
+            BitSet marks = new BitSet();
+            int i = 0;
+
+            for (Set<String> fss : finalStateSets) {
+                marks.set(i++, fss.contains(label));
+            }
+
+            return marks;
         }
 
         @Override
-        protected void joinStates(String s1, String s2) {
-            super.joinStates(s1, s2);
+        protected void joinStates(Map<String, String> representatives) {
+            super.joinStates(representatives);
 
-            // remove second state from all final state sets
+            // remove joined states from all final state sets
             Set<Set<String>> newFinalStateSets = finalStateSets.stream().map((Set<String> fss) -> {
                 Set<String> newFss = Sets.newLinkedHashSet(fss);
-                newFss.remove(s2);
+                newFss.retainAll(states.keySet());
 
                 return ImmutableSet.copyOf(newFss);
             }).collect(Collectors.toSet());
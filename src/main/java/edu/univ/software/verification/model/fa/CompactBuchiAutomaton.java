@@ -0,0 +1,91 @@
+package edu.univ.software.verification.model.fa;
+
+import edu.univ.software.verification.model.BuchiAutomaton;
+
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Buchi automaton in compact (integer indexed) representation
+ *
+ * @param <T> automaton transition symbol data type
+ * @author arthur
+ */
+public class CompactBuchiAutomaton<T> extends AbstractCompactAutomaton<T> implements BuchiAutomaton<T> {
+
+    protected final BitSet finalStates;
+
+    /**
+     * Converts Buchi automaton into compact representation
+     *
+     * @param <T> automaton transition symbol data type
+     * @param buchi automaton to convert
+     * @return compact automaton (the same instance if already compact)
+     */
+    public static <T> CompactBuchiAutomaton<T> of(BuchiAutomaton<T> buchi) {
+        return buchi instanceof CompactBuchiAutomaton ? (CompactBuchiAutomaton<T>) buchi : new CompactBuchiAutomaton<>(buchi);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    public CompactBuchiAutomaton(String[] labels, BitSet initial, int[] offsets, int[] targets, List<Set<T>> symbols, BitSet finalStates) {
+        super(labels, initial, offsets, targets, symbols);
+
+        this.finalStates = finalStates;
+    }
+
+    protected CompactBuchiAutomaton(BuchiAutomaton<T> buchi) {
+        super(buchi);
+
+        finalStates = new BitSet(labels.length);
+
+        for (int i = 0; i < labels.length; i++) {
+            finalStates.set(i, buchi.isFinal(labels[i]));
+        }
+    }
+    //</editor-fold>
+
+    public boolean isFinal(int state) {
+        return finalStates.get(state);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isFinal(String label) {
+        int state = indexOf(label);
+
+        return state >= 0 && isFinal(state);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> getFinalStates() {
+        Set<String> labelSet = new LinkedHashSet<>();
+
+        finalStates.stream().forEach(i -> labelSet.add(labels[i]));
+
+        return labelSet;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEveryStateFinal() {
+        return finalStates.cardinality() == labels.length;
+    }
+
+    /**
+     * Converts back into label based representation (without optimization)
+     *
+     * @return equivalent basic Buchi automaton
+     */
+    public BasicBuchiAutomaton<T> toBasic() {
+        return new BasicBuchiAutomaton<>(stateMap(), getFinalStates(), getTransitions());
+    }
+}
@@ -0,0 +1,120 @@
+package edu.univ.software.verification.model.fa;
+
+import edu.univ.software.verification.model.MullerAutomaton;
+
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Muller (generalized Buchi) automaton in compact (integer indexed)
+ * representation. Final state sets are stored as per-state marks.
+ *
+ * @param <T> automaton transition symbol data type
+ * @author arthur
+ */
+public class CompactMullerAutomaton<T> extends AbstractCompactAutomaton<T> implements MullerAutomaton<T> {
+
+    protected final int finalStateSetCount;
+
+    /**
+     * Indices of final state sets containing each state
+     */
+    protected final BitSet[] marks;
+
+    /**
+     * Converts Muller automaton into compact representation
+     *
+     * @param <T> automaton transition symbol data type
+     * @param muller automaton to convert
+     * @return compact automaton (the same instance if already compact)
+     */
+    public static <T> CompactMullerAutomaton<T> of(MullerAutomaton<T> muller) {
+        return muller instanceof CompactMullerAutomaton ? (CompactMullerAutomaton<T>) muller : new CompactMullerAutomaton<>(muller);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    public CompactMullerAutomaton(String[] labels, BitSet initial, int[] offsets, int[] targets, List<Set<T>> symbols,
+            int finalStateSetCount, BitSet[] marks) {
+        super(labels, initial, offsets, targets, symbols);
+
+        if (marks.length != labels.length) {
+            throw new IllegalArgumentException("Inconsistent compact automaton arrays");
+        }
+
+        this.finalStateSetCount = finalStateSetCount;
+        this.marks = marks;
+    }
+
+    protected CompactMullerAutomaton(MullerAutomaton<T> muller) {
+        super(muller);
+
+        finalStateSetCount = muller.getFinalStateSetCount();
+        marks = new BitSet[labels.length];
+
+        for (int i = 0; i < labels.length; i++) {
+            marks[i] = muller.getFinalStateSetIndices(labels[i]);
+        }
+    }
+    //</editor-fold>
+
+    /**
+     * Gets final state sets containing state
+     *
+     * @param state state index
+     * @return final state set indices (must not be modified)
+     */
+    public BitSet getMarks(int state) {
+        return marks[state];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getFinalStateSetCount() {
+        return finalStateSetCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BitSet getFinalStateSetIndices(String label) {
+        int state = indexOf(label);
+
+        return state >= 0 ? (BitSet) marks[state].clone() : new BitSet();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Set<String>> getFinalStateSets() {
+        Set<Set<String>> finalStateSets = new LinkedHashSet<>();
+
+        for (int set = 0; set < finalStateSetCount; set++) {
+            Set<String> finalStateSet = new LinkedHashSet<>();
+
+            for (int i = 0; i < labels.length; i++) {
+                if (marks[i].get(set)) {
+                    finalStateSet.add(labels[i]);
+                }
+            }
+
+            finalStateSets.add(finalStateSet);
+        }
+
+        return finalStateSets;
+    }
+
+    /**
+     * Converts back into label based representation (without optimization)
+     *
+     * @return equivalent basic Muller automaton
+     */
+    public BasicMullerAutomaton<T> toBasic() {
+        return new BasicMullerAutomaton<>(stateMap(), getFinalStateSets(), getTransitions());
+    }
+}
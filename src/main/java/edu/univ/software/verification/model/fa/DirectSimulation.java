@@ -0,0 +1,74 @@
+package edu.univ.software.verification.model.fa;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Direct simulation preorder on indexed automaton states. State p directly
+ * simulates q, if acceptance marks of q are included in marks of p and every
+ * transition of q is matched by transition of p on the same symbol into state
+ * simulating the target.
+ *
+ * Relation is computed as the greatest fixpoint, removing pairs until stable,
+ * so it is meant for small (specification) automata.
+ *
+ * @author arthur
+ */
+public enum DirectSimulation {
+
+    INSTANCE;
+
+    /**
+     * @param <T> transition symbol type
+     * @param successors target states by symbol for every state
+     * @param marks acceptance marks (final state sets) of every state
+     * @return simulators[q] holding states simulating q
+     */
+    public <T> BitSet[] simulators(List<Map<T, BitSet>> successors, BitSet[] marks) {
+        int n = marks.length;
+        BitSet[] simulators = new BitSet[n];
+
+        // acceptance of simulated state must be included
+        for (int q = 0; q < n; q++) {
+            simulators[q] = new BitSet();
+
+            for (int p = 0; p < n; p++) {
+                BitSet missing = (BitSet) marks[q].clone();
+                missing.andNot(marks[p]);
+
+                simulators[q].set(p, missing.isEmpty());
+            }
+        }
+
+        boolean isChanged = true;
+
+        while (isChanged) {
+            isChanged = false;
+
+            for (int q = 0; q < n; q++) {
+                for (int p = simulators[q].nextSetBit(0); p >= 0; p = simulators[q].nextSetBit(p + 1)) {
+                    if (p != q && !isAnswered(successors.get(q), successors.get(p), simulators)) {
+                        simulators[q].clear(p);
+                        isChanged = true;
+                    }
+                }
+            }
+        }
+
+        return simulators;
+    }
+
+    /**
+     * @return whether every transition of simulated state is matched by
+     * transition of simulating one on the same symbol into state simulating
+     * the target
+     */
+    private <T> boolean isAnswered(Map<T, BitSet> simulated, Map<T, BitSet> simulating, BitSet[] simulators) {
+        return simulated.entrySet().stream().allMatch(e -> {
+            BitSet answers = simulating.get(e.getKey());
+
+            return answers != null && e.getValue().stream().allMatch(to -> answers.intersects(simulators[to]));
+        });
+    }
+}
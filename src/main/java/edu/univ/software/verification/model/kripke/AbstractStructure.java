@@ -0,0 +1,184 @@
+package edu.univ.software.verification.model.kripke;
+
+import com.google.common.collect.ImmutableSet;
+
+import edu.univ.software.verification.model.KripkeStructure;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Base class of Kripke structures with index based successors. Predecessors
+ * are derived from successors on the first request, in compressed sparse row
+ * arrays (sources in ascending order), and cached; label based adjacency is
+ * exposed as views of the index based one.
+ *
+ * @author arthur
+ */
+public abstract class AbstractStructure implements KripkeStructure {
+
+    /**
+     * Predecessor offsets and sources, null until requested
+     */
+    private volatile int[][] predecessors;
+
+    //<editor-fold defaultstate="collapsed" desc="Index based successors">
+    @Override
+    public abstract int getStateCount();
+
+    @Override
+    public abstract int indexOf(String label);
+
+    @Override
+    public abstract String labelOf(int state);
+
+    @Override
+    public abstract int successorCount(int state);
+
+    @Override
+    public abstract int successor(int state, int i);
+
+    @Override
+    public abstract boolean hasTransition(int from, int to);
+    //</editor-fold>
+
+    @Override
+    public Set<String> successors(String label) {
+        int state = indexOf(label);
+
+        return state < 0 ? ImmutableSet.of() : new AdjacentSet(state, true);
+    }
+
+    @Override
+    public Set<String> predecessors(String label) {
+        int state = indexOf(label);
+
+        return state < 0 ? ImmutableSet.of() : new AdjacentSet(state, false);
+    }
+
+    @Override
+    public boolean hasTransition(String from, String to) {
+        int source = indexOf(from);
+        int target = indexOf(to);
+
+        return source >= 0 && target >= 0 && hasTransition(source, target);
+    }
+
+    @Override
+    public int predecessorCount(int state) {
+        int[] offsets = predecessors()[0];
+
+        return offsets[state + 1] - offsets[state];
+    }
+
+    @Override
+    public int predecessor(int state, int i) {
+        int[][] index = predecessors();
+
+        return index[1][index[0][state] + i];
+    }
+
+    /**
+     * Drops cached predecessors, for structures changing their transitions
+     */
+    protected void invalidate() {
+        predecessors = null;
+    }
+
+    private int[][] predecessors() {
+        int[][] index = predecessors;
+
+        if (index == null) {
+            synchronized (this) {
+                if (predecessors == null) {
+                    predecessors = computePredecessors();
+                }
+
+                index = predecessors;
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Counting sort of transitions by target
+     */
+    private int[][] computePredecessors() {
+        int stateCount = getStateCount();
+        int[] offsets = new int[stateCount + 1];
+
+        for (int from = 0; from < stateCount; from++) {
+            for (int i = successorCount(from) - 1; i >= 0; i--) {
+                offsets[successor(from, i) + 1]++;
+            }
+        }
+
+        for (int state = 0; state < stateCount; state++) {
+            offsets[state + 1] += offsets[state];
+        }
+
+        int[] sources = new int[offsets[stateCount]];
+        int[] next = new int[stateCount];
+
+        System.arraycopy(offsets, 0, next, 0, stateCount);
+
+        for (int from = 0; from < stateCount; from++) {
+            for (int i = 0; i < successorCount(from); i++) {
+                sources[next[successor(from, i)]++] = from;
+            }
+        }
+
+        return new int[][]{offsets, sources};
+    }
+
+    /**
+     * Successors or predecessors of state as labels
+     */
+    private class AdjacentSet extends AbstractSet<String> {
+
+        private final int state;
+
+        private final boolean isSuccessors;
+
+        AdjacentSet(int state, boolean isSuccessors) {
+            this.state = state;
+            this.isSuccessors = isSuccessors;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size();
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    return labelOf(isSuccessors ? successor(state, next++) : predecessor(state, next++));
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            int other = o instanceof String ? indexOf((String) o) : -1;
+
+            return other >= 0 && (isSuccessors ? hasTransition(state, other) : hasTransition(other, state));
+        }
+
+        @Override
+        public int size() {
+            return isSuccessors ? successorCount(state) : predecessorCount(state);
+        }
+    }
+}
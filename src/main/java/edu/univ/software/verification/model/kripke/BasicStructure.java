@@ -4,7 +4,6 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import edu.univ.software.verification.model.KripkeState;
-import edu.univ.software.verification.model.KripkeStructure;
 import edu.univ.software.verification.model.ltl.Atom;
 
 import java.util.Collection;
@@ -17,15 +16,32 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Default Kripke structure implementation
+ * Default Kripke structure implementation. Index based access (including
+ * predecessors) is served by a CompactStructure copy of the whole structure,
+ * built on the first such call and dropped whenever states or transitions are
+ * set, so the first call costs a full copy of the adjacency.
  *
  * @author arthur
  */
-public class BasicStructure implements KripkeStructure {
+public class BasicStructure extends AbstractStructure {
+
+    private static final Logger logger = LoggerFactory.getLogger(BasicStructure.class);
 
     protected Map<String, KripkeState> states = ImmutableMap.of();
     protected Map<String, Set<String>> transitions = ImmutableMap.of();
 
+    /**
+     * States kept as set, so it is not copied on every access
+     */
+    protected Set<KripkeState> stateSet = ImmutableSet.of();
+
+    /**
+     * Index based copy, built on the first index based (or predecessor)
+     * access. It is a full copy of the adjacency in arrays, sharing labels
+     * and atom sets with the structure
+     */
+    private volatile CompactStructure compact;
+
     public static Builder builder() {
         return new BasicBuilder();
     }
@@ -35,8 +51,8 @@ public class BasicStructure implements KripkeStructure {
     }
 
     public BasicStructure(Map<String, KripkeState> states, Map<String, Set<String>> transitions) {
-        this.states = ImmutableMap.copyOf(states);
-        this.transitions = ImmutableMap.copyOf(transitions);
+        setStates(states);
+        setTransitions(transitions);
     }
     //</editor-fold>
 
@@ -48,19 +64,25 @@ public class BasicStructure implements KripkeStructure {
     //<editor-fold defaultstate="collapsed" desc="Getters & Setters">
     @Override
     public Set<KripkeState> getStates() {
-        return ImmutableSet.copyOf(states.values());
+        return stateSet;
     }
 
     public void setStates(Map<String, KripkeState> states) {
         this.states = ImmutableMap.copyOf(states);
+        this.stateSet = ImmutableSet.copyOf(this.states.values());
+        invalidate();
     }
 
     public Map<String, Set<String>> getTransitions() {
-        return ImmutableMap.copyOf(transitions);
+        return transitions;
     }
 
     public void setTransitions(Map<String, Set<String>> transitions) {
-        this.transitions = ImmutableMap.copyOf(transitions);
+        ImmutableMap.Builder<String, Set<String>> builder = ImmutableMap.builder();
+        transitions.forEach((from, outgoing) -> builder.put(from, ImmutableSet.copyOf(outgoing)));
+
+        this.transitions = builder.build();
+        invalidate();
     }
     //</editor-fold>
 
@@ -71,6 +93,91 @@ public class BasicStructure implements KripkeStructure {
         return outgoing != null && outgoing.contains(to);
     }
 
+    @Override
+    public Set<String> successors(String label) {
+        return transitions.getOrDefault(label, ImmutableSet.of());
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Index based access">
+    @Override
+    public int getStateCount() {
+        return states.size();
+    }
+
+    /**
+     * Builds the index based copy on the first call
+     */
+    @Override
+    public int indexOf(String label) {
+        return compact().indexOf(label);
+    }
+
+    /**
+     * Builds the index based copy on the first call
+     */
+    @Override
+    public String labelOf(int state) {
+        return compact().labelOf(state);
+    }
+
+    /**
+     * Builds the index based copy on the first call
+     */
+    @Override
+    public int successorCount(int state) {
+        return compact().successorCount(state);
+    }
+
+    /**
+     * Builds the index based copy on the first call
+     */
+    @Override
+    public int successor(int state, int i) {
+        return compact().successor(state, i);
+    }
+
+    /**
+     * Builds the index based copy on the first call
+     */
+    @Override
+    public boolean hasTransition(int from, int to) {
+        return compact().hasTransition(from, to);
+    }
+    //</editor-fold>
+
+    @Override
+    protected void invalidate() {
+        super.invalidate();
+        compact = null;
+    }
+
+    /**
+     * States are indexed in insertion order. Transitions set directly may
+     * lead from or to missing states; such transitions are left out of the
+     * index
+     */
+    private CompactStructure compact() {
+        CompactStructure index = compact;
+
+        if (index == null) {
+            Builder builder = CompactStructure.builder();
+
+            states.values().forEach(s -> builder.withState(s.getLabel(), s.getAtoms(), s.isInitial()));
+            transitions.forEach((from, outgoing) -> outgoing.forEach(to -> {
+                if (states.containsKey(from) && states.containsKey(to)) {
+                    builder.withTransition(from, to);
+                } else {
+                    logger.debug("Transition from '{}' to '{}' with missing state left out of index", from, to);
+                }
+            }));
+
+            index = (CompactStructure) builder.build();
+            compact = index;
+        }
+
+        return index;
+    }
+
     public static class BasicBuilder implements Builder {
 
         private static final Logger logger = LoggerFactory.getLogger(BasicBuilder.class);
@@ -0,0 +1,444 @@
+package edu.univ.software.verification.model.kripke;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import edu.univ.software.verification.model.KripkeState;
+import edu.univ.software.verification.model.KripkeStructure;
+import edu.univ.software.verification.model.ltl.Atom;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Kripke structure with states interned to dense indices (0 to state count -
+ * 1), successors stored in compressed sparse row arrays (successors of state
+ * i are targets offsets[i] to offsets[i + 1] - 1, in ascending order) and
+ * labelling stored as indices into a pool of distinct atom sets. Index based
+ * accessors neither hash labels nor allocate; the label based
+ * {@link KripkeStructure} methods are derived from them, with states exposed
+ * as lightweight views.
+ *
+ * @author arthur
+ */
+public class CompactStructure extends AbstractStructure {
+
+    /**
+     * State labels by index
+     */
+    protected final String[] labels;
+
+    /**
+     * Open addressing table of state indices + 1 (0 marks empty slot)
+     */
+    protected final int[] slots;
+
+    protected final BitSet initial;
+
+    /**
+     * First successor of each state, offsets[stateCount] is the transition
+     * count
+     */
+    protected final int[] offsets;
+
+    /**
+     * Successor state of each transition
+     */
+    protected final int[] targets;
+
+    /**
+     * Index of atom set of each state in the pool
+     */
+    protected final int[] labelling;
+
+    /**
+     * Distinct atom sets
+     */
+    protected final List<Set<Atom>> atomSets;
+
+    private final Set<KripkeState> states = new StateSet();
+
+    public static Builder builder() {
+        return new CompactBuilder();
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    public CompactStructure(String[] labels, BitSet initial, int[] offsets, int[] targets, int[] labelling, List<Set<Atom>> atomSets) {
+        if (offsets.length != labels.length + 1 || targets.length != offsets[labels.length]
+                || labelling.length != labels.length) {
+            throw new IllegalArgumentException("Inconsistent compact structure arrays");
+        }
+
+        this.labels = labels;
+        this.initial = initial;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.labelling = labelling;
+        this.atomSets = ImmutableList.copyOf(atomSets);
+
+        slots = new int[Integer.highestOneBit(Math.max(1, labels.length)) * 4];
+
+        for (int i = 0; i < labels.length; i++) {
+            int slot = slotOf(labels[i]);
+
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (slots.length - 1);
+            }
+
+            slots[slot] = i + 1;
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Index based access">
+    @Override
+    public int getStateCount() {
+        return labels.length;
+    }
+
+    public int getTransitionCount() {
+        return targets.length;
+    }
+
+    /**
+     * Gets index of state
+     *
+     * @param label unique state identifier
+     * @return state index, -1 if there is no such state
+     */
+    @Override
+    public int indexOf(String label) {
+        for (int slot = slotOf(label);; slot = (slot + 1) & (slots.length - 1)) {
+            int state = slots[slot] - 1;
+
+            if (state < 0 || labels[state].equals(label)) {
+                return state;
+            }
+        }
+    }
+
+    @Override
+    public String labelOf(int state) {
+        return labels[state];
+    }
+
+    public boolean isInitial(int state) {
+        return initial.get(state);
+    }
+
+    /**
+     * @return atom set of state, shared with equally labelled states
+     */
+    public Set<Atom> atomsOf(int state) {
+        return atomSets.get(labelling[state]);
+    }
+
+    /**
+     * First successor position of state
+     *
+     * @param state state index
+     * @return position in targets
+     */
+    public int successorsFrom(int state) {
+        return offsets[state];
+    }
+
+    /**
+     * Successor positions end of state (exclusive)
+     *
+     * @param state state index
+     * @return position in targets
+     */
+    public int successorsTo(int state) {
+        return offsets[state + 1];
+    }
+
+    public int getTarget(int position) {
+        return targets[position];
+    }
+
+    @Override
+    public int successorCount(int state) {
+        return offsets[state + 1] - offsets[state];
+    }
+
+    @Override
+    public int successor(int state, int i) {
+        return targets[offsets[state] + i];
+    }
+
+    /**
+     * Binary search in sorted successors of the source
+     */
+    @Override
+    public boolean hasTransition(int from, int to) {
+        return Arrays.binarySearch(targets, offsets[from], offsets[from + 1], to) >= 0;
+    }
+
+    /**
+     * @return distinct atom sets of states
+     */
+    public List<Set<Atom>> getAtomSets() {
+        return atomSets;
+    }
+    //</editor-fold>
+
+    @Override
+    public KripkeState getState(String label) {
+        int state = indexOf(label);
+
+        return state < 0 ? null : new CompactState(state);
+    }
+
+    /**
+     * @return view of states, iterated in index order
+     */
+    @Override
+    public Set<KripkeState> getStates() {
+        return states;
+    }
+
+    private int slotOf(String label) {
+        int hash = label.hashCode();
+
+        return (hash ^ (hash >>> 16)) & (slots.length - 1);
+    }
+
+    /**
+     * State view of the structure arrays
+     */
+    private class CompactState implements KripkeState {
+
+        private final int state;
+
+        CompactState(int state) {
+            this.state = state;
+        }
+
+        @Override
+        public String getLabel() {
+            return labels[state];
+        }
+
+        @Override
+        public Set<Atom> getAtoms() {
+            return atomsOf(state);
+        }
+
+        @Override
+        public boolean isInitial() {
+            return CompactStructure.this.isInitial(state);
+        }
+
+        //<editor-fold defaultstate="collapsed" desc="hashCode + equals + toString">
+        @Override
+        public int hashCode() {
+            return state;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof CompactState)) {
+                return false;
+            }
+
+            final CompactState other = (CompactState) o;
+
+            return state == other.state && structure() == other.structure();
+        }
+
+        @Override
+        public String toString() {
+            return "CompactState{" + "label=" + getLabel() + ", initial=" + isInitial() + ", atoms=" + getAtoms() + '}';
+        }
+        //</editor-fold>
+
+        private CompactStructure structure() {
+            return CompactStructure.this;
+        }
+    }
+
+    private class StateSet extends AbstractSet<KripkeState> {
+
+        @Override
+        public Iterator<KripkeState> iterator() {
+            return new Iterator<KripkeState>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < labels.length;
+                }
+
+                @Override
+                public KripkeState next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    return new CompactState(next++);
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof CompactState && ((CompactState) o).structure() == CompactStructure.this;
+        }
+
+        @Override
+        public int size() {
+            return labels.length;
+        }
+    }
+
+    /**
+     * Collects transitions as index pairs and sorts them into rows on build;
+     * re-added state keeps its index and transitions
+     */
+    public static class CompactBuilder implements Builder {
+
+        private static final Logger logger = LoggerFactory.getLogger(CompactBuilder.class);
+
+        private final List<String> labels = new ArrayList<>();
+
+        private final Map<String, Integer> indices = new HashMap<>();
+
+        private final BitSet initial = new BitSet();
+
+        private int[] labelling = new int[16];
+
+        private final Map<Set<Atom>, Integer> atomSets = new HashMap<>();
+
+        private int[] sources = new int[16];
+
+        private int[] destinations = new int[16];
+
+        private int transitionCount = 0;
+
+        private CompactBuilder() {
+        }
+
+        @Override
+        public CompactBuilder withState(String label) {
+            return withState(label, KripkeState.DEFAULT_ATOMS);
+        }
+
+        @Override
+        public CompactBuilder withState(String label, Collection<? extends Atom> atoms) {
+            return withState(label, atoms, KripkeState.DEFAULT_INITIAL);
+        }
+
+        @Override
+        public CompactBuilder withState(String label, Collection<? extends Atom> atoms, boolean initial) {
+            Integer state = indices.get(label);
+
+            if (state == null) {
+                state = labels.size();
+                labels.add(label);
+                indices.put(label, state);
+
+                if (state == labelling.length) {
+                    labelling = Arrays.copyOf(labelling, state * 2);
+                }
+            }
+
+            Set<Atom> atomSet = ImmutableSet.copyOf(atoms);
+            Integer pooled = atomSets.get(atomSet);
+
+            if (pooled == null) {
+                pooled = atomSets.size();
+                atomSets.put(atomSet, pooled);
+            }
+
+            labelling[state] = pooled;
+            this.initial.set(state, initial);
+
+            return this;
+        }
+
+        @Override
+        public CompactBuilder withTransition(String from, String to) throws IllegalArgumentException {
+            Integer source = indices.get(from);
+            Integer target = indices.get(to);
+
+            if (source == null || target == null) {
+                throw new IllegalArgumentException(String.format(
+                        "Both states '%s' and '%s' must be present in Kripke structure to add transition", from, to));
+            }
+
+            if (transitionCount == sources.length) {
+                sources = Arrays.copyOf(sources, transitionCount * 2);
+                destinations = Arrays.copyOf(destinations, transitionCount * 2);
+            }
+
+            sources[transitionCount] = source;
+            destinations[transitionCount] = target;
+            transitionCount++;
+
+            return this;
+        }
+
+        @Override
+        public CompactStructure build() {
+            int stateCount = labels.size();
+            int[] offsets = new int[stateCount + 1];
+
+            for (int i = 0; i < transitionCount; i++) {
+                offsets[sources[i] + 1]++;
+            }
+
+            for (int i = 0; i < stateCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            // counting sort by source, then sort and deduplicate each row
+            int[] targets = new int[transitionCount];
+            int[] next = Arrays.copyOf(offsets, stateCount);
+
+            for (int i = 0; i < transitionCount; i++) {
+                targets[next[sources[i]]++] = destinations[i];
+            }
+
+            int size = 0;
+
+            for (int i = 0; i < stateCount; i++) {
+                int from = offsets[i];
+                Arrays.sort(targets, from, offsets[i + 1]);
+                offsets[i] = size;
+
+                for (int j = from; j < offsets[i + 1]; j++) {
+                    if (j > from && targets[j] == targets[j - 1]) {
+                        logger.debug("Repetitive transition from '{}' to '{}' attempted", labels.get(i), labels.get(targets[j]));
+                    } else {
+                        targets[size++] = targets[j];
+                    }
+                }
+            }
+
+            offsets[stateCount] = size;
+
+            List<Set<Atom>> pool = new ArrayList<>(atomSets.keySet());
+            atomSets.forEach((atoms, index) -> pool.set(index, atoms));
+
+            return new CompactStructure(labels.toArray(new String[stateCount]), (BitSet) initial.clone(), offsets,
+                    Arrays.copyOf(targets, size), Arrays.copyOf(labelling, stateCount), pool);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package edu.univ.software.verification.model.kripke;
+
+import com.google.common.collect.ImmutableSet;
+
+import edu.univ.software.verification.model.KripkeState;
+import edu.univ.software.verification.model.ltl.Atom;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Kripke structure given implicitly by initial states, successor function and
+ * labelling function, for systems too large to be enumerated up front. States
+ * are discovered (and indexed) when they are reached and their successors are
+ * computed once, when first requested, so on-the-fly verification expands
+ * just the part of the structure the search visits.
+ *
+ * Only discovered states (initially just the initial ones) are visible by
+ * label. Methods needing all states (states, state count, predecessors)
+ * explore the whole reachable structure. Only discovery is synchronized:
+ * discovered states and expanded successors are published to be read
+ * without locking, so the structure may be searched from several threads
+ * (the successor function is called outside of the lock, so it must be
+ * thread safe then).
+ *
+ * @author arthur
+ * @param <S> system state type, with equality identifying states
+ */
+public class ImplicitStructure<S> extends AbstractStructure {
+
+    private final Set<S> initialStates;
+
+    private final Function<? super S, ? extends Collection<? extends S>> successorFunction;
+
+    private final Function<? super S, ? extends Collection<? extends Atom>> labellingFunction;
+
+    private final Function<? super S, String> labelFunction;
+
+    //<editor-fold defaultstate="collapsed" desc="Discovered states">
+    /**
+     * Discovered states by index, replaced by a larger copy when full
+     */
+    private volatile Node[] nodes = new Node[16];
+
+    private volatile int discoveredCount = 0;
+
+    /**
+     * Indices of system states, accessed when holding the lock
+     */
+    private final Map<S, Integer> indices = new HashMap<>();
+
+    private final Map<String, Integer> labelIndices = new ConcurrentHashMap<>();
+
+    /**
+     * Equal atom sets shared between states, accessed when holding the lock
+     */
+    private final Map<Set<Atom>, Set<Atom>> atomSets = new HashMap<>();
+
+    private final int[] initialIndices;
+    //</editor-fold>
+
+    /**
+     * Creates implicit structure labelling states by their string form
+     *
+     * @param <S> system state type
+     * @param initialStates initial system states
+     * @param successorFunction computes successors of system state
+     * @param labellingFunction computes atoms true in system state
+     * @return implicit Kripke structure
+     */
+    public static <S> ImplicitStructure<S> of(Collection<? extends S> initialStates,
+            Function<? super S, ? extends Collection<? extends S>> successorFunction,
+            Function<? super S, ? extends Collection<? extends Atom>> labellingFunction) {
+        return new ImplicitStructure<>(initialStates, successorFunction, labellingFunction, String::valueOf);
+    }
+
+    /**
+     * @param initialStates initial system states
+     * @param successorFunction computes successors of system state
+     * @param labellingFunction computes atoms true in system state
+     * @param labelFunction computes unique identifier of system state
+     */
+    public ImplicitStructure(Collection<? extends S> initialStates,
+            Function<? super S, ? extends Collection<? extends S>> successorFunction,
+            Function<? super S, ? extends Collection<? extends Atom>> labellingFunction,
+            Function<? super S, String> labelFunction) {
+        this.initialStates = ImmutableSet.copyOf(initialStates);
+        this.successorFunction = successorFunction;
+        this.labellingFunction = labellingFunction;
+        this.labelFunction = labelFunction;
+
+        synchronized (this) {
+            initialIndices = this.initialStates.stream().mapToInt(this::intern).toArray();
+        }
+    }
+
+    /**
+     * @return number of states discovered so far
+     */
+    public int getDiscoveredCount() {
+        return discoveredCount;
+    }
+
+    /**
+     * @return discovered state, null if not discovered yet
+     */
+    @Override
+    public KripkeState getState(String label) {
+        Integer state = labelIndices.get(label);
+
+        return state != null ? stateOf(state) : null;
+    }
+
+    /**
+     * Explores the whole reachable structure
+     *
+     * @return all reachable states
+     */
+    @Override
+    public Set<KripkeState> getStates() {
+        int count = explore();
+        Set<KripkeState> all = new LinkedHashSet<>();
+
+        for (int state = 0; state < count; state++) {
+            all.add(stateOf(state));
+        }
+
+        return all;
+    }
+
+    /**
+     * Initial states are discovered on construction, without expanding them
+     */
+    @Override
+    public Set<KripkeState> getInitialStates() {
+        Set<KripkeState> all = new LinkedHashSet<>();
+
+        for (int state : initialIndices) {
+            all.add(stateOf(state));
+        }
+
+        return all;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Index based access">
+    /**
+     * Explores the whole reachable structure
+     */
+    @Override
+    public int getStateCount() {
+        return explore();
+    }
+
+    /**
+     * @return index of discovered state, -1 if not discovered yet
+     */
+    @Override
+    public int indexOf(String label) {
+        return labelIndices.getOrDefault(label, -1);
+    }
+
+    @Override
+    public String labelOf(int state) {
+        return nodes[state].label;
+    }
+
+    @Override
+    public int successorCount(int state) {
+        return expand(state).length;
+    }
+
+    @Override
+    public int successor(int state, int i) {
+        return expand(state)[i];
+    }
+
+    @Override
+    public boolean hasTransition(int from, int to) {
+        return Arrays.binarySearch(expand(from), to) >= 0;
+    }
+    //</editor-fold>
+
+    /**
+     * System state of discovered state
+     */
+    @SuppressWarnings("unchecked")
+    public S systemStateOf(int state) {
+        return (S) nodes[state].state;
+    }
+
+    private KripkeState stateOf(int state) {
+        Node node = nodes[state];
+
+        return new BasicState(node.label, node.atoms, node.initial);
+    }
+
+    /**
+     * Indexes system state if not discovered yet, holding the lock. The node
+     * is stored before its label is published, so readers finding the index
+     * see the node
+     */
+    private int intern(S state) {
+        Integer index = indices.get(state);
+
+        if (index != null) {
+            return index;
+        }
+
+        String label = labelFunction.apply(state);
+
+        if (labelIndices.containsKey(label)) {
+            throw new IllegalArgumentException(String.format("Distinct states share label '%s'", label));
+        }
+
+        index = discoveredCount;
+
+        Node[] current = nodes;
+
+        if (index == current.length) {
+            current = Arrays.copyOf(current, index * 2);
+        }
+
+        current[index] = new Node(state, label, atomSets.computeIfAbsent(ImmutableSet.copyOf(labellingFunction.apply(state)), a -> a),
+                initialStates.contains(state));
+        nodes = current;
+        indices.put(state, index);
+        discoveredCount = index + 1;
+        labelIndices.put(label, index);
+
+        return index;
+    }
+
+    /**
+     * Computes successors of state once; expanded successors are read
+     * without locking
+     */
+    private int[] expand(int state) {
+        Node node = nodes[state];
+        int[] targets = node.successors;
+
+        if (targets == null) {
+            @SuppressWarnings("unchecked")
+            Collection<? extends S> next = successorFunction.apply((S) node.state);
+
+            synchronized (this) {
+                targets = node.successors;
+
+                if (targets == null) {
+                    targets = next.stream().mapToInt(this::intern).sorted().distinct().toArray();
+                    node.successors = targets;
+                }
+            }
+        }
+
+        return targets;
+    }
+
+    /**
+     * @return number of reachable states
+     */
+    private int explore() {
+        for (int state = 0; state < discoveredCount; state++) {
+            expand(state);
+        }
+
+        return discoveredCount;
+    }
+
+    /**
+     * Discovered state, with successor indices published once expanded
+     */
+    private static class Node {
+
+        private final Object state;
+
+        private final String label;
+
+        private final Set<Atom> atoms;
+
+        private final boolean initial;
+
+        private volatile int[] successors;
+
+        Node(Object state, String label, Set<Atom> atoms, boolean initial) {
+            this.state = state;
+            this.label = label;
+            this.atoms = atoms;
+            this.initial = initial;
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package edu.univ.software.verification.model.kripke;
+
+import edu.univ.software.verification.model.KripkeState;
+import edu.univ.software.verification.model.KripkeStructure;
+import edu.univ.software.verification.model.ltl.Atom;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only Kripke structure backed by memory-mapped file, so opening it
+ * costs neither parsing nor heap proportional to the model. File consists of
+ * big-endian sections, each mapped separately:
+ *
+ * <pre>
+ * header: magic, version, state, atom and transition counts,
+ *         string bytes, label hash slots
+ * string table: offsets (int[states + atoms + 1]), UTF-8 bytes
+ *               (state labels followed by atom names)
+ * label index: open addressing table of state numbers + 1 (int[slots])
+ * initial states: bitset (long[(states + 63) / 64])
+ * successors: CSR offsets (int[states + 1]), sorted targets (int[transitions])
+ * labelling: atom bitset per state (long[states * ((atoms + 63) / 64)])
+ * </pre>
+ *
+ * States are numbered in insertion order. Every section is limited to 2 GB
+ * by {@link ByteBuffer} indexing.
+ *
+ * @author arthur
+ */
+public class MappedStructure extends AbstractStructure {
+
+    private static final int MAGIC = 0x4b52_504b; // KRPK
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 7 * Integer.BYTES;
+
+    private final int stateCount;
+
+    private final int atomCount;
+
+    private final int words;
+
+    private final ByteBuffer stringOffsets;
+
+    private final ByteBuffer strings;
+
+    private final ByteBuffer labelIndex;
+
+    private final ByteBuffer initial;
+
+    private final ByteBuffer successorOffsets;
+
+    private final ByteBuffer successors;
+
+    private final ByteBuffer labelling;
+
+    /**
+     * Atoms are few, so they are resolved once
+     */
+    private final Atom[] atoms;
+
+    private final Map<Atom, Integer> atomNumbers = new HashMap<>();
+
+    protected MappedStructure(FileChannel channel) throws IOException {
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a Kripke structure file of version " + VERSION);
+        }
+
+        stateCount = header.getInt();
+        atomCount = header.getInt();
+        words = (atomCount + Long.SIZE - 1) / Long.SIZE;
+
+        int transitionCount = header.getInt();
+        int stringBytes = header.getInt();
+        int slots = header.getInt();
+
+        long position = HEADER_SIZE;
+
+        stringOffsets = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) (stateCount + atomCount + 1) * Integer.BYTES);
+        position += stringOffsets.capacity();
+        strings = channel.map(FileChannel.MapMode.READ_ONLY, position, stringBytes);
+        position += stringBytes;
+        labelIndex = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) slots * Integer.BYTES);
+        position += labelIndex.capacity();
+        initial = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) bitsetWords(stateCount) * Long.BYTES);
+        position += initial.capacity();
+        successorOffsets = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) (stateCount + 1) * Integer.BYTES);
+        position += successorOffsets.capacity();
+        successors = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) transitionCount * Integer.BYTES);
+        position += successors.capacity();
+        labelling = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) stateCount * words * Long.BYTES);
+
+        if (position + labelling.capacity() != channel.size()) {
+            throw new IOException("Kripke structure file is truncated or corrupted");
+        }
+
+        atoms = new Atom[atomCount];
+
+        for (int i = 0; i < atomCount; i++) {
+            atoms[i] = Atom.forName(stringAt(stateCount + i));
+            atomNumbers.put(atoms[i], i);
+        }
+    }
+
+    /**
+     * Maps Kripke structure file into memory; mapping stays valid after the
+     * file is closed
+     *
+     * @param path file written by {@link #write(KripkeStructure, Path)}
+     * @return structure reading the file on demand
+     * @throws IOException if file can not be read or has other format
+     */
+    public static MappedStructure open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedStructure(channel);
+        }
+    }
+
+    /**
+     * Writes Kripke structure in the binary format, numbering states by
+     * their indices
+     *
+     * @param structure Kripke structure
+     * @param path target file, replaced if exists
+     * @throws IOException if file can not be written
+     */
+    public static void write(KripkeStructure structure, Path path) throws IOException {
+        int stateCount = structure.getStateCount();
+        Map<Atom, Integer> atomNumbers = new LinkedHashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int transitionCount = 0;
+
+        for (int state = 0; state < stateCount; state++) {
+            strings.add(structure.labelOf(state).getBytes(StandardCharsets.UTF_8));
+            structure.getState(structure.labelOf(state)).getAtoms().forEach(a -> atomNumbers.putIfAbsent(a, atomNumbers.size()));
+            transitionCount += structure.successorCount(state);
+        }
+
+        atomNumbers.keySet().forEach(a -> strings.add(a.getName().getBytes(StandardCharsets.UTF_8)));
+
+        int words = (atomNumbers.size() + Long.SIZE - 1) / Long.SIZE;
+        int stringBytes = strings.stream().mapToInt(s -> s.length).sum();
+        int[] labelIndex = new int[Integer.highestOneBit(Math.max(1, stateCount)) * 4];
+
+        for (int state = 0; state < stateCount; state++) {
+            int slot = slotOf(structure.labelOf(state), labelIndex.length);
+
+            while (labelIndex[slot] != 0) {
+                slot = (slot + 1) & (labelIndex.length - 1);
+            }
+
+            labelIndex[slot] = state + 1;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(stateCount);
+            out.writeInt(atomNumbers.size());
+            out.writeInt(transitionCount);
+            out.writeInt(stringBytes);
+            out.writeInt(labelIndex.length);
+
+            int offset = 0;
+
+            for (byte[] string : strings) {
+                out.writeInt(offset);
+                offset += string.length;
+            }
+
+            out.writeInt(offset);
+
+            for (byte[] string : strings) {
+                out.write(string);
+            }
+
+            for (int number : labelIndex) {
+                out.writeInt(number);
+            }
+
+            long[] initial = new long[bitsetWords(stateCount)];
+
+            for (int state = 0; state < stateCount; state++) {
+                if (structure.getState(structure.labelOf(state)).isInitial()) {
+                    initial[state / Long.SIZE] |= 1L << state;
+                }
+            }
+
+            for (long word : initial) {
+                out.writeLong(word);
+            }
+
+            offset = 0;
+
+            for (int state = 0; state < stateCount; state++) {
+                out.writeInt(offset);
+                offset += structure.successorCount(state);
+            }
+
+            out.writeInt(offset);
+
+            for (int state = 0; state < stateCount; state++) {
+                int[] sorted = new int[structure.successorCount(state)];
+
+                for (int i = 0; i < sorted.length; i++) {
+                    sorted[i] = structure.successor(state, i);
+                }
+
+                Arrays.sort(sorted);
+
+                for (int target : sorted) {
+                    out.writeInt(target);
+                }
+            }
+
+            for (int state = 0; state < stateCount; state++) {
+                long[] bits = new long[words];
+
+                structure.getState(structure.labelOf(state)).getAtoms().forEach(a -> {
+                    int i = atomNumbers.get(a);
+                    bits[i / Long.SIZE] |= 1L << i;
+                });
+
+                for (long word : bits) {
+                    out.writeLong(word);
+                }
+            }
+        }
+    }
+
+    @Override
+    public KripkeState getState(String label) {
+        int state = indexOf(label);
+
+        return state < 0 ? null : new MappedState(state);
+    }
+
+    @Override
+    public Set<KripkeState> getStates() {
+        return new AbstractSet<KripkeState>() {
+            @Override
+            public Iterator<KripkeState> iterator() {
+                return new Iterator<KripkeState>() {
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < stateCount;
+                    }
+
+                    @Override
+                    public KripkeState next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        return new MappedState(next++);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return stateCount;
+            }
+        };
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Index based access">
+    @Override
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    @Override
+    public int indexOf(String label) {
+        byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+        int slots = labelIndex.capacity() / Integer.BYTES;
+
+        for (int slot = slotOf(label, slots);; slot = (slot + 1) & (slots - 1)) {
+            int state = labelIndex.getInt(slot * Integer.BYTES) - 1;
+
+            if (state < 0) {
+                return -1;
+            } else if (isStringAt(state, bytes)) {
+                return state;
+            }
+        }
+    }
+
+    @Override
+    public String labelOf(int state) {
+        return stringAt(state);
+    }
+
+    public boolean isInitial(int state) {
+        return (initial.getLong(state / Long.SIZE * Long.BYTES) & (1L << state)) != 0;
+    }
+
+    @Override
+    public int successorCount(int state) {
+        return successorOffsets.getInt((state + 1) * Integer.BYTES) - successorOffsets.getInt(state * Integer.BYTES);
+    }
+
+    @Override
+    public int successor(int state, int i) {
+        return successors.getInt((successorOffsets.getInt(state * Integer.BYTES) + i) * Integer.BYTES);
+    }
+
+    /**
+     * Binary search in sorted successors of the source
+     */
+    @Override
+    public boolean hasTransition(int from, int to) {
+        int low = successorOffsets.getInt(from * Integer.BYTES);
+        int high = successorOffsets.getInt((from + 1) * Integer.BYTES) - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int target = successors.getInt(middle * Integer.BYTES);
+
+            if (target < to) {
+                low = middle + 1;
+            } else if (target > to) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+    //</editor-fold>
+
+    private boolean hasAtom(int state, int atom) {
+        long word = labelling.getLong((state * words + atom / Long.SIZE) * Long.BYTES);
+
+        return (word & (1L << atom)) != 0;
+    }
+
+    private String stringAt(int index) {
+        int start = stringOffsets.getInt(index * Integer.BYTES);
+        byte[] bytes = new byte[stringOffsets.getInt((index + 1) * Integer.BYTES) - start];
+
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = strings.get(start + i);
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean isStringAt(int index, byte[] bytes) {
+        int start = stringOffsets.getInt(index * Integer.BYTES);
+
+        if (stringOffsets.getInt((index + 1) * Integer.BYTES) - start != bytes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < bytes.length; i++) {
+            if (strings.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int slotOf(String label, int slots) {
+        int hash = label.hashCode();
+
+        return (hash ^ (hash >>> 16)) & (slots - 1);
+    }
+
+    private static int bitsetWords(int bits) {
+        return (bits + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * State view reading the mapped file on access
+     */
+    private class MappedState implements KripkeState {
+
+        private final int state;
+
+        MappedState(int state) {
+            this.state = state;
+        }
+
+        @Override
+        public String getLabel() {
+            return labelOf(state);
+        }
+
+        @Override
+        public Set<Atom> getAtoms() {
+            return new AbstractSet<Atom>() {
+                @Override
+                public boolean contains(Object o) {
+                    Integer atom = atomNumbers.get(o);
+
+                    return atom != null && hasAtom(state, atom);
+                }
+
+                @Override
+                public Iterator<Atom> iterator() {
+                    return new Iterator<Atom>() {
+                        private int next = advance(0);
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < atomCount;
+                        }
+
+                        @Override
+                        public Atom next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            Atom atom = atoms[next];
+                            next = advance(next + 1);
+
+                            return atom;
+                        }
+
+                        private int advance(int from) {
+                            while (from < atomCount && !hasAtom(state, from)) {
+                                from++;
+                            }
+
+                            return from;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+
+                    for (int w = 0; w < words; w++) {
+                        size += Long.bitCount(labelling.getLong((state * words + w) * Long.BYTES));
+                    }
+
+                    return size;
+                }
+            };
+        }
+
+        @Override
+        public boolean isInitial() {
+            return MappedStructure.this.isInitial(state);
+        }
+
+        @Override
+        public int hashCode() {
+            return state;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof MappedState)) {
+                return false;
+            }
+
+            final MappedState other = (MappedState) o;
+
+            return state == other.state && outer() == other.outer();
+        }
+
+        @Override
+        public String toString() {
+            return "MappedState{" + "label=" + getLabel() + ", initial=" + isInitial() + ", atoms=" + getAtoms() + '}';
+        }
+
+        private MappedStructure outer() {
+            return MappedStructure.this;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package edu.univ.software.verification.model.ltl;
+
+import edu.univ.software.verification.model.LtlFormula;
+
+/**
+ * Base of formulas managed by {@link FormulaFactory}
+ *
+ * @author arthur
+ */
+abstract class AbstractFormula implements LtlFormula {
+
+    /**
+     * Dense id assigned once the formula becomes canonical
+     */
+    int id = -1;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getId() {
+        return id;
+    }
+}
@@ -10,7 +10,7 @@ import java.util.Set;
  *
  * @author Pocomaxa
  */
-public class Atom implements LtlFormula {
+public class Atom extends AbstractFormula {
 
     public enum AtomType {
 
@@ -20,24 +20,37 @@ public class Atom implements LtlFormula {
     }
 
     //Special case Atoms
-    public final static Atom _0 = new Atom(AtomType._0);
-    public final static Atom _1 = new Atom(AtomType._1);
+    public final static Atom _0 = FormulaFactory.INSTANCE.intern(new Atom(null, AtomType._0));
+    public final static Atom _1 = FormulaFactory.INSTANCE.intern(new Atom(null, AtomType._1));
 
     private final String name;
     private final AtomType type;
+    private final int hash;
 
     public static Atom forName(String name) {
-        return new Atom(name);
+        return FormulaFactory.INSTANCE.atom(name);
     }
 
+    /**
+     * Creates atom equal to (and sharing id with) the canonical one, prefer
+     * {@link #forName(String)}
+     *
+     * @param name proposition name
+     */
     public Atom(String name) {
-        this.name = name.toLowerCase();
-        this.type = AtomType.VAR;
+        this(name, AtomType.VAR);
+
+        this.id = forName(name).getId();
     }
 
-    private Atom(AtomType type) {
+    Atom(String name, AtomType type) {
         this.type = type;
-        this.name = type.toString();
+        this.name = type == AtomType.VAR ? name.toLowerCase() : type.toString();
+
+        int h = 3;
+        h = 83 * h + Objects.hashCode(this.name)
+                + Objects.hashCode(this.type);
+        this.hash = h;
     }
 
     /**
@@ -56,14 +69,14 @@ public class Atom implements LtlFormula {
 
     @Override
     public int hashCode() {
-        int hash = 3;
-        hash = 83 * hash + Objects.hashCode(this.name)
-                + Objects.hashCode(this.type);
         return hash;
     }
 
     @Override
     public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
         if (obj == null) {
             return false;
         }
@@ -73,7 +86,7 @@ public class Atom implements LtlFormula {
 
         final Atom other = (Atom) obj;
 
-        return Objects.equals(this.type, other.type) && Objects.equals(this.name, other.name);
+        return this.hash == other.hash && Objects.equals(this.type, other.type) && Objects.equals(this.name, other.name);
     }
 
     @Override
@@ -10,10 +10,10 @@ import java.util.Set;
  *
  * @author Pocomaxa
  */
-public class BinaryOp implements LtlFormula {
+public class BinaryOp extends AbstractFormula {
 
     public static BinaryOp build(OpType opType, LtlFormula opLeft, LtlFormula opRight) {
-        return new BinaryOp(opType, opLeft, opRight);
+        return FormulaFactory.INSTANCE.binary(opType, opLeft, opRight);
     }
 
     public static LtlFormula concat(OpType opType, List<LtlFormula> formulas) {
@@ -48,11 +48,18 @@ public class BinaryOp implements LtlFormula {
     private final OpType opType;
     private final LtlFormula opLeft;
     private final LtlFormula opRight;
+    private final int hash;
 
-    private BinaryOp(OpType opType, LtlFormula opLeft, LtlFormula opRight) {
+    BinaryOp(OpType opType, LtlFormula opLeft, LtlFormula opRight) {
         this.opType = opType;
         this.opLeft = opLeft;
         this.opRight = opRight;
+
+        int h = 3;
+        h = 53 * h + Objects.hashCode(this.opType);
+        h = 53 * h + Objects.hashCode(this.opLeft);
+        h = 53 * h + Objects.hashCode(this.opRight);
+        this.hash = h;
     }
 
     /**
@@ -138,15 +145,14 @@ public class BinaryOp implements LtlFormula {
 
     @Override
     public int hashCode() {
-        int hash = 3;
-        hash = 53 * hash + Objects.hashCode(this.opType);
-        hash = 53 * hash + Objects.hashCode(this.opLeft);
-        hash = 53 * hash + Objects.hashCode(this.opRight);
         return hash;
     }
 
     @Override
     public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
         if (obj == null) {
             return false;
         }
@@ -156,7 +162,8 @@ public class BinaryOp implements LtlFormula {
 
         final BinaryOp other = (BinaryOp) obj;
 
-        return this.opType == other.opType && Objects.equals(this.opLeft, other.opLeft) && Objects.equals(this.opRight, other.opRight);
+        return this.hash == other.hash && this.opType == other.opType
+                && Objects.equals(this.opLeft, other.opLeft) && Objects.equals(this.opRight, other.opRight);
     }
 
     @Override
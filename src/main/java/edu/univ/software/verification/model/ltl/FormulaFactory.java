@@ -0,0 +1,73 @@
+package edu.univ.software.verification.model.ltl;
+
+import edu.univ.software.verification.model.LtlFormula;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Unique table of LTL formulas (hash-consing). Every atom, unary and binary
+ * operator built through {@link Atom#forName(String)},
+ * {@link UnaryOp#build(UnaryOp.OpType, LtlFormula)} and
+ * {@link BinaryOp#build(BinaryOp.OpType, LtlFormula, LtlFormula)} is created
+ * once, so formulas form a DAG of shared subformulas. Canonical formulas get
+ * a dense id on creation and their hash is computed once; since operands are
+ * canonical too, equality checks stop at the first level.
+ *
+ * Formulas no longer referenced are dropped from the table, ids are not
+ * reused.
+ *
+ * @author arthur
+ */
+public enum FormulaFactory {
+
+    INSTANCE;
+
+    private final Map<LtlFormula, WeakReference<LtlFormula>> table = new WeakHashMap<>();
+
+    private int nextId = 0;
+
+    public Atom atom(String name) {
+        return intern(new Atom(name, Atom.AtomType.VAR));
+    }
+
+    public UnaryOp unary(UnaryOp.OpType opType, LtlFormula operand) {
+        return intern(new UnaryOp(opType, operand));
+    }
+
+    public BinaryOp binary(BinaryOp.OpType opType, LtlFormula opLeft, LtlFormula opRight) {
+        return intern(new BinaryOp(opType, opLeft, opRight));
+    }
+
+    /**
+     * Upper bound of ids issued so far, e.g. to size bitsets over ids
+     *
+     * @return number of ids issued
+     */
+    public synchronized int getIdCount() {
+        return nextId;
+    }
+
+    /**
+     * Gets canonical formula equal to the candidate. If there is none yet the
+     * candidate becomes canonical and gets a new id.
+     *
+     * @param candidate freshly created formula
+     * @return canonical formula
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <F extends AbstractFormula> F intern(F candidate) {
+        WeakReference<LtlFormula> ref = table.get(candidate);
+        LtlFormula canonical = ref != null ? ref.get() : null;
+
+        if (canonical != null) {
+            return (F) canonical;
+        }
+
+        candidate.id = nextId++;
+        table.put(candidate, new WeakReference<>(candidate));
+
+        return candidate;
+    }
+}
@@ -0,0 +1,151 @@
+package edu.univ.software.verification.model.ltl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Symbolic transition guard: conjunction of atomic propositions required to
+ * hold (positive) and to not hold (negative), every other proposition being
+ * "don't care". Stands for all the valuations it matches without
+ * enumerating them. Propositions are encoded as bits of
+ * {@link PropositionDictionary} indices.
+ *
+ * @author arthur
+ */
+public final class Guard {
+
+    public static final Guard TRUE = new Guard(new long[0], new long[0]);
+
+    private final long[] positive;
+
+    private final long[] negative;
+
+    public static Guard of(Collection<Atom> positive, Collection<Atom> negative) {
+        return of(Valuation.of(positive).toBitSet(), Valuation.of(negative).toBitSet());
+    }
+
+    /**
+     * Creates guard from bits of dictionary indices
+     *
+     * @param positive propositions required to hold
+     * @param negative propositions required to not hold
+     * @return corresponding guard
+     */
+    public static Guard of(BitSet positive, BitSet negative) {
+        return positive.isEmpty() && negative.isEmpty() ? TRUE : new Guard(positive.toLongArray(), negative.toLongArray());
+    }
+
+    private Guard(long[] positive, long[] negative) {
+        this.positive = positive;
+        this.negative = negative;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    public BitSet getPositive() {
+        return BitSet.valueOf(positive);
+    }
+
+    public BitSet getNegative() {
+        return BitSet.valueOf(negative);
+    }
+    //</editor-fold>
+
+    /**
+     * Checks whether some valuation matches the guard
+     *
+     * @return false if a proposition is both required and forbidden
+     */
+    public boolean isSatisfiable() {
+        for (int i = 0; i < Math.min(positive.length, negative.length); i++) {
+            if ((positive[i] & negative[i]) != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether valuation satisfies the guard
+     *
+     * @param atoms propositions holding
+     * @return true if all positive and none of negative propositions hold
+     */
+    public boolean matches(Set<Atom> atoms) {
+        Valuation valuation = Valuation.of(atoms);
+
+        for (int i = 0; i < positive.length; i++) {
+            if (i >= valuation.wordCount() || (valuation.word(i) & positive[i]) != positive[i]) {
+                return false;
+            }
+        }
+
+        for (int i = 0; i < Math.min(negative.length, valuation.wordCount()); i++) {
+            if ((valuation.word(i) & negative[i]) != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Conjunction of two guards
+     *
+     * @param other guard to conjoin with
+     * @return guard matching valuations matched by both (may be
+     * unsatisfiable)
+     */
+    public Guard and(Guard other) {
+        BitSet conjPositive = getPositive();
+        BitSet conjNegative = getNegative();
+
+        conjPositive.or(other.getPositive());
+        conjNegative.or(other.getNegative());
+
+        return of(conjPositive, conjNegative);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="hashCode + equals + toString">
+    @Override
+    public int hashCode() {
+        int hash = 7;
+
+        hash = 53 * hash + Arrays.hashCode(this.positive);
+        hash = 53 * hash + Arrays.hashCode(this.negative);
+
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+
+        if (!(o instanceof Guard)) {
+            return false;
+        }
+
+        final Guard other = (Guard) o;
+
+        return Arrays.equals(this.positive, other.positive) && Arrays.equals(this.negative, other.negative);
+    }
+
+    @Override
+    public String toString() {
+        if (this.equals(TRUE)) {
+            return Atom._1.toString();
+        }
+
+        String positivePart = Valuation.of(getPositive()).stream().map(Atom::toString).collect(Collectors.joining(" & "));
+        String negativePart = Valuation.of(getNegative()).stream().map(a -> "!" + a).collect(Collectors.joining(" & "));
+
+        return positivePart.isEmpty() || negativePart.isEmpty()
+                ? positivePart + negativePart : positivePart + " & " + negativePart;
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,73 @@
+package edu.univ.software.verification.model.ltl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Dictionary of atomic propositions, assigning each atom a stable bit index
+ * used by {@link Valuation}. Indices are shared by all automata, so
+ * valuations of a system and of a specification are directly comparable.
+ *
+ * @author arthur
+ */
+public enum PropositionDictionary {
+
+    INSTANCE;
+
+    private final Map<Atom, Integer> indices = new ConcurrentHashMap<>();
+
+    private final List<Atom> atoms = new CopyOnWriteArrayList<>();
+
+    /**
+     * Gets bit index of atom, assigning a new one on the first request
+     *
+     * @param atom atomic proposition
+     * @return bit index
+     */
+    public int indexOf(Atom atom) {
+        Integer index = indices.get(atom);
+
+        if (index != null) {
+            return index;
+        }
+
+        synchronized (this) {
+            return indices.computeIfAbsent(atom, a -> {
+                atoms.add(a);
+
+                return atoms.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Gets bit index of atom without assigning one
+     *
+     * @param atom atomic proposition
+     * @return bit index, -1 if atom is not known yet
+     */
+    public int lookup(Object atom) {
+        Integer index = indices.get(atom);
+
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Gets atom by it's bit index
+     *
+     * @param index bit index
+     * @return corresponding atom
+     */
+    public Atom atomAt(int index) {
+        return atoms.get(index);
+    }
+
+    /**
+     * @return number of known atoms
+     */
+    public int size() {
+        return atoms.size();
+    }
+}
@@ -9,10 +9,10 @@ import java.util.Set;
  *
  * @author Pocomaxa
  */
-public class UnaryOp implements LtlFormula {
+public class UnaryOp extends AbstractFormula {
 
     public static UnaryOp build(OpType opType, LtlFormula operand) {
-        return new UnaryOp(opType, operand);
+        return FormulaFactory.INSTANCE.unary(opType, operand);
     }
 
     public enum OpType {
@@ -24,10 +24,16 @@ public class UnaryOp implements LtlFormula {
     }
     private final OpType opType;
     private final LtlFormula operand;
+    private final int hash;
 
-    private UnaryOp(OpType opType, LtlFormula operand) {
+    UnaryOp(OpType opType, LtlFormula operand) {
         this.opType = opType;
         this.operand = operand;
+
+        int h = 5;
+        h = 53 * h + Objects.hashCode(this.opType);
+        h = 53 * h + Objects.hashCode(this.operand);
+        this.hash = h;
     }
 
     /**
@@ -99,14 +105,14 @@ public class UnaryOp implements LtlFormula {
 
     @Override
     public int hashCode() {
-        int hash = 5;
-        hash = 53 * hash + Objects.hashCode(this.opType);
-        hash = 53 * hash + Objects.hashCode(this.operand);
         return hash;
     }
 
     @Override
     public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
         if (obj == null) {
             return false;
         }
@@ -116,7 +122,7 @@ public class UnaryOp implements LtlFormula {
 
         final UnaryOp other = (UnaryOp) obj;
 
-        return this.opType == other.opType && Objects.equals(this.operand, other.operand);
+        return this.hash == other.hash && this.opType == other.opType && Objects.equals(this.operand, other.operand);
     }
 
     @Override
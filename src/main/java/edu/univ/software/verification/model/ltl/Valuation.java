@@ -0,0 +1,159 @@
+package edu.univ.software.verification.model.ltl;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable set of atomic propositions encoded as bits of
+ * {@link PropositionDictionary} indices. Used as transition symbol in place
+ * of hash sets of atoms: comparing two valuations compares their words (a
+ * single one for up to 64 propositions), while the usual {@code Set<Atom>}
+ * contract (including equality with other sets) is kept.
+ *
+ * @author arthur
+ */
+public final class Valuation extends AbstractSet<Atom> {
+
+    public static final Valuation EMPTY = new Valuation(new long[0]);
+
+    /**
+     * Bits of the valuation without trailing zero words
+     */
+    private final long[] words;
+
+    private final int hash;
+
+    public static Valuation of(Atom... atoms) {
+        return of(Arrays.asList(atoms));
+    }
+
+    public static Valuation of(Collection<? extends Atom> atoms) {
+        if (atoms instanceof Valuation) {
+            return (Valuation) atoms;
+        }
+
+        BitSet bits = new BitSet();
+
+        atoms.forEach(a -> bits.set(PropositionDictionary.INSTANCE.indexOf(a)));
+
+        return of(bits);
+    }
+
+    /**
+     * Creates valuation from bits of dictionary indices
+     *
+     * @param bits dictionary indices of contained atoms
+     * @return corresponding valuation
+     */
+    public static Valuation of(BitSet bits) {
+        return bits.isEmpty() ? EMPTY : new Valuation(bits.toLongArray());
+    }
+
+    private Valuation(long[] words) {
+        this.words = words;
+        this.hash = super.hashCode();
+    }
+
+    /**
+     * @return dictionary indices of contained atoms
+     */
+    public BitSet toBitSet() {
+        return BitSet.valueOf(words);
+    }
+
+    int wordCount() {
+        return words.length;
+    }
+
+    long word(int index) {
+        return words[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object o) {
+        int index = PropositionDictionary.INSTANCE.lookup(o);
+
+        return index >= 0 && index / Long.SIZE < words.length && (words[index / Long.SIZE] & (1L << index)) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        int size = 0;
+
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<Atom> iterator() {
+        return new Iterator<Atom>() {
+
+            private int next = nextIndex(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Atom next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+
+                Atom atom = PropositionDictionary.INSTANCE.atomAt(next);
+                next = nextIndex(next + 1);
+
+                return atom;
+            }
+        };
+    }
+
+    private int nextIndex(int from) {
+        for (int w = from / Long.SIZE; w < words.length; w++) {
+            long word = w == from / Long.SIZE ? words[w] & (-1L << from) : words[w];
+
+            if (word != 0) {
+                return w * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+        }
+
+        return -1;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="hashCode + equals">
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+
+        if (o instanceof Valuation) {
+            return Arrays.equals(this.words, ((Valuation) o).words);
+        }
+
+        return super.equals(o);
+    }
+    //</editor-fold>
+}
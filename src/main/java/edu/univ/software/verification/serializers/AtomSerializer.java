@@ -16,7 +16,7 @@ public class AtomSerializer implements JsonSerializer<Atom>, JsonDeserializer<At
     @Override
     public Atom deserialize(JsonElement jsonElement, Type type,
             JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-        return new Atom(jsonElement.getAsString());
+        return Atom.forName(jsonElement.getAsString());
     }
 
     @Override
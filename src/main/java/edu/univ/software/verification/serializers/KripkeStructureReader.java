@@ -0,0 +1,200 @@
+package edu.univ.software.verification.serializers;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
+
+import edu.univ.software.verification.model.KripkeState;
+import edu.univ.software.verification.model.KripkeStructure;
+import edu.univ.software.verification.model.kripke.BasicStructure;
+import edu.univ.software.verification.model.ltl.Atom;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming reader of Kripke structures in the JSON format of
+ * {@link BasicStructureSerializer}. States and transitions are passed to
+ * {@link KripkeStructure.Builder} as soon as they are read, so no document
+ * tree or intermediate maps are kept; equal atom sets are shared between
+ * states.
+ *
+ * Transitions preceding the states in the document are kept until the end
+ * of it.
+ *
+ * @author arthur
+ */
+public enum KripkeStructureReader {
+
+    INSTANCE;
+
+    /**
+     * Reads Kripke structure from UTF-8 encoded file into
+     * {@link BasicStructure}
+     *
+     * @param path file location
+     * @return read structure
+     * @throws IOException if file can not be read or is malformed
+     */
+    public KripkeStructure read(Path path) throws IOException {
+        return read(path, BasicStructure.builder());
+    }
+
+    /**
+     * Reads Kripke structure from UTF-8 encoded file using the builder
+     *
+     * @param path file location
+     * @param builder empty builder of resulting structure
+     * @return built structure
+     * @throws IOException if file can not be read or is malformed
+     */
+    public KripkeStructure read(Path path, KripkeStructure.Builder builder) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(reader, builder);
+        }
+    }
+
+    /**
+     * Reads Kripke structure using the builder
+     *
+     * @param reader JSON source (not closed)
+     * @param builder empty builder of resulting structure
+     * @return built structure
+     * @throws IOException if source can not be read or is malformed
+     */
+    public KripkeStructure read(Reader reader, KripkeStructure.Builder builder) throws IOException {
+        JsonReader json = new JsonReader(reader);
+        Map<Set<Atom>, Set<Atom>> atomSets = new HashMap<>();
+        boolean isStatesRead = false;
+        List<String[]> pending = new ArrayList<>();
+
+        json.beginObject();
+
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "states":
+                    json.beginArray();
+
+                    while (json.hasNext()) {
+                        readState(json, builder, atomSets);
+                    }
+
+                    json.endArray();
+                    isStatesRead = true;
+                    break;
+                case "transitions":
+                    json.beginArray();
+
+                    while (json.hasNext()) {
+                        readTransition(json, builder, isStatesRead ? null : pending);
+                    }
+
+                    json.endArray();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+
+        json.endObject();
+
+        for (String[] transition : pending) {
+            builder.withTransition(transition[0], transition[1]);
+        }
+
+        return builder.build();
+    }
+
+    private void readState(JsonReader json, KripkeStructure.Builder builder, Map<Set<Atom>, Set<Atom>> atomSets) throws IOException {
+        String label = null;
+        boolean initial = KripkeState.DEFAULT_INITIAL;
+        Set<Atom> atoms = KripkeState.DEFAULT_ATOMS;
+
+        json.beginObject();
+
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "name":
+                    label = json.nextString();
+                    break;
+                case "initial":
+                    initial = json.nextBoolean();
+                    break;
+                case "atoms":
+                    Set<Atom> read = new HashSet<>();
+                    json.beginArray();
+
+                    while (json.hasNext()) {
+                        read.add(Atom.forName(json.nextString()));
+                    }
+
+                    json.endArray();
+                    atoms = atomSets.computeIfAbsent(read, ImmutableSet::copyOf);
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+
+        json.endObject();
+
+        if (label == null) {
+            throw new MalformedJsonException("State without name at " + json.getPath());
+        }
+
+        builder.withState(label, atoms, initial);
+    }
+
+    /**
+     * @param pending transitions kept until the states are read, null if they
+     * are read already
+     */
+    private void readTransition(JsonReader json, KripkeStructure.Builder builder, List<String[]> pending) throws IOException {
+        String source = null;
+        List<String> destinations = new ArrayList<>();
+
+        json.beginObject();
+
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "source":
+                    source = json.nextString();
+                    break;
+                case "destinations":
+                    json.beginArray();
+
+                    while (json.hasNext()) {
+                        destinations.add(json.nextString());
+                    }
+
+                    json.endArray();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+
+        json.endObject();
+
+        if (source == null) {
+            throw new MalformedJsonException("Transition without source at " + json.getPath());
+        }
+
+        for (String destination : destinations) {
+            if (pending == null) {
+                builder.withTransition(source, destination);
+            } else {
+                pending.add(new String[]{source, destination});
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package edu.univ.software.verification.utils;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.collect.Table;
+
+import edu.univ.software.verification.model.Automaton;
+import edu.univ.software.verification.model.AutomatonState;
+import edu.univ.software.verification.model.fa.BasicState;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Base class for on-the-fly (lazy) products of two automata. Product states
+ * are discovered and their successors computed only when requested, so an
+ * emptiness check stopping at the first accepting cycle never builds most of
+ * the product. Only the mapping of discovered labels to product states is
+ * kept in memory.
+ *
+ * Methods returning all states or transitions explore the whole reachable
+ * product and are as expensive as building it.
+ *
+ * Successors may be requested from several threads at once (e.g. by parallel
+ * emptiness check); only the access to discovered states is synchronized.
+ *
+ * @author arthur
+ * @param <T> transition symbol type
+ * @param <S> product state type
+ */
+public abstract class AbstractLazyProduct<T, S> implements Automaton<T> {
+
+    /**
+     * Discovered product states by their labels
+     */
+    private final Map<String, S> discovered = new LinkedHashMap<>();
+
+    private List<S> initial;
+
+    private boolean isExplored = false;
+
+    /**
+     * Computes initial product states
+     *
+     * @return list of initial product states
+     */
+    protected abstract List<S> initialStates();
+
+    /**
+     * Computes product transitions from specified state
+     *
+     * @param state product state
+     * @param consumer receiver of the successor and transition symbols
+     */
+    protected abstract void successors(S state, BiConsumer<S, Set<T>> consumer);
+
+    /**
+     * Unique product state identifier
+     *
+     * @param state product state
+     * @return product state label
+     */
+    protected abstract String labelOf(S state);
+
+    /**
+     * Gets discovered product state by it's label
+     *
+     * @param label product state label
+     * @return corresponding product state, null if not discovered yet
+     */
+    protected S stateOf(String label) {
+        synchronized (discovered) {
+            return discovered.get(label);
+        }
+    }
+
+    /**
+     * Intersection of transition symbol sets of both automata
+     *
+     * @return common transition symbols (possibly empty)
+     */
+    protected static <T> Set<T> commonSymbols(Set<T> symbolsA, Set<T> symbolsB) {
+        return symbolsA.size() <= symbolsB.size()
+                ? Sets.intersection(symbolsA, symbolsB) : Sets.intersection(symbolsB, symbolsA);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AutomatonState getState(String label) {
+        S state = stateOf(label);
+
+        return state != null ? new BasicState(label, isInitial(state)) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasState(String label) {
+        explore();
+
+        return stateOf(label) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<AutomatonState> getStates() {
+        explore();
+
+        return discovered.keySet().stream().map(this::getState).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<AutomatonState> getInitialStates() {
+        return initial().stream().map(s -> {
+            synchronized (discovered) {
+                discovered.putIfAbsent(labelOf(s), s);
+            }
+
+            return new BasicState(labelOf(s), true);
+        }).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Set<T>> getTransitionsFrom(String from) {
+        S state = stateOf(from);
+
+        if (state == null) {
+            return ImmutableMap.of();
+        }
+
+        Map<String, S> targets = new LinkedHashMap<>();
+        Map<String, Set<T>> outgoing = new LinkedHashMap<>();
+
+        successors(state, (next, symbols) -> {
+            String to = labelOf(next);
+
+            targets.putIfAbsent(to, next);
+            outgoing.put(to, ImmutableSet.copyOf(symbols));
+        });
+
+        synchronized (discovered) {
+            targets.forEach(discovered::putIfAbsent);
+        }
+
+        return outgoing;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Set<T>> getTransitionsTo(String to) {
+        return getTransitions().column(to);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<T> getTransitionSymbols(String from, String to) {
+        return getTransitionsFrom(from).get(to);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasTransition(String from, String to) {
+        return getTransitionSymbols(from, to) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Table<String, String, Set<T>> getTransitions() {
+        explore();
+
+        Table<String, String, Set<T>> transitions = HashBasedTable.create();
+
+        for (String from : ImmutableSet.copyOf(discovered.keySet())) {
+            getTransitionsFrom(from).forEach((to, symbols) -> transitions.put(from, to, symbols));
+        }
+
+        return transitions;
+    }
+
+    /**
+     * Gets all product states discovered so far
+     *
+     * @return discovered product states
+     */
+    protected Collection<S> discoveredStates() {
+        return discovered.values();
+    }
+
+    /**
+     * Discovers all reachable product states
+     */
+    protected void explore() {
+        if (isExplored) {
+            return;
+        }
+
+        Set<String> visited = new LinkedHashSet<>();
+        Deque<String> queue = new ArrayDeque<>();
+
+        getInitialStates().forEach(s -> {
+            if (visited.add(s.getLabel())) {
+                queue.add(s.getLabel());
+            }
+        });
+
+        while (!queue.isEmpty()) {
+            getTransitionsFrom(queue.poll()).keySet().stream().filter(visited::add).forEach(queue::add);
+        }
+
+        isExplored = true;
+    }
+
+    private synchronized List<S> initial() {
+        if (initial == null) {
+            initial = initialStates();
+        }
+
+        return initial;
+    }
+
+    private boolean isInitial(S state) {
+        return initial().contains(state);
+    }
+}
@@ -3,6 +3,7 @@ package edu.univ.software.verification.utils;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
 
+import edu.univ.software.verification.model.Automaton;
 import edu.univ.software.verification.model.AutomatonState;
 import edu.univ.software.verification.model.BuchiAutomaton;
 import edu.univ.software.verification.model.KripkeState;
@@ -10,13 +11,22 @@ import edu.univ.software.verification.model.KripkeStructure;
 import edu.univ.software.verification.model.MullerAutomaton;
 import edu.univ.software.verification.model.fa.BasicBuchiAutomaton;
 import edu.univ.software.verification.model.fa.BasicMullerAutomaton;
+import edu.univ.software.verification.model.fa.BasicState;
+import edu.univ.software.verification.model.fa.CompactBuchiAutomaton;
+import edu.univ.software.verification.model.kripke.ImplicitStructure;
 import edu.univ.software.verification.model.ltl.Atom;
+import edu.univ.software.verification.model.ltl.Guard;
+import edu.univ.software.verification.model.ltl.Valuation;
 
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,14 +80,132 @@ public enum AutomataUtils {
     }
 
     /**
-     * Check wether specified Buchi automata accepts only empty language. Prints
-     * ALL counter expamples into the logfile
+     * Check wether specified Buchi automata accepts only empty language. Stops
+     * at the first accepting lasso found (nested depth-first search)
      *
      * @param buchi Buchi automaton to check
-     * @param counters Already initialized set where found counters added
+     * @param counters Already initialized set where found counter is added
      * @return true if only empty, false otherwise
      */
     public <T> boolean emptinessCheck(BuchiAutomaton<T> buchi, Set<String> counters) {
+        return emptinessCheck(buchi, counters, false);
+    }
+
+    /**
+     * Check wether specified Buchi automata accepts only empty language
+     *
+     * @param buchi Buchi automaton to check
+     * @param counters Already initialized set where found counters added
+     * @param allCounterExamples whether ALL counter examples should be found
+     * and printed into the logfile (enumerates all simple paths and cycles,
+     * exponential in automaton size)
+     * @return true if only empty, false otherwise
+     */
+    public <T> boolean emptinessCheck(BuchiAutomaton<T> buchi, Set<String> counters, boolean allCounterExamples) {
+        if (allCounterExamples) {
+            return exhaustiveEmptinessCheck(buchi, counters);
+        }
+
+        Optional<Lasso<T>> lasso = findAcceptingLasso(buchi);
+        lasso.ifPresent(l -> counters.add(printRoute(l)));
+
+        return !lasso.isPresent();
+    }
+
+    /**
+     * Searches for an accepting run of specified Buchi automaton in time
+     * linear in the number of states and transitions
+     *
+     * @param <T> Type of special state's data
+     * @param buchi Buchi automaton to check
+     * @return first accepting lasso found, empty if only empty language is
+     * accepted
+     */
+    public <T> Optional<Lasso<T>> findAcceptingLasso(BuchiAutomaton<T> buchi) {
+        if (buchi instanceof CompactBuchiAutomaton) {
+            return new CompactNestedDfs<>((CompactBuchiAutomaton<T>) buchi).search();
+        }
+
+        return new NestedDfs<>(buchi).search();
+    }
+
+    /**
+     * Check wether specified generalized Buchi (Muller) automaton accepts only
+     * empty language, without degeneralization. Stops at the first accepting
+     * strongly connected component found
+     *
+     * @param muller LGBA (Muller) automaton to check
+     * @param counters Already initialized set where found counter is added
+     * @return true if only empty, false otherwise
+     */
+    public <T> boolean emptinessCheck(MullerAutomaton<T> muller, Set<String> counters) {
+        Optional<Lasso<T>> lasso = findAcceptingLasso(muller);
+        lasso.ifPresent(l -> counters.add(printRoute(l)));
+
+        return !lasso.isPresent();
+    }
+
+    /**
+     * Searches for an accepting run of specified generalized Buchi (Muller)
+     * automaton, i.e. a reachable cycle visiting every final state set
+     *
+     * @param <T> Type of special state's data
+     * @param muller LGBA (Muller) automaton to check
+     * @return first accepting lasso found, empty if only empty language is
+     * accepted
+     */
+    public <T> Optional<Lasso<T>> findAcceptingLasso(MullerAutomaton<T> muller) {
+        return new SccEmptinessCheck<>(muller).search();
+    }
+
+    /**
+     * Check wether specified generalized Buchi (Muller) automaton accepts only
+     * empty language, using all threads of the pool
+     *
+     * @param muller LGBA (Muller) automaton to check
+     * @param counters Already initialized set where found counter is added
+     * @param pool pool running the check
+     * @return true if only empty, false otherwise
+     * @see SwarmEmptinessCheck
+     */
+    public <T> boolean emptinessCheck(MullerAutomaton<T> muller, Set<String> counters, ForkJoinPool pool) {
+        Optional<Lasso<T>> lasso = findAcceptingLasso(muller, pool);
+        lasso.ifPresent(l -> counters.add(printRoute(l)));
+
+        return !lasso.isPresent();
+    }
+
+    /**
+     * Searches for an accepting run of specified Buchi automaton by a swarm
+     * of randomized workers, one per pool thread. Stops as soon as any
+     * worker decides the result
+     *
+     * @param <T> Type of special state's data
+     * @param buchi Buchi automaton to check
+     * @param pool pool running the check
+     * @return first accepting lasso found, empty if only empty language is
+     * accepted
+     */
+    public <T> Optional<Lasso<T>> findAcceptingLasso(BuchiAutomaton<T> buchi, ForkJoinPool pool) {
+        return SwarmEmptinessCheck.of(buchi, pool).search();
+    }
+
+    /**
+     * Searches for an accepting run of specified generalized Buchi (Muller)
+     * automaton by a swarm of randomized workers, one per pool thread. Stops
+     * as soon as any worker decides the result
+     *
+     * @param <T> Type of special state's data
+     * @param muller LGBA (Muller) automaton to check
+     * @param pool pool running the check
+     * @return first accepting lasso found, empty if only empty language is
+     * accepted
+     */
+    public <T> Optional<Lasso<T>> findAcceptingLasso(MullerAutomaton<T> muller, ForkJoinPool pool) {
+        return SwarmEmptinessCheck.of(muller, pool).search();
+    }
+
+    private <T> boolean exhaustiveEmptinessCheck(BuchiAutomaton<T> buchi, Set<String> counters) {
 
         //Stage 1. Find all initial circuits
         Table<String, String, Circuit> initialCircuits = HashBasedTable.create();
@@ -128,7 +256,21 @@ public enum AutomataUtils {
      * @return Buchi (non-deterministic) automaton
      */
     public <T> BuchiAutomaton<T> convert(MullerAutomaton<T> muller) {
-        BuchiAutomaton.Builder<T> builder = BasicBuchiAutomaton.builder();
+        return convert(muller, Automaton.Reduction.SAME_SUCCESSORS);
+    }
+
+    /**
+     * Converts specified Generalized Buchi (Muller) automaton into Buchi
+     * automaton (degeneralization algorythm)
+     *
+     * @param <T> Type of special state's data
+     * @param muller LGBA (Muller) automaton to convert into Buchi
+     * (non-deterministic)
+     * @param reduction reduction of resulting automaton states
+     * @return Buchi (non-deterministic) automaton
+     */
+    public <T> BuchiAutomaton<T> convert(MullerAutomaton<T> muller, Automaton.Reduction reduction) {
+        BuchiAutomaton.Builder<T> builder = BasicBuchiAutomaton.<T>builder().withReduction(reduction);
 
         Set<Set<String>> finalStates = muller.getFinalStateSets();
         Set<String> addedStates = new LinkedHashSet<>();
@@ -180,28 +322,160 @@ public enum AutomataUtils {
      * @return Buchi automaton
      */
     public BuchiAutomaton<Set<Atom>> convert(KripkeStructure kripke) {
-        BuchiAutomaton.Builder<Set<Atom>> builder = BasicBuchiAutomaton.<Set<Atom>>builder();
-        String initStateForBuchiAutomaton = "init";
+        return convert(kripke, Automaton.Reduction.SAME_SUCCESSORS);
+    }
+
+    /**
+     * Converts Kripke structure into Buchi automaton. Implicit structures are
+     * not enumerated (nor reduced), their automaton view is returned instead
+     *
+     * @param kripke Kripke structure to convert into Buchi automaton
+     * @param reduction reduction of resulting automaton states
+     * @return Buchi automaton
+     */
+    public BuchiAutomaton<Set<Atom>> convert(KripkeStructure kripke, Automaton.Reduction reduction) {
+        if (kripke instanceof ImplicitStructure) {
+            return automatonView(kripke);
+        }
+
+        BuchiAutomaton.Builder<Set<Atom>> builder = BasicBuchiAutomaton.<Set<Atom>>builder().withReduction(reduction);
+        String initStateForBuchiAutomaton = KripkeAutomatonView.INITIAL_STATE;
         builder.withState(initStateForBuchiAutomaton, true).withFinalState(initStateForBuchiAutomaton);
         for (KripkeState state : kripke.getStates()) {
             builder.withState(state.getLabel())
                     .withFinalState(state.getLabel());
             if (state.isInitial()) {
-                builder.withTransition(initStateForBuchiAutomaton, state.getLabel(), state.getAtoms());
+                builder.withTransition(initStateForBuchiAutomaton, state.getLabel(), Valuation.of(state.getAtoms()));
             }
         }
 
+        // successors are iterated, so conversion is linear in states and transitions
         for (KripkeState stateFrom : kripke.getStates()) {
-            for (KripkeState stateTo : kripke.getStates()) {
-                if (kripke.hasTransition(stateFrom.getLabel(), stateTo.getLabel())) {
-                    builder.withTransition(stateFrom.getLabel(), stateTo.getLabel(), stateTo.getAtoms());
-                }
+            for (String stateTo : kripke.successors(stateFrom.getLabel())) {
+                builder.withTransition(stateFrom.getLabel(), stateTo, Valuation.of(kripke.getState(stateTo).getAtoms()));
             }
         }
 
         return builder.build();
     }
 
+    /**
+     * Presents Kripke structure as Buchi automaton without building it, so
+     * on-the-fly products visit only the states they reach
+     *
+     * @param kripke Kripke structure
+     * @return Buchi automaton view equal to unreduced conversion
+     */
+    public BuchiAutomaton<Set<Atom>> automatonView(KripkeStructure kripke) {
+        return new KripkeAutomatonView(kripke);
+    }
+
+    /**
+     * Reduces Buchi automaton preserving its language: prunes transitions
+     * into states strictly direct-simulated by other targets of the same
+     * state and symbol, then joins states simulating each other in delayed
+     * manner
+     *
+     * @param <T> Type of special state's data
+     * @param buchi Buchi automaton to reduce
+     * @return reduced Buchi automaton
+     */
+    public <T> BuchiAutomaton<T> reduce(BuchiAutomaton<T> buchi) {
+        BuchiAutomaton<T> pruned = pruneTransitions(buchi);
+
+        return quotient(pruned, BuchiSimulation.delayed(pruned));
+    }
+
+    /**
+     * Reduces generalized Buchi (Muller) automaton preserving its language,
+     * using direct simulation for both pruning and joining states
+     *
+     * @param <T> Type of special state's data
+     * @param muller LGBA (Muller) automaton to reduce
+     * @return reduced LGBA (Muller) automaton
+     */
+    public <T> MullerAutomaton<T> reduce(MullerAutomaton<T> muller) {
+        MullerAutomaton<T> pruned = pruneTransitions(muller);
+
+        return quotient(pruned, BuchiSimulation.direct(pruned));
+    }
+
+    /**
+     * Joins equivalent states of Buchi automaton into the first of them. Joined
+     * state is initial (final) if any of the states is
+     *
+     * @param <T> Type of special state's data
+     * @param buchi Buchi automaton
+     * @param simulation direct or delayed simulation of the automaton
+     * @return quotient Buchi automaton
+     */
+    public <T> BuchiAutomaton<T> quotient(BuchiAutomaton<T> buchi, BuchiSimulation<T> simulation) {
+        Map<String, String> representatives = simulation.getRepresentatives();
+
+        return BasicBuchiAutomaton.<T>builder()
+                .withReduction(Automaton.Reduction.NONE)
+                .withStates(quotientStates(buchi, representatives))
+                .withTransitions(quotientTransitions(buchi, representatives))
+                .withFinalStates(buchi.getFinalStates().stream().map(representatives::get).collect(Collectors.toSet()))
+                .build();
+    }
+
+    /**
+     * Joins equivalent states of generalized Buchi (Muller) automaton into the
+     * first of them. Joined state is initial if any of the states is
+     *
+     * @param <T> Type of special state's data
+     * @param muller LGBA (Muller) automaton
+     * @param simulation direct simulation of the automaton
+     * @return quotient LGBA (Muller) automaton
+     */
+    public <T> MullerAutomaton<T> quotient(MullerAutomaton<T> muller, BuchiSimulation<T> simulation) {
+        Map<String, String> representatives = simulation.getRepresentatives();
+
+        return BasicMullerAutomaton.<T>builder()
+                .withReduction(Automaton.Reduction.NONE)
+                .withStates(quotientStates(muller, representatives))
+                .withTransitions(quotientTransitions(muller, representatives))
+                .withFinalStateSets(muller.getFinalStateSets().stream()
+                        .map(fss -> fss.stream().map(representatives::get).collect(Collectors.toSet()))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    /**
+     * Removes transitions into states strictly direct-simulated by another
+     * target of the same state and symbol
+     *
+     * @param <T> Type of special state's data
+     * @param buchi Buchi automaton
+     * @return Buchi automaton with pruned transitions
+     */
+    public <T> BuchiAutomaton<T> pruneTransitions(BuchiAutomaton<T> buchi) {
+        return BasicBuchiAutomaton.<T>builder()
+                .withReduction(Automaton.Reduction.NONE)
+                .withStates(buchi.getStates())
+                .withTransitions(prunedTransitions(buchi, BuchiSimulation.direct(buchi)))
+                .withFinalStates(buchi.getFinalStates())
+                .build();
+    }
+
+    /**
+     * Removes transitions into states strictly direct-simulated by another
+     * target of the same state and symbol
+     *
+     * @param <T> Type of special state's data
+     * @param muller LGBA (Muller) automaton
+     * @return LGBA (Muller) automaton with pruned transitions
+     */
+    public <T> MullerAutomaton<T> pruneTransitions(MullerAutomaton<T> muller) {
+        return BasicMullerAutomaton.<T>builder()
+                .withReduction(Automaton.Reduction.NONE)
+                .withStates(muller.getStates())
+                .withTransitions(prunedTransitions(muller, BuchiSimulation.direct(muller)))
+                .withFinalStateSets(muller.getFinalStateSets())
+                .build();
+    }
+
     /**
      * Computes direct product of two Buchi automata
      *
@@ -211,9 +485,149 @@ public enum AutomataUtils {
      * @return Buchi automaton with the result of the product
      */
     public <T> BuchiAutomaton<T> product(BuchiAutomaton<T> a, BuchiAutomaton<T> b) {
+        if (a instanceof CompactBuchiAutomaton && b instanceof CompactBuchiAutomaton) {
+            return product((CompactBuchiAutomaton<T>) a, (CompactBuchiAutomaton<T>) b);
+        }
+
         return new DirectProduct<>(a, b).product();
     }
 
+    /**
+     * Computes direct product of two compact Buchi automata, working on state
+     * indices only
+     *
+     * @param <T> Type of special state's data
+     * @param a first Buchi automaton
+     * @param b second Buchi automaton
+     * @return compact Buchi automaton with the result of the product
+     */
+    public <T> CompactBuchiAutomaton<T> product(CompactBuchiAutomaton<T> a, CompactBuchiAutomaton<T> b) {
+        return new CompactProduct<>(a, b).product();
+    }
+
+    /**
+     * Computes product of Buchi and generalized Buchi (Muller) automata
+     * without degeneralization of the latter
+     *
+     * @param <T> Type of special state's data
+     * @param a Buchi automaton
+     * @param b LGBA (Muller) automaton
+     * @return LGBA (Muller) automaton with the result of the product
+     */
+    public <T> MullerAutomaton<T> product(BuchiAutomaton<T> a, MullerAutomaton<T> b) {
+        MullerAutomaton<T> view = productView(a, b);
+
+        return BasicMullerAutomaton.<T>builder()
+                .withStates(view.getStates())
+                .withTransitions(view.getTransitions())
+                .withFinalStateSets(view.getFinalStateSets())
+                .build();
+    }
+
+    /**
+     * Creates on-the-fly direct product of two Buchi automata. Product states
+     * and transitions are computed only when requested, so an emptiness check
+     * stopping at the first accepting lasso explores just a part of it
+     *
+     * @param <T> Type of special state's data
+     * @param a first Buchi automaton
+     * @param b second Buchi automaton
+     * @return lazy Buchi automaton view of the product
+     */
+    public <T> BuchiAutomaton<T> productView(BuchiAutomaton<T> a, BuchiAutomaton<T> b) {
+        return new LazyProduct<>(a, b);
+    }
+
+    /**
+     * Creates on-the-fly product of Buchi and generalized Buchi (Muller)
+     * automata without degeneralization of the latter
+     *
+     * @param <T> Type of special state's data
+     * @param a Buchi automaton
+     * @param b LGBA (Muller) automaton
+     * @return lazy LGBA (Muller) automaton view of the product
+     */
+    public <T> MullerAutomaton<T> productView(BuchiAutomaton<T> a, MullerAutomaton<T> b) {
+        return LazyGeneralizedProduct.of(a, b);
+    }
+
+    /**
+     * Creates on-the-fly product of a system (Buchi automaton over
+     * valuations) and a specification with symbolic guards. A system
+     * transition is kept when some guard matches it, so the guards are
+     * never expanded into valuations
+     *
+     * @param a Buchi automaton over valuations
+     * @param b LGBA (Muller) automaton over guards
+     * @return lazy LGBA (Muller) automaton view of the product
+     */
+    public MullerAutomaton<Set<Atom>> guardedProductView(BuchiAutomaton<Set<Atom>> a, MullerAutomaton<Guard> b) {
+        return new LazyGeneralizedProduct<>(a, b, (valuations, guards) -> valuations.stream()
+                .filter(v -> guards.stream().anyMatch(g -> g.matches(v)))
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Creates on-the-fly direct product of two Buchi automata with symbolic
+     * guards. Product transitions are labelled with satisfiable conjunctions
+     * of the guards
+     *
+     * @param a first Buchi automaton over guards
+     * @param b second Buchi automaton over guards
+     * @return lazy Buchi automaton view of the product
+     */
+    public BuchiAutomaton<Guard> guardedProductView(BuchiAutomaton<Guard> a, BuchiAutomaton<Guard> b) {
+        return new LazyProduct<>(a, b, (guardsA, guardsB) -> guardsA.stream()
+                .flatMap(g -> guardsB.stream().map(g::and))
+                .filter(Guard::isSatisfiable)
+                .collect(Collectors.toSet()));
+    }
+
+    private <T> List<AutomatonState> quotientStates(Automaton<T> automaton, Map<String, String> representatives) {
+        Set<String> initial = automaton.getStates().stream().filter(AutomatonState::isInitial)
+                .map(s -> representatives.get(s.getLabel())).collect(Collectors.toSet());
+
+        return automaton.getStates().stream().map(AutomatonState::getLabel)
+                .filter(s -> representatives.get(s).equals(s))
+                .map(s -> new BasicState(s, initial.contains(s))).collect(Collectors.toList());
+    }
+
+    private <T> Table<String, String, Set<T>> quotientTransitions(Automaton<T> automaton, Map<String, String> representatives) {
+        Table<String, String, Set<T>> transitions = HashBasedTable.create();
+
+        automaton.getTransitions().cellSet().forEach(c -> {
+            String from = representatives.get(c.getRowKey());
+            String to = representatives.get(c.getColumnKey());
+
+            if (!transitions.contains(from, to)) {
+                transitions.put(from, to, new LinkedHashSet<>());
+            }
+
+            transitions.get(from, to).addAll(c.getValue());
+        });
+
+        return transitions;
+    }
+
+    private <T> Table<String, String, Set<T>> prunedTransitions(Automaton<T> automaton, BuchiSimulation<T> simulation) {
+        Table<String, String, Set<T>> transitions = HashBasedTable.create();
+
+        automaton.getTransitions().cellSet().forEach(c -> {
+            Map<String, Set<T>> siblings = automaton.getTransitionsFrom(c.getRowKey());
+
+            // symbol is kept unless another target on it strictly simulates this one
+            Set<T> kept = c.getValue().stream().filter(symbol -> siblings.entrySet().stream().noneMatch(e
+                    -> e.getValue().contains(symbol) && simulation.isSimulating(e.getKey(), c.getColumnKey())
+                    && !simulation.isSimulating(c.getColumnKey(), e.getKey()))).collect(Collectors.toSet());
+
+            if (!kept.isEmpty()) {
+                transitions.put(c.getRowKey(), c.getColumnKey(), kept);
+            }
+        });
+
+        return transitions;
+    }
+
     private int finalIndexOf(Set<Set<String>> finalStates, String state) {
         int i = 0;
 
@@ -282,6 +696,14 @@ public enum AutomataUtils {
         return rt;
     }
 
+    private String printRoute(Lasso<?> lasso) {
+        String rt = lasso.toString();
+
+        logger.debug(rt);
+
+        return rt;
+    }
+
     private void printRoutePart(Circuit route, StringBuilder strbuilder, BuchiAutomaton<?> buchi) {
         for (int i = 0; i < route.path.size() - 1; i++) {
             strbuilder.append(buchi.getTransitionSymbols(route.path.get(i), route.path.get(i + 1)).iterator().next());
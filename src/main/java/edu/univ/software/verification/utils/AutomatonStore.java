@@ -0,0 +1,306 @@
+package edu.univ.software.verification.utils;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+import com.google.common.hash.Hashing;
+
+import edu.univ.software.verification.model.AutomatonState;
+import edu.univ.software.verification.model.LtlFormula;
+import edu.univ.software.verification.model.MullerAutomaton;
+import edu.univ.software.verification.model.fa.BasicMullerAutomaton;
+import edu.univ.software.verification.model.fa.BasicState;
+import edu.univ.software.verification.model.ltl.Atom;
+import edu.univ.software.verification.model.ltl.Guard;
+import edu.univ.software.verification.model.ltl.PropositionDictionary;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Directory of specification automata persisted between runs. Each automaton
+ * is stored in a separate file named by SHA-256 of the converter and the key
+ * formula, in a compact binary format read through a memory mapping:
+ *
+ * <pre>
+ * magic, version, converter, key formula,
+ * proposition names, states (label, initial flag),
+ * guards (positive and negative proposition numbers),
+ * transitions (from, to, guard numbers), final state sets (state numbers)
+ * </pre>
+ *
+ * Propositions are stored by name, as {@link PropositionDictionary} indices
+ * differ between runs. The converter identifies how automata were built (e.g.
+ * with or without reduction), so stores of different converters may share a
+ * directory. Unreadable entries are reported and ignored.
+ *
+ * @author arthur
+ */
+public class AutomatonStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutomatonStore.class);
+
+    private static final int MAGIC = 0x4c47_4241; // LGBA
+
+    private static final int VERSION = 3;
+
+    /**
+     * Converter of automata translated from the formula without reduction
+     */
+    public static final String TABLEAU_CONVERTER = "tableau";
+
+    private static final String EXTENSION = ".lgba";
+
+    private final Path directory;
+
+    private final String converter;
+
+    public AutomatonStore(Path directory) {
+        this(directory, TABLEAU_CONVERTER);
+    }
+
+    /**
+     * @param directory directory of automata files
+     * @param converter identifier of the way stored automata are built
+     */
+    public AutomatonStore(Path directory, String converter) {
+        this.directory = directory;
+        this.converter = converter;
+    }
+
+    /**
+     * Loads automaton stored for the key formula
+     *
+     * @param key (normalized) formula the automaton was built for
+     * @return stored automaton, empty if there is none (or it is unreadable)
+     */
+    public Optional<MullerAutomaton<Guard>> load(LtlFormula key) {
+        Path file = fileOf(key);
+
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !converter.equals(readString(buffer))
+                    || !key.toString().equals(readString(buffer))) {
+                logger.warn("Ignoring stale automaton file {}", file);
+
+                return Optional.empty();
+            }
+
+            return Optional.of(read(buffer));
+        } catch (IOException | RuntimeException e) {
+            logger.warn(String.format("Failed to load automaton file %s", file), e);
+
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores automaton for the key formula, replacing the former one
+     * atomically (the temporary file is removed if storing fails)
+     *
+     * @param key (normalized) formula the automaton was built for
+     * @param automaton automaton to store
+     */
+    public void store(LtlFormula key, MullerAutomaton<Guard> automaton) {
+        Path file = fileOf(key);
+
+        try {
+            Files.createDirectories(directory);
+
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    writeString(out, converter);
+                    writeString(out, key.toString());
+                    write(out, automaton);
+                }
+
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            logger.warn(String.format("Failed to store automaton file %s", file), e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public String getConverter() {
+        return converter;
+    }
+
+    private Path fileOf(LtlFormula key) {
+        return directory.resolve(Hashing.sha256().hashString(converter + '\n' + key, StandardCharsets.UTF_8) + EXTENSION);
+    }
+
+    private void write(DataOutputStream out, MullerAutomaton<Guard> automaton) throws IOException {
+        Map<String, Integer> states = new HashMap<>();
+        Map<Guard, Integer> guards = new LinkedHashMap<>();
+        Map<Integer, Integer> propositions = new LinkedHashMap<>();
+
+        automaton.getTransitions().values().forEach(symbols -> symbols.forEach(g -> {
+            guards.putIfAbsent(g, guards.size());
+            g.getPositive().stream().forEach(i -> propositions.putIfAbsent(i, propositions.size()));
+            g.getNegative().stream().forEach(i -> propositions.putIfAbsent(i, propositions.size()));
+        }));
+
+        out.writeInt(propositions.size());
+
+        for (int index : propositions.keySet()) {
+            writeString(out, PropositionDictionary.INSTANCE.atomAt(index).getName());
+        }
+
+        out.writeInt(automaton.getStates().size());
+
+        for (AutomatonState state : automaton.getStates()) {
+            states.put(state.getLabel(), states.size());
+            writeString(out, state.getLabel());
+            out.writeBoolean(state.isInitial());
+        }
+
+        out.writeInt(guards.size());
+
+        for (Guard guard : guards.keySet()) {
+            writeIndices(out, guard.getPositive(), propositions);
+            writeIndices(out, guard.getNegative(), propositions);
+        }
+
+        out.writeInt(automaton.getTransitions().size());
+
+        for (Table.Cell<String, String, Set<Guard>> cell : automaton.getTransitions().cellSet()) {
+            out.writeInt(states.get(cell.getRowKey()));
+            out.writeInt(states.get(cell.getColumnKey()));
+            out.writeInt(cell.getValue().size());
+
+            for (Guard guard : cell.getValue()) {
+                out.writeInt(guards.get(guard));
+            }
+        }
+
+        out.writeInt(automaton.getFinalStateSets().size());
+
+        for (Set<String> finalStateSet : automaton.getFinalStateSets()) {
+            out.writeInt(finalStateSet.size());
+
+            for (String state : finalStateSet) {
+                out.writeInt(states.get(state));
+            }
+        }
+    }
+
+    private MullerAutomaton<Guard> read(ByteBuffer in) {
+        int[] propositions = new int[in.getInt()];
+
+        for (int i = 0; i < propositions.length; i++) {
+            propositions[i] = PropositionDictionary.INSTANCE.indexOf(Atom.forName(readString(in)));
+        }
+
+        List<String> labels = new ArrayList<>();
+        Map<String, AutomatonState> states = new LinkedHashMap<>();
+
+        for (int i = in.getInt(); i > 0; i--) {
+            String label = readString(in);
+
+            labels.add(label);
+            states.put(label, new BasicState(label, in.get() != 0));
+        }
+
+        Guard[] guards = new Guard[in.getInt()];
+
+        for (int i = 0; i < guards.length; i++) {
+            BitSet positive = readIndices(in, propositions);
+
+            guards[i] = Guard.of(positive, readIndices(in, propositions));
+        }
+
+        Table<String, String, Set<Guard>> transitions = HashBasedTable.create();
+
+        for (int i = in.getInt(); i > 0; i--) {
+            String from = labels.get(in.getInt());
+            String to = labels.get(in.getInt());
+            Set<Guard> symbols = new LinkedHashSet<>();
+
+            for (int j = in.getInt(); j > 0; j--) {
+                symbols.add(guards[in.getInt()]);
+            }
+
+            transitions.put(from, to, symbols);
+        }
+
+        Set<Set<String>> finalStateSets = new LinkedHashSet<>();
+
+        for (int i = in.getInt(); i > 0; i--) {
+            Set<String> finalStateSet = new LinkedHashSet<>();
+
+            for (int j = in.getInt(); j > 0; j--) {
+                finalStateSet.add(labels.get(in.getInt()));
+            }
+
+            finalStateSets.add(finalStateSet);
+        }
+
+        return new BasicMullerAutomaton<>(states, finalStateSets, transitions);
+    }
+
+    private void writeIndices(DataOutputStream out, BitSet indices, Map<Integer, Integer> numbers) throws IOException {
+        out.writeInt(indices.cardinality());
+
+        for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+            out.writeInt(numbers.get(i));
+        }
+    }
+
+    private BitSet readIndices(ByteBuffer in, int[] propositions) {
+        BitSet indices = new BitSet();
+
+        for (int i = in.getInt(); i > 0; i--) {
+            indices.set(propositions[in.getInt()]);
+        }
+
+        return indices;
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
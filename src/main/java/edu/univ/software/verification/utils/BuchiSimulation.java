@@ -0,0 +1,213 @@
+package edu.univ.software.verification.utils;
+
+import edu.univ.software.verification.model.Automaton;
+import edu.univ.software.verification.model.AutomatonState;
+import edu.univ.software.verification.model.BuchiAutomaton;
+import edu.univ.software.verification.model.MullerAutomaton;
+import edu.univ.software.verification.model.fa.DirectSimulation;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Simulation preorder on states of (generalized) Buchi automaton, computed as
+ * the winning region of the simulation game: spoiler moves from simulated
+ * state, duplicator answers on the same symbol from simulating one.
+ *
+ * <ul>
+ * <li>direct: whenever spoiler visits a final state set, duplicator visits it
+ * at the same step</li>
+ * <li>delayed: whenever spoiler visits a final state, duplicator visits a
+ * final state at the same or a later step (Buchi automata only)</li>
+ * </ul>
+ *
+ * Both are sound for quotienting, direct simulation also for pruning of
+ * transitions into strictly simulated states. Relation is quadratic in the
+ * number of states, so it is meant for specification automata.
+ *
+ * @author arthur
+ * @param <T> transition symbol type
+ */
+public class BuchiSimulation<T> {
+
+    private final List<String> labels;
+
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    /**
+     * States by symbol for every state
+     */
+    private final List<Map<T, BitSet>> successors = new ArrayList<>();
+
+    /**
+     * simulators[q] holds states simulating q
+     */
+    private final BitSet[] simulators;
+
+    /**
+     * Computes direct simulation of Buchi automaton
+     */
+    public static <T> BuchiSimulation<T> direct(BuchiAutomaton<T> buchi) {
+        return new BuchiSimulation<>(buchi, s -> marksOf(buchi.isFinal(s)), false);
+    }
+
+    /**
+     * Computes direct simulation of generalized Buchi (Muller) automaton,
+     * where simulating state must belong to every final state set the
+     * simulated one does
+     */
+    public static <T> BuchiSimulation<T> direct(MullerAutomaton<T> muller) {
+        return new BuchiSimulation<>(muller, muller::getFinalStateSetIndices, false);
+    }
+
+    /**
+     * Computes delayed simulation of Buchi automaton
+     */
+    public static <T> BuchiSimulation<T> delayed(BuchiAutomaton<T> buchi) {
+        return new BuchiSimulation<>(buchi, s -> marksOf(buchi.isFinal(s)), true);
+    }
+
+    protected BuchiSimulation(Automaton<T> automaton, Function<String, BitSet> marks, boolean isDelayed) {
+        labels = automaton.getStates().stream().map(AutomatonState::getLabel).collect(Collectors.toList());
+        labels.forEach(label -> indices.put(label, indices.size()));
+
+        for (String label : labels) {
+            Map<T, BitSet> bySymbol = new HashMap<>();
+
+            automaton.getTransitionsFrom(label).forEach((to, symbols) -> symbols.forEach(symbol
+                    -> bySymbol.computeIfAbsent(symbol, k -> new BitSet()).set(indices.get(to))));
+
+            successors.add(bySymbol);
+        }
+
+        BitSet[] stateMarks = labels.stream().map(marks).toArray(BitSet[]::new);
+        simulators = isDelayed ? delayedSimulators(stateMarks)
+                : DirectSimulation.INSTANCE.simulators(successors, stateMarks);
+    }
+
+    /**
+     * @return whether the first state simulates the second one
+     */
+    public boolean isSimulating(String simulating, String simulated) {
+        return simulators[indices.get(simulated)].get(indices.get(simulating));
+    }
+
+    /**
+     * @return whether states simulate each other
+     */
+    public boolean isEquivalent(String s1, String s2) {
+        return isSimulating(s1, s2) && isSimulating(s2, s1);
+    }
+
+    /**
+     * @return map of states to the first (in automaton order) state
+     * equivalent to them
+     */
+    public Map<String, String> getRepresentatives() {
+        Map<String, String> representatives = new HashMap<>();
+
+        for (int q = 0; q < labels.size(); q++) {
+            for (int r = 0; r <= q; r++) {
+                if (simulators[q].get(r) && simulators[r].get(q)) {
+                    representatives.put(labels.get(q), labels.get(r));
+
+                    break;
+                }
+            }
+        }
+
+        return representatives;
+    }
+
+    /**
+     * Solves Buchi game on positions (q, p, pending), where pending means
+     * spoiler has visited a final state duplicator has not answered yet;
+     * duplicator wins by having no pending visit infinitely often
+     */
+    private BitSet[] delayedSimulators(BitSet[] marks) {
+        int n = labels.size();
+        boolean[] isFinal = new boolean[n];
+
+        for (int i = 0; i < n; i++) {
+            isFinal[i] = !marks[i].isEmpty();
+        }
+
+        // greatest fixpoint of positions winning with no pending visit
+        // reached infinitely often, each approximated by least fixpoint
+        BitSet[] winning = positions(n * n, true);
+
+        while (true) {
+            BitSet[] attractor = positions(n * n, false);
+
+            while (true) {
+                BitSet[] next = positions(n * n, false);
+
+                for (int q = 0; q < n; q++) {
+                    for (int p = 0; p < n; p++) {
+                        next[0].set(q * n + p, isControlled(q, p, false, winning, isFinal, n)
+                                || isControlled(q, p, false, attractor, isFinal, n));
+                        next[1].set(q * n + p, isControlled(q, p, true, attractor, isFinal, n));
+                    }
+                }
+
+                if (next[0].equals(attractor[0]) && next[1].equals(attractor[1])) {
+                    break;
+                }
+
+                attractor = next;
+            }
+
+            if (attractor[0].equals(winning[0]) && attractor[1].equals(winning[1])) {
+                break;
+            }
+
+            winning = attractor;
+        }
+
+        BitSet[] relation = new BitSet[n];
+
+        for (int q = 0; q < n; q++) {
+            relation[q] = new BitSet();
+
+            for (int p = 0; p < n; p++) {
+                relation[q].set(p, winning[isFinal[q] && !isFinal[p] ? 1 : 0].get(q * n + p));
+            }
+        }
+
+        return relation;
+    }
+
+    /**
+     * @return whether duplicator can answer every move of spoiler from
+     * position into the target positions
+     */
+    private boolean isControlled(int q, int p, boolean isPending, BitSet[] target, boolean[] isFinal, int n) {
+        return successors.get(q).entrySet().stream().allMatch(e -> {
+            BitSet answers = successors.get(p).get(e.getKey());
+
+            return answers != null && e.getValue().stream().allMatch(to -> answers.stream().anyMatch(answer
+                    -> target[!isFinal[answer] && (isFinal[to] || isPending) ? 1 : 0].get(to * n + answer)));
+        });
+    }
+
+    private static BitSet[] positions(int count, boolean isSet) {
+        BitSet[] positions = {new BitSet(count), new BitSet(count)};
+
+        positions[0].set(0, count, isSet);
+        positions[1].set(0, count, isSet);
+
+        return positions;
+    }
+
+    private static BitSet marksOf(boolean isFinal) {
+        BitSet marks = new BitSet();
+        marks.set(0, isFinal);
+
+        return marks;
+    }
+}
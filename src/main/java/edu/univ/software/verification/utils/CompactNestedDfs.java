@@ -0,0 +1,172 @@
+package edu.univ.software.verification.utils;
+
+import edu.univ.software.verification.model.fa.CompactBuchiAutomaton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Nested depth-first search emptiness check working on state indices of a
+ * compact Buchi automaton. Same search as {@link NestedDfs}, but colors and
+ * both stacks are primitive arrays and successors are read from the CSR
+ * edge arrays, so the search itself allocates nothing per state or edge.
+ *
+ * @author arthur
+ * @param <T> transition symbol type
+ */
+public class CompactNestedDfs<T> {
+
+    private static final byte WHITE = 0;
+    private static final byte CYAN = 1;
+    private static final byte BLUE = 2;
+    private static final byte RED = 3;
+
+    private final CompactBuchiAutomaton<T> buchi;
+
+    private final byte[] colors;
+
+    /**
+     * Blue search stack: states and their next edges to explore
+     */
+    private final int[] blueStates, blueEdges;
+
+    private final int[] redStates, redEdges;
+
+    private int blueTop, redTop;
+
+    public CompactNestedDfs(CompactBuchiAutomaton<T> buchi) {
+        this.buchi = buchi;
+
+        int n = buchi.getStateCount();
+
+        colors = new byte[n];
+        blueStates = new int[n];
+        blueEdges = new int[n];
+        // seed and reached cyan state may coincide
+        redStates = new int[n + 1];
+        redEdges = new int[n];
+    }
+
+    /**
+     * Searches for a run visiting some final state infinitely often
+     *
+     * @return first accepting lasso found, empty if language is empty
+     */
+    public Optional<Lasso<T>> search() {
+        for (int initial : buchi.getInitialIndices()) {
+            if (colors[initial] == WHITE) {
+                Optional<Lasso<T>> lasso = blueSearch(initial);
+
+                if (lasso.isPresent()) {
+                    return lasso;
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<Lasso<T>> blueSearch(int initial) {
+        blueTop = 0;
+        enterBlue(initial);
+
+        while (blueTop > 0) {
+            int current = blueStates[blueTop - 1];
+
+            if (blueEdges[blueTop - 1] < buchi.edgesTo(current)) {
+                int next = buchi.getTarget(blueEdges[blueTop - 1]++);
+
+                if (colors[next] == WHITE) {
+                    enterBlue(next);
+                } else if (colors[next] == CYAN && (buchi.isFinal(current) || buchi.isFinal(next))) {
+                    // back edge closes a cycle through a final state
+                    return Optional.of(buildLasso(next, 0));
+                }
+            } else {
+                if (buchi.isFinal(current)) {
+                    if (redSearch(current)) {
+                        return Optional.of(buildLasso(redStates[redTop], redTop));
+                    }
+
+                    colors[current] = RED;
+                } else {
+                    colors[current] = BLUE;
+                }
+
+                blueTop--;
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Looks for a path from the seed to any state on the blue stack. On
+     * success the red stack holds the path, with the reached cyan state at
+     * index redTop.
+     *
+     * @param seed final state the blue search backtracks from
+     * @return whether a cyan state is reachable
+     */
+    private boolean redSearch(int seed) {
+        redTop = 0;
+        redStates[0] = seed;
+        redEdges[0] = buchi.edgesFrom(seed);
+        redTop++;
+
+        while (redTop > 0) {
+            int current = redStates[redTop - 1];
+
+            if (redEdges[redTop - 1] < buchi.edgesTo(current)) {
+                int next = buchi.getTarget(redEdges[redTop - 1]++);
+
+                if (colors[next] == CYAN) {
+                    redStates[redTop] = next;
+
+                    return true;
+                } else if (colors[next] == BLUE) {
+                    colors[next] = RED;
+                    redStates[redTop] = next;
+                    redEdges[redTop] = buchi.edgesFrom(next);
+                    redTop++;
+                }
+            } else {
+                redTop--;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Lasso consists of the blue stack up to the entry, then the blue stack
+     * from the entry up to its top, then the red path (without the seed) back
+     * to the entry
+     */
+    private Lasso<T> buildLasso(int entry, int redLength) {
+        int entryIndex = 0;
+
+        while (blueStates[entryIndex] != entry) {
+            entryIndex++;
+        }
+
+        List<String> prefix = new ArrayList<>();
+        List<String> cycle = new ArrayList<>();
+
+        Arrays.stream(blueStates, 0, entryIndex + 1).forEach(s -> prefix.add(buchi.labelOf(s)));
+        Arrays.stream(blueStates, entryIndex, blueTop).forEach(s -> cycle.add(buchi.labelOf(s)));
+        Arrays.stream(redStates, Math.min(1, redLength), redLength).forEach(s -> cycle.add(buchi.labelOf(s)));
+        cycle.add(buchi.labelOf(entry));
+
+        return Lasso.of(buchi, prefix, cycle);
+    }
+
+    private void enterBlue(int state) {
+        colors[state] = CYAN;
+        blueStates[blueTop] = state;
+        blueEdges[blueTop] = buchi.edgesFrom(state);
+        blueTop++;
+    }
+}
@@ -0,0 +1,203 @@
+package edu.univ.software.verification.utils;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+import edu.univ.software.verification.model.fa.CompactBuchiAutomaton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Direct product of two compact Buchi automata. Uses the construction of
+ * {@link DirectProduct} (product state (a, b, i), final when i is 2), but
+ * product states are encoded as numbers and interned to indices through an
+ * open addressing table, so no labels are built or hashed until the result is
+ * assembled. Initial product states are marked initial directly instead of
+ * adding a separate initial state.
+ *
+ * @author arthur
+ * @param <T> transition symbol type
+ */
+public class CompactProduct<T> {
+
+    private static final int EMPTY = -1;
+
+    private final CompactBuchiAutomaton<T> A, B;
+
+    /**
+     * Product state codes by index
+     */
+    private long[] codes = new long[16];
+
+    /**
+     * Open addressing table of product state indices
+     */
+    private int[] table = newTable(64);
+
+    private int stateCount = 0;
+
+    private CompactBuchiAutomaton<T> prod;
+
+    public CompactProduct(CompactBuchiAutomaton<T> A, CompactBuchiAutomaton<T> B) {
+        this.A = A;
+        this.B = B;
+    }
+
+    public CompactBuchiAutomaton<T> product() {
+        if (prod != null) {
+            return prod;
+        }
+
+        BitSet initial = new BitSet();
+
+        for (int a : A.getInitialIndices()) {
+            for (int b : B.getInitialIndices()) {
+                initial.set(intern(encode(a, b, 0)));
+            }
+        }
+
+        int[] offsets = new int[16];
+        int[] targets = new int[16];
+        List<Set<T>> symbols = new ArrayList<>();
+
+        // states are numbered in discovery order, so this is a breadth-first search
+        for (int current = 0; current < stateCount; current++) {
+            if (current + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+
+            offsets[current] = symbols.size();
+
+            int a = stateA(codes[current]);
+            int b = stateB(codes[current]);
+            int iter = iteration(codes[current]);
+
+            for (int ea = A.edgesFrom(a); ea < A.edgesTo(a); ea++) {
+                for (int eb = B.edgesFrom(b); eb < B.edgesTo(b); eb++) {
+                    Set<T> common = commonSymbols(A.getSymbols(ea), B.getSymbols(eb));
+
+                    if (!common.isEmpty()) {
+                        int nextA = A.getTarget(ea);
+                        int nextB = B.getTarget(eb);
+
+                        if (symbols.size() == targets.length) {
+                            targets = Arrays.copyOf(targets, targets.length * 2);
+                        }
+
+                        targets[symbols.size()] = intern(encode(nextA, nextB, nextIteration(iter, nextA, nextB)));
+                        symbols.add(common);
+                    }
+                }
+            }
+        }
+
+        offsets[stateCount] = symbols.size();
+
+        String[] labels = new String[stateCount];
+        BitSet finalStates = new BitSet(stateCount);
+
+        for (int i = 0; i < stateCount; i++) {
+            labels[i] = String.format("(%s,%s,%d)", A.labelOf(stateA(codes[i])), B.labelOf(stateB(codes[i])), iteration(codes[i]));
+            finalStates.set(i, iteration(codes[i]) == 2);
+        }
+
+        prod = new CompactBuchiAutomaton<>(labels, initial, Arrays.copyOf(offsets, stateCount + 1),
+                Arrays.copyOf(targets, symbols.size()), symbols, finalStates);
+
+        return prod;
+    }
+
+    private int nextIteration(int iter, int nextA, int nextB) {
+        if (iter == 2) {
+            return 0;
+        } else if (iter == 0 && A.isFinal(nextA)) {
+            return 1;
+        } else if (iter == 1 && B.isFinal(nextB)) {
+            return 2;
+        }
+
+        return iter;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Product state interning">
+    private long encode(int a, int b, int iter) {
+        return ((long) a * B.getStateCount() + b) * 3 + iter;
+    }
+
+    private int stateA(long code) {
+        return (int) (code / 3 / B.getStateCount());
+    }
+
+    private int stateB(long code) {
+        return (int) (code / 3 % B.getStateCount());
+    }
+
+    private int iteration(long code) {
+        return (int) (code % 3);
+    }
+
+    /**
+     * Gets index of product state, adding it if not seen yet
+     */
+    private int intern(long code) {
+        int slot = slotOf(code, table);
+
+        if (table[slot] != EMPTY) {
+            return table[slot];
+        }
+
+        if (stateCount == codes.length) {
+            codes = Arrays.copyOf(codes, codes.length * 2);
+        }
+
+        codes[stateCount] = code;
+        table[slot] = stateCount;
+
+        // keep load factor below one half
+        if (++stateCount * 2 > table.length) {
+            int[] larger = newTable(table.length * 2);
+
+            for (int i = 0; i < stateCount; i++) {
+                larger[slotOf(codes[i], larger)] = i;
+            }
+
+            table = larger;
+        }
+
+        return stateCount - 1;
+    }
+
+    private int slotOf(long code, int[] slots) {
+        int mask = slots.length - 1;
+        int slot = Long.hashCode(code * 0x9E3779B97F4A7C15L) & mask;
+
+        while (slots[slot] != EMPTY && codes[slots[slot]] != code) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private static int[] newTable(int size) {
+        int[] slots = new int[size];
+
+        Arrays.fill(slots, EMPTY);
+
+        return slots;
+    }
+    //</editor-fold>
+
+    private static <T> Set<T> commonSymbols(Set<T> symbolsA, Set<T> symbolsB) {
+        if (symbolsA == symbolsB) {
+            return symbolsA;
+        }
+
+        return symbolsA.size() <= symbolsB.size()
+                ? ImmutableSet.copyOf(Sets.intersection(symbolsA, symbolsB))
+                : ImmutableSet.copyOf(Sets.intersection(symbolsB, symbolsA));
+    }
+}
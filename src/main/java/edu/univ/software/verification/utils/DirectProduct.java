@@ -1,5 +1,6 @@
 package edu.univ.software.verification.utils;
 
+import edu.univ.software.verification.model.Automaton;
 import edu.univ.software.verification.model.AutomatonState;
 import edu.univ.software.verification.model.BuchiAutomaton;
 import edu.univ.software.verification.model.fa.BasicBuchiAutomaton;
@@ -90,11 +91,19 @@ public class DirectProduct<T> {
     private boolean isComputed;
     
     public DirectProduct(BuchiAutomaton<T> A, BuchiAutomaton<T> B) {
+        this(A, B, Automaton.Reduction.SAME_SUCCESSORS);
+    }
+
+    /**
+     * @param reduction reduction of product states, products searched just
+     * once need none
+     */
+    public DirectProduct(BuchiAutomaton<T> A, BuchiAutomaton<T> B, Automaton.Reduction reduction) {
         this.A = A;
         this.B = B;
 
         //Init vars
-        resultBuilder = BasicBuchiAutomaton.builder();
+        resultBuilder = BasicBuchiAutomaton.<T>builder().withReduction(reduction);
         stack = new ArrayList<>();
         allInitial = new ArrayList<>();
         allFinal = new ArrayList<>();
@@ -0,0 +1,239 @@
+package edu.univ.software.verification.utils;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Table;
+
+import edu.univ.software.verification.model.AutomatonState;
+import edu.univ.software.verification.model.BuchiAutomaton;
+import edu.univ.software.verification.model.KripkeState;
+import edu.univ.software.verification.model.KripkeStructure;
+import edu.univ.software.verification.model.fa.BasicState;
+import edu.univ.software.verification.model.ltl.Atom;
+import edu.univ.software.verification.model.ltl.Valuation;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Buchi automaton view of Kripke structure, equal to the result of
+ * {@link AutomataUtils#convert(KripkeStructure, edu.univ.software.verification.model.Automaton.Reduction)}
+ * without reduction, but answering queries from the structure itself: every
+ * state is final, transitions into a state are labelled by its valuation, and
+ * extra initial state {@value #INITIAL_STATE} leads into initial states of the
+ * structure. Nothing proportional to the structure is copied, so on-the-fly
+ * products explore just the part they visit.
+ *
+ * Methods returning all states or transitions scan the whole structure.
+ *
+ * @author arthur
+ */
+public class KripkeAutomatonView implements BuchiAutomaton<Set<Atom>> {
+
+    /**
+     * Label of the added initial state
+     */
+    public static final String INITIAL_STATE = "init";
+
+    private final KripkeStructure kripke;
+
+    /**
+     * Transition symbols by atom set, few distinct ones are expected
+     */
+    private final Map<Set<Atom>, Set<Set<Atom>>> symbols = new ConcurrentHashMap<>();
+
+    private volatile Set<String> initialStates;
+
+    private final Set<AutomatonState> states = new AbstractSet<AutomatonState>() {
+        @Override
+        public Iterator<AutomatonState> iterator() {
+            return Iterators.concat(Iterators.singletonIterator(new BasicState(INITIAL_STATE, true)),
+                    Iterators.transform(kripke.getStates().iterator(), s -> new BasicState(s.getLabel())));
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof AutomatonState && hasState(((AutomatonState) o).getLabel())
+                    && ((AutomatonState) o).isInitial() == INITIAL_STATE.equals(((AutomatonState) o).getLabel());
+        }
+
+        @Override
+        public int size() {
+            return kripke.getStates().size() + 1;
+        }
+    };
+
+    private final Set<String> finalStates = new AbstractSet<String>() {
+        @Override
+        public Iterator<String> iterator() {
+            return Iterators.transform(states.iterator(), AutomatonState::getLabel);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && hasState((String) o);
+        }
+
+        @Override
+        public int size() {
+            return states.size();
+        }
+    };
+
+    public KripkeAutomatonView(KripkeStructure kripke) {
+        this.kripke = kripke;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AutomatonState getState(String label) {
+        if (INITIAL_STATE.equals(label)) {
+            return new BasicState(INITIAL_STATE, true);
+        }
+
+        return kripke.getState(label) != null ? new BasicState(label) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasState(String label) {
+        return INITIAL_STATE.equals(label) || kripke.getState(label) != null;
+    }
+
+    /**
+     * @return view of states
+     */
+    @Override
+    public Set<AutomatonState> getStates() {
+        return states;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<AutomatonState> getInitialStates() {
+        return ImmutableSet.of(new BasicState(INITIAL_STATE, true));
+    }
+
+    /**
+     * @return view of successors with their valuations as symbols
+     */
+    @Override
+    public Map<String, Set<Set<Atom>>> getTransitionsFrom(String from) {
+        if (INITIAL_STATE.equals(from)) {
+            return Maps.asMap(initialStates(), this::symbolsOf);
+        }
+
+        return Maps.asMap(kripke.successors(from), this::symbolsOf);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Set<Set<Atom>>> getTransitionsTo(String to) {
+        Map<String, Set<Set<Atom>>> incoming = new LinkedHashMap<>();
+
+        if (!hasState(to) || INITIAL_STATE.equals(to)) {
+            return incoming;
+        }
+
+        Set<Set<Atom>> symbolsTo = symbolsOf(to);
+
+        if (initialStates().contains(to)) {
+            incoming.put(INITIAL_STATE, symbolsTo);
+        }
+
+        kripke.predecessors(to).forEach(from -> incoming.put(from, symbolsTo));
+
+        return incoming;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Set<Atom>> getTransitionSymbols(String from, String to) {
+        return hasTransition(from, to) ? symbolsOf(to) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasTransition(String from, String to) {
+        if (INITIAL_STATE.equals(from)) {
+            return initialStates().contains(to);
+        }
+
+        return !INITIAL_STATE.equals(to) && kripke.hasTransition(from, to);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Table<String, String, Set<Set<Atom>>> getTransitions() {
+        Table<String, String, Set<Set<Atom>>> transitions = HashBasedTable.create();
+
+        for (AutomatonState state : states) {
+            getTransitionsFrom(state.getLabel()).forEach((to, symbols) -> transitions.put(state.getLabel(), to, symbols));
+        }
+
+        return transitions;
+    }
+
+    /**
+     * @return view of all states, as each is final
+     */
+    @Override
+    public Set<String> getFinalStates() {
+        return finalStates;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isFinal(String label) {
+        return hasState(label);
+    }
+
+    /**
+     * @return true, every state is final
+     */
+    @Override
+    public boolean isEveryStateFinal() {
+        return true;
+    }
+
+    /**
+     * Initial states of the structure are requested once
+     */
+    private Set<String> initialStates() {
+        if (initialStates == null) {
+            List<String> labels = kripke.getInitialStates().stream().map(KripkeState::getLabel).collect(Collectors.toList());
+
+            initialStates = ImmutableSet.copyOf(labels);
+        }
+
+        return initialStates;
+    }
+
+    private Set<Set<Atom>> symbolsOf(String label) {
+        return symbols.computeIfAbsent(kripke.getState(label).getAtoms(), atoms -> ImmutableSet.of(Valuation.of(atoms)));
+    }
+}
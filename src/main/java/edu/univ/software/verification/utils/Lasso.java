@@ -0,0 +1,149 @@
+package edu.univ.software.verification.utils;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.univ.software.verification.model.Automaton;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Accepting lasso (counterexample) of an omega-automaton: finite path from
+ * initial state to the cycle entry followed by the cycle, which is repeated
+ * infinitely
+ *
+ * @author arthur
+ * @param <T> transition symbol type
+ */
+public class Lasso<T> {
+
+    /**
+     * States from initial one to the cycle entry (inclusive)
+     */
+    private final List<String> prefix;
+
+    /**
+     * States of the cycle, starting and ending with the cycle entry
+     */
+    private final List<String> cycle;
+
+    /**
+     * Symbols read along the prefix (one per transition)
+     */
+    private final List<T> prefixWord;
+
+    /**
+     * Symbols read along the cycle (one per transition)
+     */
+    private final List<T> cycleWord;
+
+    /**
+     * Builds lasso for the path given by states, picking any transition
+     * symbol for each consecutive pair
+     *
+     * @param <T> transition symbol type
+     * @param automaton automaton the path belongs to
+     * @param prefix states from initial one to the cycle entry (inclusive)
+     * @param cycle states of the cycle, starting and ending with the entry
+     * @return lasso with both states and symbols
+     */
+    public static <T> Lasso<T> of(Automaton<T> automaton, List<String> prefix, List<String> cycle) {
+        return new Lasso<>(prefix, cycle, wordOf(automaton, prefix), wordOf(automaton, cycle));
+    }
+
+    public Lasso(List<String> prefix, List<String> cycle, List<T> prefixWord, List<T> cycleWord) {
+        if (prefix.isEmpty() || cycle.size() < 2 || !Objects.equals(prefix.get(prefix.size() - 1), cycle.get(0))
+                || !Objects.equals(cycle.get(0), cycle.get(cycle.size() - 1))) {
+            throw new IllegalArgumentException(String.format("Invalid lasso shape: %s(%s)", prefix, cycle));
+        }
+
+        this.prefix = ImmutableList.copyOf(prefix);
+        this.cycle = ImmutableList.copyOf(cycle);
+        this.prefixWord = ImmutableList.copyOf(prefixWord);
+        this.cycleWord = ImmutableList.copyOf(cycleWord);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    public List<String> getPrefix() {
+        return prefix;
+    }
+
+    public List<String> getCycle() {
+        return cycle;
+    }
+
+    public List<T> getPrefixWord() {
+        return prefixWord;
+    }
+
+    public List<T> getCycleWord() {
+        return cycleWord;
+    }
+
+    public String getEntry() {
+        return cycle.get(0);
+    }
+    //</editor-fold>
+
+    private static <T> List<T> wordOf(Automaton<T> automaton, List<String> path) {
+        ImmutableList.Builder<T> word = ImmutableList.builder();
+
+        for (int i = 0; i < path.size() - 1; i++) {
+            Map<String, Set<T>> outgoing = automaton.getTransitionsFrom(path.get(i));
+            Set<T> symbols = outgoing != null ? outgoing.get(path.get(i + 1)) : null;
+
+            if (symbols == null || symbols.isEmpty()) {
+                throw new IllegalArgumentException(String.format(
+                        "No transition from '%s' to '%s'", path.get(i), path.get(i + 1)));
+            }
+
+            word.add(symbols.iterator().next());
+        }
+
+        return word.build();
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="hashCode + equals + toString">
+    @Override
+    public int hashCode() {
+        int hash = 5;
+
+        hash = 41 * hash + Objects.hashCode(this.prefix);
+        hash = 41 * hash + Objects.hashCode(this.cycle);
+
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof Lasso)) {
+            return false;
+        }
+
+        final Lasso<?> other = (Lasso<?>) o;
+
+        return Objects.equals(this.prefix, other.prefix) && Objects.equals(this.cycle, other.cycle)
+                && Objects.equals(this.prefixWord, other.prefixWord) && Objects.equals(this.cycleWord, other.cycleWord);
+    }
+
+    /**
+     * Same format as the one used for exhaustive counterexample listing
+     */
+    @Override
+    public String toString() {
+        StringBuilder counter = new StringBuilder("Counterexpample: L = ");
+
+        prefixWord.forEach(counter::append);
+        counter.append('(');
+        cycleWord.forEach(counter::append);
+
+        return counter.append(')').toString();
+    }
+    //</editor-fold>
+}
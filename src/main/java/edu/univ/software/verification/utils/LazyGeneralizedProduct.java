@@ -0,0 +1,193 @@
+package edu.univ.software.verification.utils;
+
+import edu.univ.software.verification.model.AutomatonState;
+import edu.univ.software.verification.model.BuchiAutomaton;
+import edu.univ.software.verification.model.MullerAutomaton;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * On-the-fly product of Buchi and generalized Buchi (Muller) automata. No
+ * counter component is needed: the product keeps one final state set per
+ * final state set of the Muller automaton (plus one for the Buchi final
+ * states, unless all its states are known to be final), so it is checked by
+ * {@link SccEmptinessCheck} without degeneralization. Successors and
+ * acceptance marks are computed on demand.
+ *
+ * Symbols of the Muller automaton may be of another type (e.g. symbolic
+ * guards): the symbol matcher selects Buchi transition symbols allowed by
+ * them, and the product is labelled with those.
+ *
+ * @author arthur
+ * @param <T> transition symbol type
+ * @param <U> transition symbol type of the Muller automaton
+ */
+public class LazyGeneralizedProduct<T, U> extends AbstractLazyProduct<T, LazyGeneralizedProduct.ProductState>
+        implements MullerAutomaton<T> {
+
+    static class ProductState {
+
+        private final String astate;
+        private final String bstate;
+
+        public ProductState(String astate, String bstate) {
+            this.astate = astate;
+            this.bstate = bstate;
+        }
+
+        //<editor-fold defaultstate="collapsed" desc="hashCode + equals">
+        @Override
+        public int hashCode() {
+            int hash = 7;
+
+            hash = 31 * hash + Objects.hashCode(this.astate);
+            hash = 31 * hash + Objects.hashCode(this.bstate);
+
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof ProductState)) {
+                return false;
+            }
+
+            final ProductState other = (ProductState) o;
+
+            return Objects.equals(this.astate, other.astate) && Objects.equals(this.bstate, other.bstate);
+        }
+        //</editor-fold>
+    }
+
+    private final BuchiAutomaton<T> A;
+
+    private final MullerAutomaton<U> B;
+
+    private final BiFunction<Set<T>, Set<U>, Set<T>> matcher;
+
+    private final int finalSetCountB;
+
+    /**
+     * Whether the Buchi final states make an additional final state set
+     */
+    private final boolean isFinalSetA;
+
+    /**
+     * Creates product of automata over the same symbols
+     *
+     * @param <T> transition symbol type
+     * @param A Buchi automaton
+     * @param B LGBA (Muller) automaton
+     * @return lazy product, symbols of which are common symbols of both
+     */
+    public static <T> LazyGeneralizedProduct<T, T> of(BuchiAutomaton<T> A, MullerAutomaton<T> B) {
+        return new LazyGeneralizedProduct<>(A, B, AbstractLazyProduct::commonSymbols);
+    }
+
+    public LazyGeneralizedProduct(BuchiAutomaton<T> A, MullerAutomaton<U> B, BiFunction<Set<T>, Set<U>, Set<T>> matcher) {
+        this.A = A;
+        this.B = B;
+        this.matcher = matcher;
+
+        finalSetCountB = B.getFinalStateSetCount();
+        // product accepts nothing if B has no final state sets; the extra set
+        // is sound even if all states of A are final, so A is not enumerated
+        isFinalSetA = finalSetCountB > 0 && !A.isEveryStateFinal();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Set<String>> getFinalStateSets() {
+        explore();
+
+        Set<Set<String>> finalStateSets = new LinkedHashSet<>();
+
+        for (int i = 0; i < getFinalStateSetCount(); i++) {
+            final int set = i;
+
+            finalStateSets.add(discoveredStates().stream().filter(s -> marksOf(s).get(set))
+                    .map(this::labelOf).collect(Collectors.toCollection(LinkedHashSet::new)));
+        }
+
+        return finalStateSets;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getFinalStateSetCount() {
+        return isFinalSetA ? finalSetCountB + 1 : finalSetCountB;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BitSet getFinalStateSetIndices(String label) {
+        ProductState state = stateOf(label);
+
+        return state != null ? marksOf(state) : new BitSet();
+    }
+
+    @Override
+    protected List<ProductState> initialStates() {
+        List<ProductState> initial = new ArrayList<>();
+
+        for (AutomatonState stateA : A.getInitialStates()) {
+            for (AutomatonState stateB : B.getInitialStates()) {
+                initial.add(new ProductState(stateA.getLabel(), stateB.getLabel()));
+            }
+        }
+
+        return initial;
+    }
+
+    @Override
+    protected void successors(ProductState state, BiConsumer<ProductState, Set<T>> consumer) {
+        Map<String, Set<U>> toB = B.getTransitionsFrom(state.bstate);
+
+        A.getTransitionsFrom(state.astate).forEach((nextA, symbolsA) -> toB.forEach((nextB, symbolsB) -> {
+            Set<T> symbols = matcher.apply(symbolsA, symbolsB);
+
+            if (!symbols.isEmpty()) {
+                consumer.accept(new ProductState(nextA, nextB), symbols);
+            }
+        }));
+    }
+
+    @Override
+    protected String labelOf(ProductState state) {
+        return String.format("(%s,%s)", state.astate, state.bstate);
+    }
+
+    private BitSet marksOf(ProductState state) {
+        BitSet marks = finalSetCountB > 0 ? B.getFinalStateSetIndices(state.bstate) : new BitSet();
+
+        if (isFinalSetA && A.isFinal(state.astate)) {
+            marks.set(finalSetCountB);
+        }
+
+        return marks;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyGeneralizedProduct{" + "A=" + A + ", B=" + B + '}';
+    }
+}
@@ -0,0 +1,151 @@
+package edu.univ.software.verification.utils;
+
+import edu.univ.software.verification.model.AutomatonState;
+import edu.univ.software.verification.model.BuchiAutomaton;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * On-the-fly direct product of two Buchi automata. Uses the same
+ * construction (and state labels) as {@link DirectProduct}, but computes
+ * successors on demand instead of building the product through the builder.
+ * Common transition symbols are computed by the symbol combiner, e.g. set
+ * intersection or conjunction of symbolic guards.
+ *
+ * @author arthur
+ * @param <T> transition symbol type
+ */
+public class LazyProduct<T> extends AbstractLazyProduct<T, LazyProduct.ProductState> implements BuchiAutomaton<T> {
+
+    static class ProductState {
+
+        private final String astate;
+        private final String bstate;
+        private final int iter;
+
+        public ProductState(String astate, String bstate, int iter) {
+            this.astate = astate;
+            this.bstate = bstate;
+            this.iter = iter;
+        }
+
+        //<editor-fold defaultstate="collapsed" desc="hashCode + equals">
+        @Override
+        public int hashCode() {
+            int hash = 7;
+
+            hash = 31 * hash + Objects.hashCode(this.astate);
+            hash = 31 * hash + Objects.hashCode(this.bstate);
+            hash = 31 * hash + this.iter;
+
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof ProductState)) {
+                return false;
+            }
+
+            final ProductState other = (ProductState) o;
+
+            return this.iter == other.iter && Objects.equals(this.astate, other.astate)
+                    && Objects.equals(this.bstate, other.bstate);
+        }
+        //</editor-fold>
+    }
+
+    private final BuchiAutomaton<T> A, B;
+
+    private final BinaryOperator<Set<T>> combiner;
+
+    public LazyProduct(BuchiAutomaton<T> A, BuchiAutomaton<T> B) {
+        this(A, B, AbstractLazyProduct::commonSymbols);
+    }
+
+    public LazyProduct(BuchiAutomaton<T> A, BuchiAutomaton<T> B, BinaryOperator<Set<T>> combiner) {
+        this.A = A;
+        this.B = B;
+        this.combiner = combiner;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> getFinalStates() {
+        explore();
+
+        return discoveredStates().stream().filter(s -> s.iter == 2)
+                .map(this::labelOf).collect(Collectors.toSet());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isFinal(String label) {
+        ProductState state = stateOf(label);
+
+        return state != null && state.iter == 2;
+    }
+
+    @Override
+    protected List<ProductState> initialStates() {
+        List<ProductState> initial = new ArrayList<>();
+
+        for (AutomatonState stateA : A.getInitialStates()) {
+            for (AutomatonState stateB : B.getInitialStates()) {
+                initial.add(new ProductState(stateA.getLabel(), stateB.getLabel(), 0));
+            }
+        }
+
+        return initial;
+    }
+
+    @Override
+    protected void successors(ProductState state, BiConsumer<ProductState, Set<T>> consumer) {
+        Map<String, Set<T>> toB = B.getTransitionsFrom(state.bstate);
+
+        A.getTransitionsFrom(state.astate).forEach((nextA, symbolsA) -> toB.forEach((nextB, symbolsB) -> {
+            Set<T> symbols = combiner.apply(symbolsA, symbolsB);
+
+            if (!symbols.isEmpty()) {
+                consumer.accept(new ProductState(nextA, nextB, nextIteration(state, nextA, nextB)), symbols);
+            }
+        }));
+    }
+
+    @Override
+    protected String labelOf(ProductState state) {
+        return String.format("(%s,%s,%d)", state.astate, state.bstate, state.iter);
+    }
+
+    private int nextIteration(ProductState current, String nextA, String nextB) {
+        if (current.iter == 2) {
+            return 0;
+        } else if (current.iter == 0 && A.isFinal(nextA)) {
+            return 1;
+        } else if (current.iter == 1 && B.isFinal(nextB)) {
+            return 2;
+        }
+
+        return current.iter;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyProduct{" + "A=" + A + ", B=" + B + '}';
+    }
+}
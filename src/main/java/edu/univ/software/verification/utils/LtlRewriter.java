@@ -0,0 +1,293 @@
+package edu.univ.software.verification.utils;
+
+import edu.univ.software.verification.model.LtlFormula;
+import edu.univ.software.verification.model.ltl.Atom;
+import edu.univ.software.verification.model.ltl.BinaryOp;
+import edu.univ.software.verification.model.ltl.UnaryOp;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rule-based simplification of LTL formulas, applied bottom-up until no rule
+ * matches. Formulas are normalized first (negations on atoms only, G and F as
+ * R and U with constants), and results stay normalized. Rules:
+ *
+ * <ul>
+ * <li>constant folding: {@code a && 1 = a}, {@code a U 0 = 0},
+ * {@code 0 U b = b}, {@code X 1 = 1}, ...</li>
+ * <li>idempotence: {@code a && a = a}, {@code a U a = a},
+ * {@code a U (a U b) = a U b}, {@code F F a = F a} ...</li>
+ * <li>absorption: {@code a && (a || b) = a}, {@code a U (b U a) = b U a},
+ * {@code p && !p = 0} ...</li>
+ * <li>X distribution: {@code X a && X b = X (a && b)}, {@code X a U X b =
+ * X (a U b)} ...</li>
+ * <li>pure eventualities (equivalent to {@code F} of themselves) and
+ * universalities (equivalent to {@code G} of themselves):
+ * {@code a U b = b} for eventual b, {@code a R b = b} for universal b,
+ * {@code X b = b} for b both eventual and universal</li>
+ * </ul>
+ *
+ * Tableau size is exponential in formula size, so every removed operator
+ * counts.
+ *
+ * @author arthur
+ */
+public enum LtlRewriter {
+
+    INSTANCE;
+
+    private static final Logger logger = LoggerFactory.getLogger(LtlRewriter.class);
+
+    /**
+     * Rewrites formula into equivalent (normalized) one until no rule applies
+     *
+     * @param formula LTL formula
+     * @return simplified normalized formula
+     */
+    public LtlFormula rewrite(LtlFormula formula) {
+        return rewrite(formula, statistics -> {
+        });
+    }
+
+    /**
+     * Rewrites formula into equivalent (normalized) one until no rule
+     * applies, reporting sizes of both
+     *
+     * @param formula LTL formula
+     * @param statistics receives sizes of the normalized formula and its
+     * rewriting
+     * @return simplified normalized formula
+     */
+    public LtlFormula rewrite(LtlFormula formula, Consumer<RewriteStatistics> statistics) {
+        Map<LtlFormula, LtlFormula> rewritten = new HashMap<>();
+        LtlFormula current = formula.normalized();
+        int originalSize = size(current);
+        LtlFormula next = rewrite(current, rewritten);
+
+        while (!next.equals(current)) {
+            current = next;
+            next = rewrite(current, rewritten);
+        }
+
+        RewriteStatistics sizes = new RewriteStatistics(1, originalSize, size(next));
+        logger.debug("Rewritten {} to {}: {}", formula, next, sizes);
+        statistics.accept(sizes);
+
+        return next;
+    }
+
+    /**
+     * @return number of operators and atoms of formula (as a tree)
+     */
+    public int size(LtlFormula formula) {
+        if (formula instanceof UnaryOp) {
+            return 1 + size(((UnaryOp) formula).getOperand());
+        } else if (formula instanceof BinaryOp) {
+            BinaryOp binaryOp = (BinaryOp) formula;
+
+            return 1 + size(binaryOp.getOpLeft()) + size(binaryOp.getOpRight());
+        } else {
+            return 1;
+        }
+    }
+
+    /**
+     * Formula is pure eventuality, if it is equivalent to {@code F} of itself
+     */
+    public boolean isEventual(LtlFormula formula) {
+        if (formula instanceof Atom) {
+            return isConstant(formula);
+        } else if (formula instanceof UnaryOp) {
+            UnaryOp unaryOp = (UnaryOp) formula;
+
+            return unaryOp.getOpType() == UnaryOp.OpType.X && isEventual(unaryOp.getOperand());
+        }
+
+        BinaryOp binaryOp = (BinaryOp) formula;
+
+        switch (binaryOp.getOpType()) {
+            case AND:
+            case OR:
+                return isEventual(binaryOp.getOpLeft()) && isEventual(binaryOp.getOpRight());
+            case U:
+                return binaryOp.getOpLeft().equals(Atom._1) || isEventual(binaryOp.getOpRight());
+            case R:
+                return binaryOp.getOpLeft().equals(Atom._0) && isEventual(binaryOp.getOpRight());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Formula is pure universality, if it is equivalent to {@code G} of
+     * itself
+     */
+    public boolean isUniversal(LtlFormula formula) {
+        if (formula instanceof Atom) {
+            return isConstant(formula);
+        } else if (formula instanceof UnaryOp) {
+            UnaryOp unaryOp = (UnaryOp) formula;
+
+            return unaryOp.getOpType() == UnaryOp.OpType.X && isUniversal(unaryOp.getOperand());
+        }
+
+        BinaryOp binaryOp = (BinaryOp) formula;
+
+        switch (binaryOp.getOpType()) {
+            case AND:
+            case OR:
+                return isUniversal(binaryOp.getOpLeft()) && isUniversal(binaryOp.getOpRight());
+            case R:
+                return binaryOp.getOpLeft().equals(Atom._0) || isUniversal(binaryOp.getOpRight());
+            case U:
+                return binaryOp.getOpLeft().equals(Atom._1) && isUniversal(binaryOp.getOpRight());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Single bottom-up pass, rewriting operands first
+     */
+    private LtlFormula rewrite(LtlFormula formula, Map<LtlFormula, LtlFormula> rewritten) {
+        LtlFormula result = rewritten.get(formula);
+
+        if (result != null) {
+            return result;
+        }
+
+        if (formula instanceof UnaryOp) {
+            UnaryOp unaryOp = (UnaryOp) formula;
+
+            result = rewriteUnary(unaryOp.getOpType(), rewrite(unaryOp.getOperand(), rewritten));
+        } else if (formula instanceof BinaryOp) {
+            BinaryOp binaryOp = (BinaryOp) formula;
+
+            result = rewriteBinary(binaryOp.getOpType(), rewrite(binaryOp.getOpLeft(), rewritten),
+                    rewrite(binaryOp.getOpRight(), rewritten));
+        } else {
+            result = formula;
+        }
+
+        rewritten.put(formula, result);
+
+        return result;
+    }
+
+    private LtlFormula rewriteUnary(UnaryOp.OpType opType, LtlFormula operand) {
+        switch (opType) {
+            case NEG:
+                // negation is kept on variables only
+                return operand instanceof Atom && !isConstant(operand)
+                        ? UnaryOp.build(opType, operand) : operand.invert().normalized();
+            case X:
+                // constants and suspendable formulas do not depend on time
+                return isEventual(operand) && isUniversal(operand) ? operand : UnaryOp.build(opType, operand);
+            default:
+                return UnaryOp.build(opType, operand).normalized();
+        }
+    }
+
+    private LtlFormula rewriteBinary(BinaryOp.OpType opType, LtlFormula left, LtlFormula right) {
+        switch (opType) {
+            case AND:
+            case OR:
+                return rewriteBoolean(opType, left, right);
+            case U:
+                return rewriteUntil(left, right);
+            case R:
+                return rewriteRelease(left, right);
+            default:
+                return BinaryOp.build(opType, left, right).normalized();
+        }
+    }
+
+    private LtlFormula rewriteBoolean(BinaryOp.OpType opType, LtlFormula left, LtlFormula right) {
+        boolean isAnd = opType == BinaryOp.OpType.AND;
+        Atom unit = isAnd ? Atom._1 : Atom._0;
+        Atom zero = isAnd ? Atom._0 : Atom._1;
+
+        if (left.equals(unit) || left.equals(right)) {
+            return right;
+        } else if (right.equals(unit)) {
+            return left;
+        } else if (left.equals(zero) || right.equals(zero) || (left.isAtomic() && left.equals(right.invert()))) {
+            return zero;
+        } else if (absorbs(opType, left, right)) {
+            return left;
+        } else if (absorbs(opType, right, left)) {
+            return right;
+        } else if (isNext(left) && isNext(right)) {
+            return UnaryOp.build(UnaryOp.OpType.X, BinaryOp.build(opType, operandOf(left), operandOf(right)));
+        }
+
+        return BinaryOp.build(opType, left, right);
+    }
+
+    private LtlFormula rewriteUntil(LtlFormula left, LtlFormula right) {
+        if (right.equals(Atom._1) || right.equals(Atom._0) || left.equals(Atom._0) || left.equals(right)
+                || isEventual(right)) {
+            return right;
+        } else if (isBinary(right, BinaryOp.OpType.U) && (((BinaryOp) right).getOpLeft().equals(left)
+                || ((BinaryOp) right).getOpRight().equals(left))) {
+            // a U (a U b) = a U b, a U (b U a) = b U a
+            return right;
+        } else if (isNext(left) && isNext(right)) {
+            return UnaryOp.build(UnaryOp.OpType.X, BinaryOp.build(BinaryOp.OpType.U, operandOf(left), operandOf(right)));
+        } else if (left.equals(Atom._1) && isNext(right)) {
+            // F X a = X F a
+            return UnaryOp.build(UnaryOp.OpType.X, BinaryOp.build(BinaryOp.OpType.U, Atom._1, operandOf(right)));
+        }
+
+        return BinaryOp.build(BinaryOp.OpType.U, left, right);
+    }
+
+    private LtlFormula rewriteRelease(LtlFormula left, LtlFormula right) {
+        if (right.equals(Atom._1) || right.equals(Atom._0) || left.equals(Atom._1) || left.equals(right)
+                || isUniversal(right)) {
+            return right;
+        } else if (isBinary(right, BinaryOp.OpType.R) && (((BinaryOp) right).getOpLeft().equals(left)
+                || ((BinaryOp) right).getOpRight().equals(left))) {
+            // a R (a R b) = a R b, a R (b R a) = b R a
+            return right;
+        } else if (isNext(left) && isNext(right)) {
+            return UnaryOp.build(UnaryOp.OpType.X, BinaryOp.build(BinaryOp.OpType.R, operandOf(left), operandOf(right)));
+        } else if (left.equals(Atom._0) && isNext(right)) {
+            // G X a = X G a
+            return UnaryOp.build(UnaryOp.OpType.X, BinaryOp.build(BinaryOp.OpType.R, Atom._0, operandOf(right)));
+        }
+
+        return BinaryOp.build(BinaryOp.OpType.R, left, right);
+    }
+
+    /**
+     * @return whether {@code a op other} equals a: {@code a && (a || b)},
+     * {@code a || (a && b)}
+     */
+    private boolean absorbs(BinaryOp.OpType opType, LtlFormula a, LtlFormula other) {
+        BinaryOp.OpType dual = opType == BinaryOp.OpType.AND ? BinaryOp.OpType.OR : BinaryOp.OpType.AND;
+
+        return isBinary(other, dual) && (((BinaryOp) other).getOpLeft().equals(a) || ((BinaryOp) other).getOpRight().equals(a));
+    }
+
+    private boolean isConstant(LtlFormula formula) {
+        return formula.equals(Atom._0) || formula.equals(Atom._1);
+    }
+
+    private boolean isNext(LtlFormula formula) {
+        return formula instanceof UnaryOp && ((UnaryOp) formula).getOpType() == UnaryOp.OpType.X;
+    }
+
+    private boolean isBinary(LtlFormula formula, BinaryOp.OpType opType) {
+        return formula instanceof BinaryOp && ((BinaryOp) formula).getOpType() == opType;
+    }
+
+    private LtlFormula operandOf(LtlFormula formula) {
+        return ((UnaryOp) formula).getOperand();
+    }
+}
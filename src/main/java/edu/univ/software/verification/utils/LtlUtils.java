@@ -1,7 +1,7 @@
 package edu.univ.software.verification.utils;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 import edu.univ.software.verification.model.LtlFormula;
@@ -9,16 +9,36 @@ import edu.univ.software.verification.model.MullerAutomaton;
 import edu.univ.software.verification.model.fa.BasicMullerAutomaton;
 import edu.univ.software.verification.model.ltl.Atom;
 import edu.univ.software.verification.model.ltl.BinaryOp;
+import edu.univ.software.verification.model.ltl.Guard;
+import edu.univ.software.verification.model.ltl.PropositionDictionary;
 import edu.univ.software.verification.model.ltl.UnaryOp;
+import edu.univ.software.verification.model.ltl.Valuation;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +63,12 @@ public enum LtlUtils {
      */
     public static final int MAX_PROPOSITIONAL_SYMBOLS_ALLOWED = 32;
 
+    /**
+     * Default maximum number of tableau nodes (expanded and pending) held in
+     * memory at once during LTL formula translation
+     */
+    public static final int DEFAULT_TABLEAU_NODE_BUDGET = 1 << 20;
+
     /**
      * Transition by empty set
      */
@@ -53,17 +79,114 @@ public enum LtlUtils {
     }
 
     public MullerAutomaton<Set<Atom>> convertToAutomata(LtlFormula formula) {
-        Set<GraphNode> nodes = new LinkedHashSet<>();
-        AtomicInteger idGen = new AtomicInteger(0);
+        return convertToAutomata(formula, DEFAULT_TABLEAU_NODE_BUDGET);
+    }
 
-        // build node graph via formula expansion
-        processNode(GraphNode.builder(Integer.toString(idGen.getAndIncrement()))
-                .addIncoming(INITIAL_GRAPH_NODE_ID)
-                .addNewFormula(formula)
-                .build(), nodes, idGen);
+    /**
+     * Converts LTL formula into automaton, limiting the tableau size
+     *
+     * @param formula LTL formula to convert
+     * @param nodeBudget maximum number of tableau nodes held at once
+     * @return LGBA (Muller) automaton
+     * @throws IllegalArgumentException if tableau exceeds the budget
+     */
+    public MullerAutomaton<Set<Atom>> convertToAutomata(LtlFormula formula, int nodeBudget) {
+        // convert nodes graph to automata, expanding don't care propositions
+        return nodesToAutomata(formula, buildGraph(formula, nodeBudget), valuationsOf(formula));
+    }
+
+    /**
+     * Converts LTL formula into automaton, reporting counters of its tableau
+     * construction
+     *
+     * @param formula LTL formula to convert
+     * @param statistics consumer of node, split and merge counters
+     * @return LGBA (Muller) automaton
+     */
+    public MullerAutomaton<Set<Atom>> convertToAutomata(LtlFormula formula, Consumer<? super TableauStatistics> statistics) {
+        return nodesToAutomata(formula, buildGraph(formula, new Tableau(DEFAULT_TABLEAU_NODE_BUDGET), statistics),
+                valuationsOf(formula));
+    }
+
+    /**
+     * Converts LTL formula into automaton with symbolic transition guards.
+     * Unlike {@link #convertToAutomata(LtlFormula)} each transition carries
+     * a single guard instead of all valuations it matches, so there is no
+     * limit on the number of propositions
+     *
+     * @param formula LTL formula to convert
+     * @return LGBA (Muller) automaton with guarded transitions
+     */
+    public MullerAutomaton<Guard> convertToGuardedAutomata(LtlFormula formula) {
+        return convertToGuardedAutomata(formula, DEFAULT_TABLEAU_NODE_BUDGET);
+    }
+
+    /**
+     * Converts LTL formula into automaton with symbolic transition guards,
+     * limiting the tableau size
+     *
+     * @param formula LTL formula to convert
+     * @param nodeBudget maximum number of tableau nodes held at once
+     * @return LGBA (Muller) automaton with guarded transitions
+     * @throws IllegalArgumentException if tableau exceeds the budget
+     */
+    public MullerAutomaton<Guard> convertToGuardedAutomata(LtlFormula formula, int nodeBudget) {
+        return nodesToAutomata(formula, buildGraph(formula, nodeBudget), this::guardOf);
+    }
+
+    /**
+     * Converts LTL formula into automaton with symbolic transition guards,
+     * reporting counters of its tableau construction
+     *
+     * @param formula LTL formula to convert
+     * @param statistics consumer of node, split and merge counters
+     * @return LGBA (Muller) automaton with guarded transitions
+     */
+    public MullerAutomaton<Guard> convertToGuardedAutomata(LtlFormula formula, Consumer<? super TableauStatistics> statistics) {
+        return nodesToAutomata(formula, buildGraph(formula, new Tableau(DEFAULT_TABLEAU_NODE_BUDGET), statistics), this::guardOf);
+    }
 
-        // convert nodes graph to automata
-        return nodesToAutomata(formula, nodes);
+    /**
+     * Converts LTL formula into automaton, expanding independent tableau
+     * branches (created by U, R and OR formulas) in parallel. Node
+     * identifiers are canonicalized, so the result does not depend on
+     * scheduling
+     *
+     * @param formula LTL formula to convert
+     * @param pool pool running the expansion
+     * @return LGBA (Muller) automaton
+     */
+    public MullerAutomaton<Set<Atom>> convertToAutomata(LtlFormula formula, ForkJoinPool pool) {
+        return nodesToAutomata(formula, buildGraph(formula, new ConcurrentTableau(DEFAULT_TABLEAU_NODE_BUDGET, pool)), valuationsOf(formula));
+    }
+
+    /**
+     * Converts LTL formula into automaton with symbolic transition guards,
+     * expanding independent tableau branches in parallel
+     *
+     * @param formula LTL formula to convert
+     * @param pool pool running the expansion
+     * @return LGBA (Muller) automaton with guarded transitions
+     * @see #convertToAutomata(LtlFormula, ForkJoinPool)
+     */
+    public MullerAutomaton<Guard> convertToGuardedAutomata(LtlFormula formula, ForkJoinPool pool) {
+        return convertToGuardedAutomata(formula, DEFAULT_TABLEAU_NODE_BUDGET, pool);
+    }
+
+    /**
+     * Converts LTL formula into automaton with symbolic transition guards,
+     * expanding independent tableau branches in parallel and limiting the
+     * tableau size
+     *
+     * @param formula LTL formula to convert
+     * @param nodeBudget maximum number of expanded and unfinished tableau
+     * nodes held at once
+     * @param pool pool running the expansion
+     * @return LGBA (Muller) automaton with guarded transitions
+     * @throws IllegalArgumentException if tableau exceeds the budget
+     */
+    public MullerAutomaton<Guard> convertToGuardedAutomata(LtlFormula formula, int nodeBudget, ForkJoinPool pool) {
+        return nodesToAutomata(formula, buildGraph(formula, new ConcurrentTableau(nodeBudget, pool)), this::guardOf);
     }
 
     public boolean isUnaryOp(LtlFormula formula, Set<UnaryOp.OpType> options) {
@@ -78,118 +201,147 @@ public enum LtlUtils {
         return (formula instanceof Atom) && options.contains(((Atom) formula).getType());
     }
 
-    private void processNode(GraphNode node, Set<GraphNode> nodes, AtomicInteger idGen) {
+    /**
+     * @return node to continue expansion with, null if node is finished
+     */
+    private GraphNode processNode(GraphNode node, Tableau tableau) {
         if (node.getNewFormulas().isEmpty()) {
-            Optional<GraphNode> optNode = nodes.stream().filter(n -> n.getOldFormulas().equals(node.getOldFormulas())
-                    && n.getNextFormulas().equals(node.getNextFormulas())).findFirst();
-
-            if (optNode.isPresent()) {
-                // update incoming edges for matching node
-                optNode.get().builder().addIncoming(node.getIncoming()).update();
-            } else {
-                // add this node to created graph
-                nodes.add(node);
-
-                // continue processing with neXt formulas
-                processNode(GraphNode.builder(Integer.toString(idGen.getAndIncrement()))
-                        .addIncoming(node.getId())
-                        .addNewFormulas(node.getNextFormulas())
-                        .build(), nodes, idGen);
+            // add this node to created graph, unless there is equivalent one
+            // (then incoming edges of matching node are updated)
+            if (tableau.merge(node) != null) {
+                return null;
             }
-        } else {
-            // get the first new formula to work with
-            LtlFormula formula = node.getNewFormulas().iterator().next();
-
-            // remove it from formula queue
-            node.builder().removeNewFormula(formula).update();
 
-            // process selected formula
-            processFormula(formula, node, nodes, idGen);
+            // continue processing with neXt formulas
+            return node.successor(tableau.nextId());
         }
+
+        // take the first new formula to work with, removing it from formula queue
+        int formula = node.getNewFormulas().poll();
+
+        // process selected formula
+        return processFormula(formula, node, tableau);
     }
 
-    private void processFormula(LtlFormula formula, GraphNode node, Set<GraphNode> nodes, AtomicInteger idGen) {
+    /**
+     * @return node to continue expansion with, null if node is contradictory
+     */
+    private GraphNode processFormula(int index, GraphNode node, Tableau tableau) {
+        FormulaClosure closure = node.getClosure();
+        LtlFormula formula = closure.get(index);
+
         if (formula instanceof Atom || isInvertedPredicateSymbol(formula)) {
-            if (!isAtom(formula, ImmutableSet.of(Atom.AtomType._0)) && !node.getOldFormulas().contains(formula.invert().normalized())) {
+            int negation = closure.negationOf(index);
+
+            if (!isAtom(formula, ImmutableSet.of(Atom.AtomType._0)) && (negation < 0 || !node.getOldFormulas().get(negation))) {
                 // mark this formula processed
-                node.builder().addOldFormula(formula).update();
+                node.getOldFormulas().set(index);
 
                 // continue node processing
-                processNode(node, nodes, idGen);
+                return node;
             }
         } else if (isBinaryOp(formula, ImmutableSet.of(BinaryOp.OpType.U, BinaryOp.OpType.R, BinaryOp.OpType.OR))) {
             BinaryOp binaryOp = (BinaryOp) formula;
 
-            Set<LtlFormula> newExtraFormulas1 = newFormulas1(binaryOp);
-            newExtraFormulas1.removeAll(node.getOldFormulas());
+            // two nodes are created and processed instead of the current one
+            GraphNode q1 = node.copy(tableau.nextId());
+            GraphNode q2 = node.copy(tableau.nextId());
+            tableau.splits.incrementAndGet();
+
+            newFormulas1(binaryOp).stream().mapToInt(closure::indexOf)
+                    .filter(f -> !node.getOldFormulas().get(f)).forEach(q1.getNewFormulas()::add);
+            q1.getOldFormulas().set(index);
+            nextFormulas1(binaryOp).stream().mapToInt(closure::indexOf).forEach(q1.getNextFormulas()::add);
 
-            Set<LtlFormula> newExtraFormulas2 = newFormulas2(binaryOp);
-            newExtraFormulas1.removeAll(node.getOldFormulas());
+            newFormulas2(binaryOp).stream().mapToInt(closure::indexOf).forEach(q2.getNewFormulas()::add);
+            q2.getOldFormulas().set(index);
 
-            // two nodes are created and processed instead of the current one
-            GraphNode q1 = GraphNode.builder(Integer.toString(idGen.getAndIncrement()), node)
-                    .addNewFormulas(newExtraFormulas1)
-                    .addOldFormula(formula)
-                    .addNextFormulas(nextFormulas1(binaryOp))
-                    .build();
-
-            GraphNode q2 = GraphNode.builder(Integer.toString(idGen.getAndIncrement()), node)
-                    .addNewFormulas(newExtraFormulas2)
-                    .addOldFormula(formula)
-                    .build();
-
-            processNode(q1, nodes, idGen);
-            processNode(q2, nodes, idGen);
+            // second node waits until the first one is completely expanded
+            tableau.push(q2);
+
+            return q1;
         } else if (isBinaryOp(formula, ImmutableSet.of(BinaryOp.OpType.AND))) {
             BinaryOp binaryOp = (BinaryOp) formula;
 
-            Set<LtlFormula> newExtraFormulas = Sets.newHashSet(binaryOp.getOpLeft(), binaryOp.getOpRight());
-            newExtraFormulas.removeAll(node.getOldFormulas());
+            // single operand node is updated and processed
+            Sets.newHashSet(binaryOp.getOpLeft(), binaryOp.getOpRight()).stream().mapToInt(closure::indexOf)
+                    .filter(f -> !node.getOldFormulas().get(f)).forEach(node.getNewFormulas()::add);
+            node.getOldFormulas().set(index);
 
-            // single operand node is created and processed
-            GraphNode q = node.builder()
-                    .addNewFormulas(newExtraFormulas)
-                    .addOldFormula(formula)
-                    .build();
-
-            processNode(q, nodes, idGen);
+            return node;
         } else if (isUnaryOp(formula, ImmutableSet.of(UnaryOp.OpType.X))) {
             UnaryOp unaryOp = (UnaryOp) formula;
 
-            // single operand node is created and processed
-            GraphNode q = node.builder()
-                    .addOldFormula(formula)
-                    .addNextFormula(unaryOp.getOperand())
-                    .build();
+            // single operand node is updated and processed
+            node.getOldFormulas().set(index);
+            node.getNextFormulas().add(closure.indexOf(unaryOp.getOperand()));
 
-            processNode(q, nodes, idGen);
+            return node;
         }
+
+        return null;
     }
 
-    private MullerAutomaton<Set<Atom>> nodesToAutomata(LtlFormula formula, Set<GraphNode> nodes) {
+    private Set<GraphNode> buildGraph(LtlFormula formula, int nodeBudget) {
+        return buildGraph(formula, new Tableau(nodeBudget));
+    }
 
-        // create automata builder and setup initial states
-        MullerAutomaton.Builder<Set<Atom>> automatonBuilder = BasicMullerAutomaton.<Set<Atom>>builder()
-                .withState(INITIAL_GRAPH_NODE_ID, true)
-                .withStates(false, nodes.stream().map(GraphNode::getId).collect(Collectors.toSet()));
+    private Set<GraphNode> buildGraph(LtlFormula formula, Tableau tableau) {
+        return buildGraph(formula, tableau, statistics -> logger.debug("Tableau of {}: {}", formula, statistics));
+    }
+
+    private Set<GraphNode> buildGraph(LtlFormula formula, Tableau tableau, Consumer<? super TableauStatistics> statistics) {
+        FormulaClosure closure = new FormulaClosure(formula);
+
+        GraphNode initial = new GraphNode(tableau.nextId(), closure);
+        initial.addIncoming(ImmutableSet.of(INITIAL_GRAPH_NODE_ID));
+        initial.getNewFormulas().add(closure.indexOf(formula));
+
+        // build node graph via formula expansion
+        tableau.push(initial);
+        tableau.expand(node -> processNode(node, tableau));
+
+        statistics.accept(tableau.statistics());
+
+        return tableau.getNodes();
+    }
 
+    /**
+     * Transition labels as all valuations matching node propositions
+     */
+    private BiFunction<Set<String>, Set<String>, Set<Set<Atom>>> valuationsOf(LtlFormula formula) {
         // set of atomic propositions for given LTL formula
         Set<String> atomicPs = formula.getPropositions(null);
 
-        // transitions definition
-        for (GraphNode current : nodes) {
-            Set<String> positivePs = getPositivePropositions(current);
-            Set<String> negativePs = getNegativePropositions(current);
-
+        return (positivePs, negativePs) -> {
             Set<String> insignificantPs = Sets.newLinkedHashSet(atomicPs);
             insignificantPs.removeAll(positivePs);
             insignificantPs.removeAll(negativePs);
 
-            Set<Set<Atom>> transitions = getPropositionsBoolean(insignificantPs).stream().map((Set<String> x) -> {
-                x.addAll(positivePs);
+            return getValuations(positivePs, insignificantPs);
+        };
+    }
+
+    /**
+     * Transition label as single guard over node propositions
+     */
+    private Set<Guard> guardOf(Set<String> positivePs, Set<String> negativePs) {
+        return ImmutableSet.of(Guard.of(
+                positivePs.stream().map(Atom::forName).collect(Collectors.toList()),
+                negativePs.stream().map(Atom::forName).collect(Collectors.toList())));
+    }
+
+    private <T> MullerAutomaton<T> nodesToAutomata(LtlFormula formula, Set<GraphNode> nodes,
+            BiFunction<Set<String>, Set<String>, Set<T>> labels) {
+
+        // create automata builder and setup initial states
+        MullerAutomaton.Builder<T> automatonBuilder = BasicMullerAutomaton.<T>builder()
+                .withState(INITIAL_GRAPH_NODE_ID, true)
+                .withStates(false, nodes.stream().map(GraphNode::getId).collect(Collectors.toSet()));
 
-                return x.stream().map(Atom::forName).collect(Collectors.toSet());
-            }).collect(Collectors.toSet());
+        // transitions definition
+        for (GraphNode current : nodes) {
+            Set<T> transitions = labels.apply(getPositivePropositions(current), getNegativePropositions(current));
 
             // add transitions to automaton
             if (!transitions.isEmpty()) {
@@ -198,7 +350,7 @@ public enum LtlUtils {
         }
 
         // check subformulas for Until operator presence
-        Set<BinaryOp> untilFs = nodes.stream().flatMap(n -> n.getOldFormulas().stream()).distinct().filter(f -> isBinaryOp(f, ImmutableSet.of(BinaryOp.OpType.U))).map(f -> (BinaryOp) f).collect(Collectors.toSet());
+        Set<BinaryOp> untilFs = nodes.stream().flatMap(n -> n.getOldFormulaSet().stream()).distinct().filter(f -> isBinaryOp(f, ImmutableSet.of(BinaryOp.OpType.U))).map(f -> (BinaryOp) f).collect(Collectors.toSet());
 
         // final states initialization
         if (untilFs.isEmpty()) {
@@ -210,7 +362,7 @@ public enum LtlUtils {
         } else {
             untilFs.forEach((BinaryOp f) -> {
                 Set<String> finalStateSet = nodes.stream().filter((GraphNode n) ->
-                        !n.getOldFormulas().contains(f) || n.getOldFormulas().contains(f.getOpRight())).map(GraphNode::getId).collect(Collectors.toSet());
+                        !n.getOldFormulaSet().contains(f) || n.getOldFormulaSet().contains(f.getOpRight())).map(GraphNode::getId).collect(Collectors.toSet());
 
                 if (!finalStateSet.isEmpty()) {
                     automatonBuilder.withFinalStateSet(finalStateSet);
@@ -272,136 +424,314 @@ public enum LtlUtils {
     }
 
     private Set<String> getPositivePropositions(GraphNode node) {
-        return node.getOldFormulas().stream().filter(f -> isAtom(f, ImmutableSet.of(Atom.AtomType.VAR))).map(f -> ((Atom) f).getName()).collect(Collectors.toSet());
+        return node.getOldFormulaSet().stream().filter(f -> isAtom(f, ImmutableSet.of(Atom.AtomType.VAR))).map(f -> ((Atom) f).getName()).collect(Collectors.toSet());
     }
 
     private Set<String> getNegativePropositions(GraphNode node) {
-        return node.getOldFormulas().stream().filter(this::isInvertedPredicateSymbol).map(f -> ((Atom) ((UnaryOp) f).getOperand()).getName()).collect(Collectors.toSet());
+        return node.getOldFormulaSet().stream().filter(this::isInvertedPredicateSymbol).map(f -> ((Atom) ((UnaryOp) f).getOperand()).getName()).collect(Collectors.toSet());
     }
 
-    private Set<Set<String>> getPropositionsBoolean(Collection<String> propositions) throws IllegalArgumentException {
-        List<String> symbols = Lists.newArrayList(propositions);
-
-        if (symbols.size() > MAX_PROPOSITIONAL_SYMBOLS_ALLOWED) {
+    /**
+     * Builds valuations containing all positive propositions and any subset of
+     * insignificant ones (as bits of proposition dictionary indices)
+     */
+    private Set<Set<Atom>> getValuations(Collection<String> positivePs, Collection<String> insignificantPs) throws IllegalArgumentException {
+        if (insignificantPs.size() > MAX_PROPOSITIONAL_SYMBOLS_ALLOWED) {
             throw new IllegalArgumentException(String.format(
-                    "Too many propositional symbols (%d > %d)", symbols.size(), MAX_PROPOSITIONAL_SYMBOLS_ALLOWED));
+                    "Too many propositional symbols (%d > %d)", insignificantPs.size(), MAX_PROPOSITIONAL_SYMBOLS_ALLOWED));
         }
 
-        Set<Set<String>> symbolsBoolean = new LinkedHashSet<>();
+        BitSet positive = Valuation.of(positivePs.stream().map(Atom::forName).collect(Collectors.toList())).toBitSet();
+        int[] insignificant = insignificantPs.stream().map(Atom::forName).mapToInt(PropositionDictionary.INSTANCE::indexOf).toArray();
 
-        for (int i = 0; i < (2 << Math.max(0, symbols.size() - 1)); i++) {
-            Set<String> subset = new LinkedHashSet<>();
+        Set<Set<Atom>> valuations = new LinkedHashSet<>();
 
-            for (int j = 0; j < symbols.size(); j++) {
-                if ((i & (1 << j)) != 0) {
-                    subset.add(symbols.get(j));
+        for (long i = 0; i < (1L << insignificant.length); i++) {
+            BitSet bits = (BitSet) positive.clone();
+
+            for (int j = 0; j < insignificant.length; j++) {
+                if ((i & (1L << j)) != 0) {
+                    bits.set(insignificant[j]);
                 }
             }
 
-            symbolsBoolean.add(subset);
+            valuations.add(Valuation.of(bits));
         }
 
-        return symbolsBoolean;
+        return valuations;
     }
 }
 
 /**
- * Single graph node representation
+ * Tableau under construction: created nodes indexed by their processed and
+ * neXt formula sets, so the equivalent node lookup does not scan the graph,
+ * and explicit stack of nodes waiting for expansion
  *
  * @author arthur
  */
-class GraphNode {
+class Tableau {
 
     /**
-     * Unique node identifier (immutable)
+     * Maximum number of expanded and pending nodes
      */
-    protected final String id;
+    protected final int nodeBudget;
 
     /**
-     * List of incoming node IDs (having edge to this node)
+     * Nodes waiting for expansion
      */
-    protected Set<String> incoming;
+    protected final Deque<GraphNode> pending = new ArrayDeque<>();
 
     /**
-     * List of formulas to process
+     * Fully expanded nodes in creation order
+     */
+    protected final Set<GraphNode> nodes = new LinkedHashSet<>();
+
+    protected final Map<NodeSignature, GraphNode> index = new HashMap<>();
+
+    protected final AtomicInteger idGen = new AtomicInteger(0);
+
+    protected final AtomicInteger splits = new AtomicInteger(0);
+
+    protected final AtomicInteger merges = new AtomicInteger(0);
+
+    public Tableau(int nodeBudget) {
+        this.nodeBudget = nodeBudget;
+    }
+
+    public String nextId() {
+        return Integer.toString(idGen.getAndIncrement());
+    }
+
+    /**
+     * Adds fully expanded node to the graph, unless it has equivalent node
+     * (with the same processed and neXt formulas). Incoming edges of the
+     * node are added to the equivalent one
+     *
+     * @param node fully expanded node
+     * @return equivalent node, null if the node itself was added
      */
-    protected Set<LtlFormula> newFormulas;
+    public GraphNode merge(GraphNode node) {
+        GraphNode equivalent = index.get(new NodeSignature(node));
+
+        if (equivalent != null) {
+            equivalent.addIncoming(node.getIncoming());
+            merges.incrementAndGet();
+        } else {
+            nodes.add(node);
+            index.put(new NodeSignature(node), node);
+            checkBudget(nodes.size(), pending.size());
+        }
+
+        return equivalent;
+    }
 
     /**
-     * List of already processed formulas
+     * Schedules node for expansion
      */
-    protected Set<LtlFormula> oldFormulas;
+    public void push(GraphNode node) {
+        pending.push(node);
+        checkBudget(nodes.size(), pending.size());
+    }
 
     /**
-     * List of formulas under neXt operator action
+     * Expands pending nodes until none is left. Each node is processed until
+     * it is dropped, merged or split; the second node of a split is pushed on
+     * the stack, so the nodes are expanded in the same (depth-first) order a
+     * recursive expansion would use
+     *
+     * @param step processes node, returning node to continue with (null if
+     * node is finished)
      */
-    protected Set<LtlFormula> nextFormulas;
+    public void expand(UnaryOperator<GraphNode> step) {
+        while (!pending.isEmpty()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException(String.format("Tableau expansion cancelled after %d nodes", idGen.get()));
+            }
 
-    public static Builder builder(String id) {
-        return new Builder(id);
-    }
+            GraphNode node = pending.pop();
 
-    public static Builder builder(String id, GraphNode prototype) {
-        return new Builder(id, prototype);
+            while (node != null) {
+                node = step.apply(node);
+            }
+        }
     }
 
-    public Builder builder() {
-        return GraphNode.builder(id, this);
+    /**
+     * @return fully expanded nodes
+     */
+    public Set<GraphNode> getNodes() {
+        return nodes;
     }
 
-    //<editor-fold defaultstate="collapsed" desc="Getters">
-    public String getId() {
-        return id;
+    public TableauStatistics statistics() {
+        return new TableauStatistics(getNodes().size(), idGen.get(), splits.get(), merges.get());
     }
 
-    public Set<String> getIncoming() {
-        return incoming;
+    protected void checkBudget(int expanded, int waiting) {
+        if (expanded + waiting > nodeBudget) {
+            throw new IllegalArgumentException(String.format(
+                    "Tableau exceeds the budget of %d nodes (%d expanded, %d pending)", nodeBudget, expanded, waiting));
+        }
     }
+}
 
-    public Set<LtlFormula> getNewFormulas() {
-        return newFormulas;
+/**
+ * Tableau expanded by ForkJoin tasks: the second node of each split is forked
+ * instead of being pushed on the stack, equivalent nodes are merged through
+ * concurrent index. As the expansion order (and so node identifiers) depends
+ * on scheduling, nodes are renamed in the order of their signatures once the
+ * expansion is finished
+ *
+ * @author arthur
+ */
+class ConcurrentTableau extends Tableau {
+
+    private final ForkJoinPool pool;
+
+    private final ConcurrentMap<NodeSignature, GraphNode> concurrentIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Forked expansions not finished yet, each holding one node outside the
+     * index
+     */
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    /**
+     * First failure of any expansion (errors included), rethrown once the
+     * pool is quiescent
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private UnaryOperator<GraphNode> step;
+
+    private Set<GraphNode> canonicalNodes;
+
+    public ConcurrentTableau(int nodeBudget, ForkJoinPool pool) {
+        super(nodeBudget);
+
+        this.pool = pool;
     }
 
-    public Set<LtlFormula> getOldFormulas() {
-        return oldFormulas;
+    @Override
+    public GraphNode merge(GraphNode node) {
+        GraphNode equivalent = concurrentIndex.putIfAbsent(new NodeSignature(node), node);
+
+        if (equivalent != null) {
+            synchronized (equivalent) {
+                equivalent.addIncoming(node.getIncoming());
+            }
+
+            merges.incrementAndGet();
+        } else {
+            // the node of this expansion is already in the index
+            checkBudget(concurrentIndex.size(), inFlight.get() - 1);
+        }
+
+        return equivalent;
     }
 
-    public Set<LtlFormula> getNextFormulas() {
-        return nextFormulas;
+    /**
+     * Forks node expansion once the expansion is started
+     */
+    @Override
+    public void push(GraphNode node) {
+        if (step == null) {
+            super.push(node);
+        } else {
+            fork(node);
+        }
     }
-    //</editor-fold>
 
-    //<editor-fold defaultstate="collapsed" desc="Setters (private)">
-    private void setIncoming(Collection<String> incoming) {
-        this.incoming = ImmutableSet.copyOf(incoming);
+    /**
+     * Waits for the expansion by helping the pool until it is quiescent, so
+     * the pool should not be shared with unrelated long running tasks
+     */
+    @Override
+    public void expand(UnaryOperator<GraphNode> step) {
+        this.step = step;
+
+        pool.invoke(ForkJoinTask.adapt(() -> {
+            while (!pending.isEmpty()) {
+                fork(pending.pop());
+            }
+
+            ForkJoinTask.helpQuiesce();
+        }));
+
+        if (failure.get() != null) {
+            throw Throwables.propagate(failure.get());
+        }
     }
 
-    private void setNewFormulas(Collection<? extends LtlFormula> newFormulas) {
-        this.newFormulas = ImmutableSet.copyOf(newFormulas);
+    @Override
+    public Set<GraphNode> getNodes() {
+        if (canonicalNodes == null) {
+            canonicalNodes = canonicalize();
+        }
+
+        return canonicalNodes;
     }
 
-    private void setOldFormulas(Collection<? extends LtlFormula> oldFormulas) {
-        this.oldFormulas = ImmutableSet.copyOf(oldFormulas);
+    private void fork(GraphNode start) {
+        checkBudget(concurrentIndex.size(), inFlight.incrementAndGet());
+
+        ForkJoinTask.adapt(() -> {
+            try {
+                GraphNode node = start;
+
+                while (node != null && failure.get() == null) {
+                    node = step.apply(node);
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }).fork();
     }
 
-    private void setNextFormulas(Collection<? extends LtlFormula> nextFormulas) {
-        this.nextFormulas = ImmutableSet.copyOf(nextFormulas);
+    /**
+     * Renames nodes to their positions in signature order
+     */
+    private Set<GraphNode> canonicalize() {
+        List<NodeSignature> signatures = new ArrayList<>(concurrentIndex.keySet());
+        Collections.sort(signatures);
+
+        Map<String, String> ids = new HashMap<>();
+        ids.put(LtlUtils.INITIAL_GRAPH_NODE_ID, LtlUtils.INITIAL_GRAPH_NODE_ID);
+
+        for (int i = 0; i < signatures.size(); i++) {
+            ids.put(concurrentIndex.get(signatures.get(i)).getId(), Integer.toString(i + 1));
+        }
+
+        return signatures.stream().map(concurrentIndex::get).map(n -> n.renamed(ids))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
-    //</editor-fold>
+}
 
-    //<editor-fold defaultstate="collapsed" desc="Constructor">
-    private GraphNode(String id) {
-        this.id = id;
+/**
+ * Key of fully expanded node: it's processed and neXt formula sets (not
+ * modified after the node is expanded)
+ *
+ * @author arthur
+ */
+class NodeSignature implements Comparable<NodeSignature> {
+
+    private final BitSet oldFormulas;
+
+    private final BitSet nextFormulas;
+
+    private final int hash;
+
+    public NodeSignature(GraphNode node) {
+        oldFormulas = node.getOldFormulas();
+        nextFormulas = node.getNextFormulas().members();
+        hash = 31 * oldFormulas.hashCode() + nextFormulas.hashCode();
     }
-    //</editor-fold>
 
-    //<editor-fold defaultstate="collapsed" desc="hashCode + equals + toString">
+    //<editor-fold defaultstate="collapsed" desc="hashCode + equals">
     @Override
     public int hashCode() {
-        int hash = 3;
-
-        hash = 29 * hash + Objects.hashCode(this.id);
-
         return hash;
     }
 
@@ -411,166 +741,386 @@ class GraphNode {
             return true;
         }
 
-        if (!(o instanceof GraphNode)) {
+        if (!(o instanceof NodeSignature)) {
             return false;
         }
 
-        final GraphNode other = (GraphNode) o;
+        final NodeSignature other = (NodeSignature) o;
 
-        return Objects.equals(this.id, other.id);
+        return this.hash == other.hash && Objects.equals(this.oldFormulas, other.oldFormulas)
+                && Objects.equals(this.nextFormulas, other.nextFormulas);
     }
+    //</editor-fold>
 
+    /**
+     * Orders signatures by processed formulas, then by neXt formulas (both
+     * compared as words of their bitsets)
+     */
     @Override
-    public String toString() {
-        return "GraphNode{" + "id=" + id + ", newFormulas=" + newFormulas + ", oldFormulas=" + oldFormulas + ", nextFormulas=" + nextFormulas + ", incoming=" + incoming + '}';
+    public int compareTo(NodeSignature o) {
+        int result = compare(this.oldFormulas, o.oldFormulas);
+
+        return result != 0 ? result : compare(this.nextFormulas, o.nextFormulas);
     }
-    //</editor-fold>
 
-    public static class Builder {
+    private static int compare(BitSet a, BitSet b) {
+        long[] wordsA = a.toLongArray();
+        long[] wordsB = b.toLongArray();
 
-        private static final Logger logger = LoggerFactory.getLogger(LtlUtils.class);
+        for (int i = 0; i < Math.min(wordsA.length, wordsB.length); i++) {
+            if (wordsA[i] != wordsB[i]) {
+                return Long.compareUnsigned(wordsA[i], wordsB[i]);
+            }
+        }
 
-        protected final GraphNode original;
+        return Integer.compare(wordsA.length, wordsB.length);
+    }
+}
 
-        protected final String id;
-        protected final Set<String> incoming = new LinkedHashSet<>();
-        protected final Set<LtlFormula> newFormulas = new LinkedHashSet<>();
-        protected final Set<LtlFormula> oldFormulas = new LinkedHashSet<>();
-        protected final Set<LtlFormula> nextFormulas = new LinkedHashSet<>();
+/**
+ * Closure of LTL formula (all it's subformulas) indexed by dense numbers, so
+ * tableau formula sets are bitsets over the closure
+ *
+ * @author arthur
+ */
+class FormulaClosure {
 
-        public Builder addIncoming(String node) {
-            if (!incoming.add(node)) {
-                logger.debug("Attempt to add duplicate incoming edge from '{}' to '{}'", node, this.id);
-            }
+    private static final int UNKNOWN = -2;
 
-            return this;
-        }
+    private final List<LtlFormula> formulas = new ArrayList<>();
 
-        public Builder addIncoming(Collection<String> nodes) {
-            nodes.stream().forEach(this::addIncoming);
+    private final Map<LtlFormula, Integer> indices = new HashMap<>();
 
-            return this;
-        }
+    /**
+     * Closure index of inverted formula (-1 if it is not in the closure)
+     */
+    private int[] negations = new int[0];
 
-        public Builder addNewFormula(LtlFormula formula) {
-            return addFormula(newFormulas, formula);
-        }
+    public FormulaClosure(LtlFormula formula) {
+        Deque<LtlFormula> stack = new ArrayDeque<>(Collections.singleton(formula));
 
-        public Builder addNewFormulas(Collection<? extends LtlFormula> formula) {
-            return addFormulas(newFormulas, formula);
-        }
+        while (!stack.isEmpty()) {
+            LtlFormula current = stack.pop();
 
-        public Builder addOldFormula(LtlFormula formula) {
-            return addFormula(oldFormulas, formula);
-        }
+            if (!indices.containsKey(current)) {
+                indexOf(current);
 
-        public Builder addOldFormulas(Collection<? extends LtlFormula> formula) {
-            return addFormulas(oldFormulas, formula);
+                if (current instanceof UnaryOp) {
+                    stack.push(((UnaryOp) current).getOperand());
+                } else if (current instanceof BinaryOp) {
+                    stack.push(((BinaryOp) current).getOpRight());
+                    stack.push(((BinaryOp) current).getOpLeft());
+                }
+            }
         }
 
-        public Builder addNextFormula(LtlFormula formula) {
-            return addFormula(nextFormulas, formula);
+        // closure is only read during (possibly parallel) expansion
+        for (int i = 0; i < formulas.size(); i++) {
+            negationOf(i);
         }
+    }
 
-        public Builder addNextFormulas(Collection<? extends LtlFormula> formula) {
-            return addFormulas(nextFormulas, formula);
-        }
+    /**
+     * Gets index of formula, adding it to the closure if missing
+     *
+     * @param formula LTL formula
+     * @return closure index
+     */
+    public int indexOf(LtlFormula formula) {
+        Integer index = indices.get(formula);
 
-        public Builder removeNewFormula(LtlFormula formula) {
-            return removeFormula(newFormulas, formula);
-        }
+        if (index == null) {
+            index = formulas.size();
+            formulas.add(formula);
+            indices.put(formula, index);
 
-        public Builder removeNewFormulas(Collection<? extends LtlFormula> formula) {
-            return removeFormulas(newFormulas, formula);
+            // cached misses may become stale
+            negations = new int[formulas.size()];
+            Arrays.fill(negations, UNKNOWN);
         }
 
-        public Builder removeOldFormula(LtlFormula formula) {
-            return removeFormula(oldFormulas, formula);
+        return index;
+    }
+
+    public LtlFormula get(int index) {
+        return formulas.get(index);
+    }
+
+    /**
+     * Gets index of inverted (and normalized) formula
+     *
+     * @param index closure index of formula
+     * @return closure index of it's negation, -1 if not in the closure
+     */
+    public int negationOf(int index) {
+        if (negations[index] == UNKNOWN) {
+            Integer negation = indices.get(formulas.get(index).invert().normalized());
+
+            negations[index] = negation != null ? negation : -1;
         }
 
-        public Builder removeOldFormulas(Collection<? extends LtlFormula> formula) {
-            return removeFormulas(oldFormulas, formula);
+        return negations[index];
+    }
+
+    public Set<LtlFormula> toFormulas(BitSet indices) {
+        return indices.stream().mapToObj(formulas::get).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
+
+/**
+ * Insertion ordered set of closure indices
+ *
+ * @author arthur
+ */
+class IndexQueue {
+
+    private final BitSet members;
+
+    private int[] items;
+
+    private int head;
+
+    private int tail;
+
+    public IndexQueue() {
+        members = new BitSet();
+        items = new int[4];
+    }
+
+    public IndexQueue(IndexQueue prototype) {
+        members = (BitSet) prototype.members.clone();
+        items = Arrays.copyOfRange(prototype.items, prototype.head, Math.max(prototype.tail, prototype.head + 4));
+        tail = prototype.tail - prototype.head;
+    }
+
+    /**
+     * Appends index unless already present
+     */
+    public void add(int index) {
+        if (members.get(index)) {
+            return;
         }
 
-        public Builder removeNextFormula(LtlFormula formula) {
-            return removeFormula(nextFormulas, formula);
+        if (tail == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
         }
 
-        public Builder removeNextFormulas(Collection<? extends LtlFormula> formula) {
-            return removeFormulas(nextFormulas, formula);
+        members.set(index);
+        items[tail++] = index;
+    }
+
+    /**
+     * Removes the first index
+     */
+    public int poll() {
+        int index = items[head++];
+
+        members.clear(index);
+
+        return index;
+    }
+
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(items, head, tail);
+    }
+
+    public BitSet members() {
+        return members;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="hashCode + equals">
+    @Override
+    public int hashCode() {
+        return members.hashCode();
+    }
+
+    /**
+     * Queues are equal when they contain the same indices (in any order)
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
         }
 
-        public GraphNode build() {
-            return updateNode(new GraphNode(id));
+        if (!(o instanceof IndexQueue)) {
+            return false;
         }
 
-        public GraphNode update() {
-            GraphNode result = null;
+        return Objects.equals(this.members, ((IndexQueue) o).members);
+    }
+    //</editor-fold>
+}
 
-            if (original != null) {
-                result = updateNode(original);
-            } else {
-                logger.error("Update action invoked with no original node present");
-            }
+/**
+ * Single graph node representation. Formula sets are kept as closure
+ * indices: new and neXt formulas in insertion order (new ones are processed
+ * first in, first out), processed ones as a bitset.
+ *
+ * @author arthur
+ */
+class GraphNode {
 
-            return result;
-        }
+    /**
+     * Unique node identifier (immutable)
+     */
+    protected final String id;
 
-        protected Builder addFormula(Set<LtlFormula> container, LtlFormula formula) {
-            if (!container.add(formula)) {
-                logger.debug("Attempt to add duplicate formula '{}'", formula);
-            }
+    protected final FormulaClosure closure;
 
-            return this;
-        }
+    /**
+     * List of incoming node IDs (having edge to this node)
+     */
+    protected final Set<String> incoming;
 
-        protected Builder addFormulas(Set<LtlFormula> container, Collection<? extends LtlFormula> formulas) {
-            formulas.stream().forEach(f -> addFormula(container, f));
+    /**
+     * List of formulas to process
+     */
+    protected final IndexQueue newFormulas;
 
-            return this;
-        }
+    /**
+     * List of already processed formulas
+     */
+    protected final BitSet oldFormulas;
 
-        protected Builder removeFormula(Set<LtlFormula> container, LtlFormula formula) {
-            if (!container.remove(formula)) {
-                logger.debug("Attempt to remove missing formula '{}'", formula);
-            }
+    /**
+     * List of formulas under neXt operator action
+     */
+    protected final IndexQueue nextFormulas;
 
-            return this;
-        }
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    public GraphNode(String id, FormulaClosure closure) {
+        this.id = id;
+        this.closure = closure;
 
-        protected Builder removeFormulas(Set<LtlFormula> container, Collection<? extends LtlFormula> formulas) {
-            formulas.stream().forEach(f -> removeFormula(container, f));
+        incoming = new LinkedHashSet<>();
+        newFormulas = new IndexQueue();
+        oldFormulas = new BitSet();
+        nextFormulas = new IndexQueue();
+    }
 
-            return this;
-        }
+    private GraphNode(String id, GraphNode prototype) {
+        this.id = id;
+        this.closure = prototype.closure;
 
-        protected GraphNode updateNode(GraphNode node) {
-            node.setIncoming(incoming);
-            node.setNewFormulas(newFormulas);
-            node.setOldFormulas(oldFormulas);
-            node.setNextFormulas(nextFormulas);
+        incoming = new LinkedHashSet<>(prototype.incoming);
+        newFormulas = new IndexQueue(prototype.newFormulas);
+        oldFormulas = (BitSet) prototype.oldFormulas.clone();
+        nextFormulas = new IndexQueue(prototype.nextFormulas);
+    }
+    //</editor-fold>
 
-            return node;
-        }
+    /**
+     * Copies node under a new identifier
+     *
+     * @param id unique identifier of the copy
+     * @return node with the same incoming edges and formulas
+     */
+    public GraphNode copy(String id) {
+        return new GraphNode(id, this);
+    }
+
+    /**
+     * Creates node to process neXt formulas of this one
+     *
+     * @param id unique identifier of the successor
+     * @return node with single incoming edge from this one
+     */
+    public GraphNode successor(String id) {
+        GraphNode next = new GraphNode(id, closure);
 
-        //<editor-fold defaultstate="collapsed" desc="Constructors">
-        private Builder(String id) {
-            this.id = id;
+        next.incoming.add(this.id);
+        nextFormulas.stream().forEach(next.newFormulas::add);
 
-            // no prototype used
-            this.original = null;
-        }
+        return next;
+    }
 
-        private Builder(String id, GraphNode prototype) {
-            this.id = id;
-            this.incoming.addAll(prototype.getIncoming());
-            this.newFormulas.addAll(prototype.getNewFormulas());
-            this.oldFormulas.addAll(prototype.getOldFormulas());
-            this.nextFormulas.addAll(prototype.getNextFormulas());
+    /**
+     * Copies node under a new identifier, renaming incoming nodes as well
+     *
+     * @param ids new identifiers by the current ones
+     * @return node with renamed identifiers and the same formulas
+     */
+    public GraphNode renamed(Map<String, String> ids) {
+        GraphNode node = new GraphNode(ids.get(id), this);
+
+        node.incoming.clear();
+        incoming.stream().map(ids::get).sorted().forEach(node.incoming::add);
+
+        return node;
+    }
+
+    public void addIncoming(Collection<String> nodes) {
+        incoming.addAll(nodes);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    public String getId() {
+        return id;
+    }
 
-            // save prototype reference if correct prototype id is used
-            this.original = Objects.equals(id, prototype.getId()) ? prototype : null;
+    public FormulaClosure getClosure() {
+        return closure;
+    }
+
+    public Set<String> getIncoming() {
+        return incoming;
+    }
+
+    public IndexQueue getNewFormulas() {
+        return newFormulas;
+    }
+
+    public BitSet getOldFormulas() {
+        return oldFormulas;
+    }
+
+    public IndexQueue getNextFormulas() {
+        return nextFormulas;
+    }
+
+    /**
+     * @return already processed formulas (in closure order)
+     */
+    public Set<LtlFormula> getOldFormulaSet() {
+        return closure.toFormulas(oldFormulas);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="hashCode + equals + toString">
+    @Override
+    public int hashCode() {
+        int hash = 3;
+
+        hash = 29 * hash + Objects.hashCode(this.id);
+
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
         }
-        //</editor-fold>
+
+        if (!(o instanceof GraphNode)) {
+            return false;
+        }
+
+        final GraphNode other = (GraphNode) o;
+
+        return Objects.equals(this.id, other.id);
     }
+
+    @Override
+    public String toString() {
+        return "GraphNode{" + "id=" + id + ", newFormulas=" + closure.toFormulas(newFormulas.members())
+                + ", oldFormulas=" + closure.toFormulas(oldFormulas) + ", nextFormulas="
+                + closure.toFormulas(nextFormulas.members()) + ", incoming=" + incoming + '}';
+    }
+    //</editor-fold>
 }
@@ -0,0 +1,177 @@
+package edu.univ.software.verification.utils;
+
+import edu.univ.software.verification.model.AutomatonState;
+import edu.univ.software.verification.model.BuchiAutomaton;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Nested depth-first search emptiness check for Buchi automata
+ * (Courcoubetis-Vardi-Wolper-Yannakakis with Schwoon-Esparza cyan states).
+ * Runs in time linear in the number of states and transitions and stops at
+ * the first accepting lasso found. Both searches use explicit stacks, so deep
+ * automata do not exhaust the call stack.
+ *
+ * @author arthur
+ * @param <T> transition symbol type
+ */
+public class NestedDfs<T> {
+
+    private enum Color {
+
+        CYAN, // on the blue search stack
+        BLUE, // blue search finished
+        RED // visited by some red search
+    }
+
+    private static class Frame {
+
+        private final String state;
+        private final Iterator<String> successors;
+
+        public Frame(String state, Iterator<String> successors) {
+            this.state = state;
+            this.successors = successors;
+        }
+    }
+
+    private final BuchiAutomaton<T> buchi;
+
+    private final Map<String, Color> colors;
+
+    private final Deque<Frame> blueStack;
+
+    public NestedDfs(BuchiAutomaton<T> buchi) {
+        this.buchi = buchi;
+
+        colors = new HashMap<>();
+        blueStack = new ArrayDeque<>();
+    }
+
+    /**
+     * Searches for a run visiting some final state infinitely often
+     *
+     * @return first accepting lasso found, empty if language is empty
+     */
+    public Optional<Lasso<T>> search() {
+        for (AutomatonState initial : buchi.getInitialStates()) {
+            if (!colors.containsKey(initial.getLabel())) {
+                Optional<Lasso<T>> lasso = blueSearch(initial.getLabel());
+
+                if (lasso.isPresent()) {
+                    return lasso;
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<Lasso<T>> blueSearch(String initial) {
+        enterBlue(initial);
+
+        while (!blueStack.isEmpty()) {
+            Frame current = blueStack.peek();
+
+            if (current.successors.hasNext()) {
+                String next = current.successors.next();
+                Color color = colors.get(next);
+
+                if (color == null) {
+                    enterBlue(next);
+                } else if (color == Color.CYAN && (isFinal(current.state) || isFinal(next))) {
+                    // back edge closes a cycle through a final state
+                    return Optional.of(buildLasso(next, new ArrayList<>()));
+                }
+            } else {
+                if (isFinal(current.state)) {
+                    List<String> redPath = redSearch(current.state);
+
+                    if (redPath != null) {
+                        return Optional.of(buildLasso(redPath.get(redPath.size() - 1), redPath.subList(1, redPath.size() - 1)));
+                    }
+
+                    colors.put(current.state, Color.RED);
+                } else {
+                    colors.put(current.state, Color.BLUE);
+                }
+
+                blueStack.pop();
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Looks for a path from the seed to any state on the blue stack
+     *
+     * @param seed final state the blue search backtracks from
+     * @return path from seed to a cyan state (both inclusive), null if none
+     */
+    private List<String> redSearch(String seed) {
+        Deque<Frame> redStack = new ArrayDeque<>();
+        redStack.push(new Frame(seed, successors(seed)));
+
+        while (!redStack.isEmpty()) {
+            Frame current = redStack.peek();
+
+            if (current.successors.hasNext()) {
+                String next = current.successors.next();
+                Color color = colors.get(next);
+
+                if (color == Color.CYAN) {
+                    List<String> path = new ArrayList<>();
+                    redStack.descendingIterator().forEachRemaining(f -> path.add(f.state));
+                    path.add(next);
+
+                    return path;
+                } else if (color == Color.BLUE) {
+                    colors.put(next, Color.RED);
+                    redStack.push(new Frame(next, successors(next)));
+                }
+            } else {
+                redStack.pop();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Lasso consists of the blue stack up to the entry, then the blue stack
+     * from the entry up to its top, then the red path back to the entry
+     */
+    private Lasso<T> buildLasso(String entry, List<String> redPath) {
+        List<String> stack = new ArrayList<>();
+        blueStack.descendingIterator().forEachRemaining(f -> stack.add(f.state));
+
+        int entryIndex = stack.indexOf(entry);
+
+        List<String> cycle = new ArrayList<>(stack.subList(entryIndex, stack.size()));
+        cycle.addAll(redPath);
+        cycle.add(entry);
+
+        return Lasso.of(buchi, stack.subList(0, entryIndex + 1), cycle);
+    }
+
+    private void enterBlue(String state) {
+        colors.put(state, Color.CYAN);
+        blueStack.push(new Frame(state, successors(state)));
+    }
+
+    private Iterator<String> successors(String state) {
+        return buchi.getTransitionsFrom(state).keySet().iterator();
+    }
+
+    private boolean isFinal(String state) {
+        return buchi.isFinal(state);
+    }
+}
@@ -0,0 +1,68 @@
+package edu.univ.software.verification.utils;
+
+/**
+ * Sizes of LTL formulas before and after simplification by
+ * {@link LtlRewriter}, for a single formula or summed over several
+ *
+ * @author arthur
+ */
+public class RewriteStatistics {
+
+    public static final RewriteStatistics EMPTY = new RewriteStatistics(0, 0, 0);
+
+    /**
+     * Number of rewritten formulas
+     */
+    private final long formulaCount;
+
+    /**
+     * Number of operators and atoms before rewriting (after normalization)
+     */
+    private final long originalSize;
+
+    /**
+     * Number of operators and atoms after rewriting
+     */
+    private final long rewrittenSize;
+
+    public RewriteStatistics(long formulaCount, long originalSize, long rewrittenSize) {
+        this.formulaCount = formulaCount;
+        this.originalSize = originalSize;
+        this.rewrittenSize = rewrittenSize;
+    }
+
+    /**
+     * @return statistics summed with the other ones
+     */
+    public RewriteStatistics plus(RewriteStatistics other) {
+        return new RewriteStatistics(formulaCount + other.formulaCount, originalSize + other.originalSize,
+                rewrittenSize + other.rewrittenSize);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    public long getFormulaCount() {
+        return formulaCount;
+    }
+
+    public long getOriginalSize() {
+        return originalSize;
+    }
+
+    public long getRewrittenSize() {
+        return rewrittenSize;
+    }
+
+    /**
+     * @return number of operators and atoms removed
+     */
+    public long getRemovedCount() {
+        return originalSize - rewrittenSize;
+    }
+    //</editor-fold>
+
+    @Override
+    public String toString() {
+        return "RewriteStatistics{" + "formulaCount=" + formulaCount + ", originalSize=" + originalSize
+                + ", rewrittenSize=" + rewrittenSize + '}';
+    }
+}
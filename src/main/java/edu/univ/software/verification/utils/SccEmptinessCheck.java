@@ -0,0 +1,315 @@
+package edu.univ.software.verification.utils;
+
+import edu.univ.software.verification.model.Automaton;
+import edu.univ.software.verification.model.AutomatonState;
+import edu.univ.software.verification.model.MullerAutomaton;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * SCC-based (Couvreur) emptiness check for generalized Buchi (Muller)
+ * automata. Works directly on final state sets without degeneralization: a
+ * strongly connected component is accepting when it intersects every final
+ * state set. Runs in time linear in the number of states and transitions and
+ * stops as soon as an accepting component is detected.
+ *
+ * Consistently with the degeneralization in {@link AutomataUtils}, an
+ * automaton without final state sets accepts nothing.
+ *
+ * @author arthur
+ * @param <T> transition symbol type
+ */
+public class SccEmptinessCheck<T> {
+
+    /**
+     * DFS number of states, whose component is already completed (and
+     * rejecting)
+     */
+    private static final int DEAD = 0;
+
+    private static class Frame {
+
+        private final String state;
+        private final Iterator<String> successors;
+
+        public Frame(String state, Iterator<String> successors) {
+            this.state = state;
+            this.successors = successors;
+        }
+    }
+
+    private static class Root {
+
+        private final int index;
+        private final BitSet acceptance;
+
+        public Root(int index, BitSet acceptance) {
+            this.index = index;
+            this.acceptance = acceptance;
+        }
+    }
+
+    private final Automaton<T> muller;
+
+    private final int finalSetCount;
+
+    private final Function<String, BitSet> marks;
+
+    /**
+     * States of rejecting components completed by any of cooperating checks,
+     * null if the check runs alone
+     */
+    private final Set<String> sharedDead;
+
+    /**
+     * Source of successor order, null for the automaton order
+     */
+    private final Random random;
+
+    /**
+     * Set when cooperating checks have already decided the result
+     */
+    private final AtomicBoolean stop;
+
+    private final Map<String, Integer> numbers;
+
+    private final Deque<Frame> dfsStack;
+
+    private final Deque<Root> roots;
+
+    /**
+     * States of not yet completed components in DFS order
+     */
+    private final Deque<String> live;
+
+    private int counter;
+
+    public SccEmptinessCheck(MullerAutomaton<T> muller) {
+        this(muller, muller.getFinalStateSetCount(), muller::getFinalStateSetIndices,
+                null, null, new AtomicBoolean(false));
+    }
+
+    /**
+     * Check cooperating with other ones on the same automaton: states of
+     * completed rejecting components are shared, as none of them lies on an
+     * accepting cycle, whatever order the component was found in
+     *
+     * @param automaton automaton to check
+     * @param finalSetCount number of final state sets
+     * @param marks indices of final state sets containing the state
+     * @param sharedDead concurrent set of states known to be rejecting, null
+     * if the check runs alone
+     * @param random source of successor order, null for the automaton order
+     * @param stop flag aborting the search (with empty result)
+     */
+    SccEmptinessCheck(Automaton<T> automaton, int finalSetCount, Function<String, BitSet> marks,
+            Set<String> sharedDead, Random random, AtomicBoolean stop) {
+        this.muller = automaton;
+        this.finalSetCount = finalSetCount;
+        this.marks = marks;
+        this.sharedDead = sharedDead;
+        this.random = random;
+        this.stop = stop;
+
+        numbers = new HashMap<>();
+        dfsStack = new ArrayDeque<>();
+        roots = new ArrayDeque<>();
+        live = new ArrayDeque<>();
+        counter = DEAD;
+    }
+
+    /**
+     * Searches for a run visiting every final state set infinitely often
+     *
+     * @return first accepting lasso found, empty if language is empty
+     */
+    public Optional<Lasso<T>> search() {
+        if (finalSetCount == 0) {
+            return Optional.empty();
+        }
+
+        for (AutomatonState initial : muller.getInitialStates()) {
+            if (!numbers.containsKey(initial.getLabel()) && !isSharedDead(initial.getLabel())) {
+                Optional<Lasso<T>> lasso = sccSearch(initial.getLabel());
+
+                if (lasso.isPresent()) {
+                    return lasso;
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<Lasso<T>> sccSearch(String initial) {
+        enter(initial);
+
+        while (!dfsStack.isEmpty()) {
+            if (stop.get()) {
+                return Optional.empty();
+            }
+
+            Frame current = dfsStack.peek();
+
+            if (current.successors.hasNext()) {
+                String next = current.successors.next();
+                Integer number = numbers.get(next);
+
+                if (number == null) {
+                    if (!isSharedDead(next)) {
+                        enter(next);
+                    }
+                } else if (number != DEAD) {
+                    // merge all components on the cycle closed by this edge
+                    BitSet acceptance = new BitSet(finalSetCount);
+
+                    while (roots.peek().index > number) {
+                        acceptance.or(roots.pop().acceptance);
+                    }
+
+                    roots.peek().acceptance.or(acceptance);
+
+                    if (roots.peek().acceptance.cardinality() == finalSetCount) {
+                        return Optional.of(buildLasso(roots.peek().index));
+                    }
+                }
+            } else {
+                dfsStack.pop();
+
+                if (roots.peek().index == numbers.get(current.state)) {
+                    // component is completed and rejecting
+                    roots.pop();
+
+                    String state;
+
+                    do {
+                        state = live.pop();
+                        numbers.put(state, DEAD);
+
+                        if (sharedDead != null) {
+                            sharedDead.add(state);
+                        }
+                    } while (!state.equals(current.state));
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private void enter(String state) {
+        numbers.put(state, ++counter);
+        roots.push(new Root(counter, marksOf(state)));
+        live.push(state);
+        dfsStack.push(new Frame(state, successors(state)));
+    }
+
+    /**
+     * Lasso prefix is the DFS path to the component root, the cycle visits
+     * every final state set without leaving the component
+     */
+    private Lasso<T> buildLasso(int rootIndex) {
+        List<String> path = new ArrayList<>();
+        dfsStack.descendingIterator().forEachRemaining(f -> path.add(f.state));
+
+        String root = path.stream().filter(s -> numbers.get(s) == rootIndex).findFirst().get();
+        List<String> prefix = path.subList(0, path.indexOf(root) + 1);
+
+        Set<String> component = new HashSet<>();
+
+        for (String state : live) {
+            if (numbers.get(state) >= rootIndex) {
+                component.add(state);
+            }
+        }
+
+        List<String> cycle = new ArrayList<>(Collections.singletonList(root));
+        BitSet covered = marksOf(root);
+
+        for (int i = 0; i < finalSetCount; i++) {
+            final int set = i;
+
+            if (!covered.get(set)) {
+                List<String> toFinal = shortestPath(cycle.get(cycle.size() - 1), s -> marksOf(s).get(set), component);
+
+                toFinal.forEach(s -> covered.or(marksOf(s)));
+                cycle.addAll(toFinal);
+            }
+        }
+
+        cycle.addAll(shortestPath(cycle.get(cycle.size() - 1), root::equals, component));
+
+        return Lasso.of(muller, prefix, cycle);
+    }
+
+    /**
+     * Breadth-first search inside the component (at least one step is made)
+     *
+     * @return path excluding the starting state
+     */
+    private List<String> shortestPath(String from, Predicate<String> target, Set<String> component) {
+        Map<String, String> parents = new HashMap<>();
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(from);
+
+        while (!queue.isEmpty()) {
+            String current = queue.poll();
+
+            for (String next : muller.getTransitionsFrom(current).keySet()) {
+                if (component.contains(next) && !parents.containsKey(next)) {
+                    parents.put(next, current);
+
+                    if (target.test(next)) {
+                        List<String> path = new ArrayList<>(Collections.singletonList(next));
+
+                        for (String s = current; !s.equals(from); s = parents.get(s)) {
+                            path.add(s);
+                        }
+
+                        Collections.reverse(path);
+
+                        return path;
+                    }
+
+                    queue.add(next);
+                }
+            }
+        }
+
+        throw new IllegalStateException(String.format("Component of '%s' is not strongly connected", from));
+    }
+
+    private Iterator<String> successors(String state) {
+        if (random == null) {
+            return muller.getTransitionsFrom(state).keySet().iterator();
+        }
+
+        List<String> successors = new ArrayList<>(muller.getTransitionsFrom(state).keySet());
+        Collections.shuffle(successors, random);
+
+        return successors.iterator();
+    }
+
+    private boolean isSharedDead(String state) {
+        return sharedDead != null && sharedDead.contains(state);
+    }
+
+    private BitSet marksOf(String state) {
+        return marks.apply(state);
+    }
+}
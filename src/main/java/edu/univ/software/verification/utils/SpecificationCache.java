@@ -0,0 +1,259 @@
+package edu.univ.software.verification.utils;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+
+import edu.univ.software.verification.model.AutomatonState;
+import edu.univ.software.verification.model.LtlFormula;
+import edu.univ.software.verification.model.MullerAutomaton;
+import edu.univ.software.verification.model.fa.BasicMullerAutomaton;
+import edu.univ.software.verification.model.ltl.Atom;
+import edu.univ.software.verification.model.ltl.BinaryOp;
+import edu.univ.software.verification.model.ltl.Guard;
+import edu.univ.software.verification.model.ltl.PropositionDictionary;
+import edu.univ.software.verification.model.ltl.UnaryOp;
+
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded (LRU) cache of specification automata keyed by normalized negated
+ * specification, so repeated specifications skip automaton construction.
+ * Negations are simplified by {@link LtlRewriter} before translation, so
+ * specifications with the same simplified form share an entry too; sizes
+ * before and after simplification are summed over requests.
+ *
+ * With proposition renaming enabled, specifications differing only in names
+ * of atomic propositions share a single entry: the key uses canonical names
+ * (in order of the first occurrence) and cached guards are renamed back for
+ * each request.
+ *
+ * Cache may be backed by {@link AutomatonStore}, so automata built in former
+ * runs are read from disk instead of being built again.
+ *
+ * Built automata may be reduced by simulation before caching, which costs
+ * once per specification and shrinks every product with it.
+ *
+ * @author arthur
+ */
+public class SpecificationCache {
+
+    /**
+     * Prefix of canonical proposition names
+     */
+    public static final String CANONICAL_PROPOSITION_PREFIX = "_p";
+
+    /**
+     * Converter of automata reduced by simulation, see {@link AutomatonStore}
+     */
+    public static final String REDUCING_CONVERTER = AutomatonStore.TABLEAU_CONVERTER + "+simulation";
+
+    private final LoadingCache<LtlFormula, MullerAutomaton<Guard>> cache;
+
+    private final boolean isRenaming;
+
+    private final AtomicReference<RewriteStatistics> rewriteStatistics = new AtomicReference<>(RewriteStatistics.EMPTY);
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    protected SpecificationCache(CacheBuilder<Object, Object> cacheBuilder, boolean isRenaming, boolean isReducing, AutomatonStore store) {
+        this.isRenaming = isRenaming;
+
+        Function<LtlFormula, MullerAutomaton<Guard>> converter = isReducing
+                ? key -> AutomataUtils.INSTANCE.reduce(LtlUtils.INSTANCE.convertToGuardedAutomata(key))
+                : LtlUtils.INSTANCE::convertToGuardedAutomata;
+
+        cache = cacheBuilder.recordStats().build(new CacheLoader<LtlFormula, MullerAutomaton<Guard>>() {
+            @Override
+            public MullerAutomaton<Guard> load(LtlFormula key) {
+                if (store == null) {
+                    return converter.apply(key);
+                }
+
+                return store.load(key).orElseGet(() -> {
+                    MullerAutomaton<Guard> automaton = converter.apply(key);
+                    store.store(key, automaton);
+
+                    return automaton;
+                });
+            }
+        });
+    }
+
+    /**
+     * Gets automaton for (simplified) negation of specification (accepting
+     * its counterexamples), building it on cache miss
+     *
+     * @param specification LTL specification
+     * @return LGBA (Muller) automaton with guarded transitions
+     */
+    public MullerAutomaton<Guard> getGuardedAutomaton(LtlFormula specification) {
+        LtlFormula negation = LtlRewriter.INSTANCE.rewrite(specification.invert(),
+                sizes -> rewriteStatistics.accumulateAndGet(sizes, RewriteStatistics::plus));
+
+        if (!isRenaming) {
+            return cache.getUnchecked(negation);
+        }
+
+        Map<String, String> names = new LinkedHashMap<>();
+        LtlFormula key = rename(negation, name -> names.computeIfAbsent(name, n -> CANONICAL_PROPOSITION_PREFIX + names.size()));
+
+        Map<String, String> originals = names.entrySet().stream().collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey));
+
+        return rename(cache.getUnchecked(key), originals);
+    }
+
+    /**
+     * @return hit, miss and eviction counters
+     */
+    public CacheStats getStatistics() {
+        return cache.stats();
+    }
+
+    /**
+     * @return sizes of requested specification negations before and after
+     * simplification, summed
+     */
+    public RewriteStatistics getRewriteStatistics() {
+        return rewriteStatistics.get();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Renames propositions of formula (constants are kept)
+     */
+    private LtlFormula rename(LtlFormula formula, Function<String, String> names) {
+        if (formula instanceof Atom) {
+            Atom atom = (Atom) formula;
+
+            return atom.getType() == Atom.AtomType.VAR ? Atom.forName(names.apply(atom.getName())) : atom;
+        } else if (formula instanceof UnaryOp) {
+            UnaryOp unaryOp = (UnaryOp) formula;
+
+            return UnaryOp.build(unaryOp.getOpType(), rename(unaryOp.getOperand(), names));
+        } else {
+            BinaryOp binaryOp = (BinaryOp) formula;
+            LtlFormula left = rename(binaryOp.getOpLeft(), names);
+
+            return BinaryOp.build(binaryOp.getOpType(), left, rename(binaryOp.getOpRight(), names));
+        }
+    }
+
+    /**
+     * Renames propositions of transition guards, keeping states and final
+     * state sets
+     */
+    private MullerAutomaton<Guard> rename(MullerAutomaton<Guard> automaton, Map<String, String> names) {
+        Map<String, AutomatonState> states = new LinkedHashMap<>();
+        automaton.getStates().forEach(s -> states.put(s.getLabel(), s));
+
+        Table<String, String, Set<Guard>> transitions = HashBasedTable.create();
+        automaton.getTransitions().cellSet().forEach(c -> transitions.put(c.getRowKey(), c.getColumnKey(),
+                c.getValue().stream().map(g -> rename(g, names)).collect(Collectors.toSet())));
+
+        return new BasicMullerAutomaton<>(states, automaton.getFinalStateSets(), transitions);
+    }
+
+    private Guard rename(Guard guard, Map<String, String> names) {
+        return Guard.of(rename(guard.getPositive(), names), rename(guard.getNegative(), names));
+    }
+
+    private BitSet rename(BitSet atoms, Map<String, String> names) {
+        BitSet renamed = new BitSet();
+
+        atoms.stream().mapToObj(PropositionDictionary.INSTANCE::atomAt)
+                .map(a -> Atom.forName(names.get(a.getName())))
+                .forEach(a -> renamed.set(PropositionDictionary.INSTANCE.indexOf(a)));
+
+        return renamed;
+    }
+
+    public static class Builder {
+
+        private final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+
+        private boolean isRenaming = false;
+
+        private boolean isReducing = false;
+
+        private Path directory;
+
+        /**
+         * Limits the number of cached automata
+         */
+        public Builder withMaximumSize(long size) {
+            cacheBuilder.maximumSize(size);
+
+            return this;
+        }
+
+        /**
+         * Limits the total size (states and transitions) of cached automata
+         */
+        public Builder withMaximumWeight(long weight) {
+            cacheBuilder.maximumWeight(weight).weigher((LtlFormula key, MullerAutomaton<Guard> automaton)
+                    -> automaton.getStates().size() + automaton.getTransitions().size());
+
+            return this;
+        }
+
+        /**
+         * Makes specifications equal up to renaming of propositions share
+         * cached automaton
+         */
+        public Builder withPropositionRenaming(boolean isRenaming) {
+            this.isRenaming = isRenaming;
+
+            return this;
+        }
+
+        /**
+         * Reduces built automata by simulation (see
+         * {@link AutomataUtils#reduce(MullerAutomaton)})
+         */
+        public Builder withSimulationReduction(boolean isReducing) {
+            this.isReducing = isReducing;
+
+            return this;
+        }
+
+        /**
+         * Persists automata in the directory, loading them on cache miss
+         */
+        public Builder withDirectory(Path directory) {
+            this.directory = directory;
+
+            return this;
+        }
+
+        /**
+         * Automata of reducing and non reducing caches are stored apart, even
+         * in the same directory
+         */
+        public SpecificationCache build() {
+            AutomatonStore store = directory == null ? null
+                    : new AutomatonStore(directory, isReducing ? REDUCING_CONVERTER : AutomatonStore.TABLEAU_CONVERTER);
+
+            return new SpecificationCache(cacheBuilder, isRenaming, isReducing, store);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package edu.univ.software.verification.utils;
+
+import edu.univ.software.verification.model.Automaton;
+import edu.univ.software.verification.model.BuchiAutomaton;
+import edu.univ.software.verification.model.MullerAutomaton;
+
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Multi-core emptiness check for (generalized) Buchi automata: a swarm of
+ * SCC-based checks, each exploring successors in its own random order, one
+ * per pool thread. States of completed rejecting components are shared
+ * through a concurrent set, so workers skip the parts of the automaton
+ * already known to be rejecting and spread over the rest.
+ *
+ * Every worker is a complete check on its own, so the first one to finish
+ * decides the result (accepting lasso or empty language) and stops the
+ * others. The first worker keeps the automaton order, so with a single thread
+ * the result is the same as of {@link SccEmptinessCheck}.
+ *
+ * Automaton must allow concurrent reads (basic and compact automata and lazy
+ * products do).
+ *
+ * @author arthur
+ * @param <T> transition symbol type
+ */
+public class SwarmEmptinessCheck<T> {
+
+    private final Automaton<T> automaton;
+
+    private final int finalSetCount;
+
+    private final Function<String, BitSet> marks;
+
+    private final ForkJoinPool pool;
+
+    private final long seed;
+
+    public static <T> SwarmEmptinessCheck<T> of(MullerAutomaton<T> muller, ForkJoinPool pool) {
+        return new SwarmEmptinessCheck<>(muller, muller.getFinalStateSetCount(), muller::getFinalStateSetIndices, pool);
+    }
+
+    /**
+     * Buchi automaton is checked as generalized one with single final state
+     * set
+     */
+    public static <T> SwarmEmptinessCheck<T> of(BuchiAutomaton<T> buchi, ForkJoinPool pool) {
+        BitSet finalMarks = new BitSet();
+        finalMarks.set(0);
+
+        return new SwarmEmptinessCheck<>(buchi, 1, s -> buchi.isFinal(s) ? (BitSet) finalMarks.clone() : new BitSet(), pool);
+    }
+
+    public SwarmEmptinessCheck(Automaton<T> automaton, int finalSetCount, Function<String, BitSet> marks, ForkJoinPool pool) {
+        this.automaton = automaton;
+        this.finalSetCount = finalSetCount;
+        this.marks = marks;
+        this.pool = pool;
+
+        seed = new Random().nextLong();
+    }
+
+    /**
+     * Searches for a run visiting every final state set infinitely often
+     *
+     * @return first accepting lasso found by any worker, empty if language is
+     * empty
+     */
+    public Optional<Lasso<T>> search() {
+        Set<String> sharedDead = ConcurrentHashMap.newKeySet();
+        AtomicBoolean stop = new AtomicBoolean(false);
+        CompletableFuture<Optional<Lasso<T>>> result = new CompletableFuture<>();
+
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            Random random = i == 0 ? null : new Random(seed + i);
+
+            pool.execute(() -> {
+                try {
+                    Optional<Lasso<T>> lasso = new SccEmptinessCheck<>(automaton, finalSetCount, marks,
+                            sharedDead, random, stop).search();
+
+                    // stopped workers return empty result, which is ignored
+                    // as the result is already complete
+                    if (result.complete(lasso)) {
+                        stop.set(true);
+                    }
+                } catch (RuntimeException | Error e) {
+                    if (result.completeExceptionally(e)) {
+                        stop.set(true);
+                    }
+                }
+            });
+        }
+
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+}
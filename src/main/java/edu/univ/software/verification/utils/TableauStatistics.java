@@ -0,0 +1,60 @@
+package edu.univ.software.verification.utils;
+
+/**
+ * Counters collected while building the tableau (node graph) of LTL formula
+ *
+ * @author arthur
+ */
+public class TableauStatistics {
+
+    /**
+     * Number of nodes in the resulting graph
+     */
+    private final int nodeCount;
+
+    /**
+     * Number of node identifiers issued (including dropped and merged nodes)
+     */
+    private final int createdCount;
+
+    /**
+     * Number of node splits on U, R and OR formulas
+     */
+    private final int splitCount;
+
+    /**
+     * Number of expanded nodes merged into an equivalent existing one
+     */
+    private final int mergeCount;
+
+    public TableauStatistics(int nodeCount, int createdCount, int splitCount, int mergeCount) {
+        this.nodeCount = nodeCount;
+        this.createdCount = createdCount;
+        this.splitCount = splitCount;
+        this.mergeCount = mergeCount;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    public int getSplitCount() {
+        return splitCount;
+    }
+
+    public int getMergeCount() {
+        return mergeCount;
+    }
+    //</editor-fold>
+
+    @Override
+    public String toString() {
+        return "TableauStatistics{" + "nodeCount=" + nodeCount + ", createdCount=" + createdCount
+                + ", splitCount=" + splitCount + ", mergeCount=" + mergeCount + '}';
+    }
+}
@@ -0,0 +1,145 @@
+package edu.univ.software.verification.manager;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.univ.software.verification.model.BuchiAutomaton;
+import edu.univ.software.verification.model.KripkeStructure;
+import edu.univ.software.verification.model.LtlFormula;
+import edu.univ.software.verification.model.kripke.BasicStructure;
+import edu.univ.software.verification.model.ltl.Atom;
+import edu.univ.software.verification.utils.AutomataUtils;
+import edu.univ.software.verification.utils.LtlParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author arthur
+ */
+public class ApplicationRunnerTest {
+
+    @Test
+    public void testBatchMatchesSingleVerification() {
+        KripkeStructure kripke = BasicStructure.builder()
+                .withState("s0", ImmutableList.of(Atom.forName("p")), true)
+                .withState("s1", ImmutableList.of(Atom.forName("q")), false)
+                .withState("s2", ImmutableList.of(Atom.forName("p"), Atom.forName("q")), false)
+                .withTransition("s0", "s1")
+                .withTransition("s1", "s2")
+                .withTransition("s2", "s0")
+                .withTransition("s2", "s2")
+                .build();
+        List<LtlFormula> formulas = ImmutableList.of("G F q", "G p", "G (p -> F q)", "F G q", "(p U q)").stream()
+                .map(LtlParser::parseString).collect(Collectors.toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<VerificationResult> results;
+
+        try {
+            results = ApplicationRunner.verify(kripke, formulas, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(formulas.size(), results.size());
+
+        for (int i = 0; i < formulas.size(); i++) {
+            Assert.assertEquals(formulas.get(i), results.get(i).getSpecification());
+            Assert.assertEquals(ApplicationRunner.verify(kripke, formulas.get(i)).isConfirmed(), results.get(i).isConfirmed());
+        }
+
+        Assert.assertSame(results.get(0).getBuchiAutomatonForSystem(), results.get(1).getBuchiAutomatonForSystem());
+        Assert.assertNotNull(results.get(0).getGuardedAutomatonForSpecification());
+        Assert.assertFalse(results.get(0).findMullerAutomatonForSpecification().isPresent());
+        Assert.assertFalse(results.get(0).findBuchiAutomatonForSpecification().isPresent());
+
+        // automata skipped by verification are built on request
+        BuchiAutomaton<Set<Atom>> product = results.get(1).getProductResult();
+
+        Assert.assertSame(product, results.get(1).getProductResult());
+        Assert.assertEquals(results.get(1).isConfirmed(), !AutomataUtils.INSTANCE.findAcceptingLasso(product).isPresent());
+        Assert.assertEquals(ImmutableList.of(true, false, true, false, true),
+                results.stream().map(VerificationResult::isConfirmed).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testBatchOfDistinguishableStatesMatchesSingleVerification() {
+        int[][] edges = {{0, 6}, {1, 2}, {1, 5}, {2, 6}, {3, 0}, {3, 3}, {3, 5}, {3, 6}, {4, 0}, {4, 1}, {4, 6},
+            {5, 0}, {5, 1}, {5, 2}, {6, 0}, {6, 1}, {6, 2}, {6, 3}};
+        String[] atoms = {"q", "pq", "", "", "p", "q", "q"};
+
+        assertBatchMatchesSingle(structure(atoms, edges), formulas("G F q", "F G q", "G (p -> F q)", "G q"));
+    }
+
+    @Test
+    public void testRandomBatchesMatchSingleVerification() {
+        Random random = new Random(17);
+        List<LtlFormula> formulas = formulas("G F q", "F G q", "G (p -> F q)", "G (q -> X p)", "F (p && q)", "(q U p)");
+
+        for (int round = 0; round < 200; round++) {
+            int n = 2 + random.nextInt(6);
+            String[] atoms = new String[n];
+            List<int[]> edges = new ArrayList<>();
+
+            for (int i = 0; i < n; i++) {
+                atoms[i] = (random.nextBoolean() ? "p" : "") + (random.nextBoolean() ? "q" : "");
+                edges.add(new int[]{i, random.nextInt(n)});
+
+                for (int j = 0; j < n; j++) {
+                    if (random.nextInt(3) == 0) {
+                        edges.add(new int[]{i, j});
+                    }
+                }
+            }
+
+            assertBatchMatchesSingle(structure(atoms, edges.toArray(new int[0][])), formulas);
+        }
+    }
+
+    /**
+     * Structure with states s0..sn labelled by atom letters, s0 initial
+     */
+    private static KripkeStructure structure(String[] atoms, int[][] edges) {
+        KripkeStructure.Builder builder = BasicStructure.builder();
+
+        for (int i = 0; i < atoms.length; i++) {
+            builder.withState("s" + i, atoms[i].chars().mapToObj(c -> Atom.forName(String.valueOf((char) c)))
+                    .collect(Collectors.toList()), i == 0);
+        }
+
+        for (int[] edge : edges) {
+            builder.withTransition("s" + edge[0], "s" + edge[1]);
+        }
+
+        return builder.build();
+    }
+
+    private static List<LtlFormula> formulas(String... formulas) {
+        return ImmutableList.copyOf(formulas).stream().map(LtlParser::parseString).collect(Collectors.toList());
+    }
+
+    private static void assertBatchMatchesSingle(KripkeStructure kripke, List<LtlFormula> formulas) {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<VerificationResult> results;
+
+        try {
+            results = ApplicationRunner.verify(kripke, formulas, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < formulas.size(); i++) {
+            Assert.assertEquals(formulas.get(i).toString(), ApplicationRunner.verify(kripke, formulas.get(i)).isConfirmed(),
+                    results.get(i).isConfirmed());
+        }
+    }
+}
@@ -2,14 +2,21 @@ package edu.univ.software.verification.model.fa;
 
 import com.google.common.collect.Sets;
 
+import edu.univ.software.verification.model.Automaton;
 import edu.univ.software.verification.model.AutomatonState;
 import edu.univ.software.verification.model.BuchiAutomaton;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 
 public class BasicBuchiAutomatonTest {
@@ -55,4 +62,187 @@ public class BasicBuchiAutomatonTest {
         Assert.assertEquals(allStates, automata.getStates());
     }
 
-}
\ No newline at end of file
+    private BuchiAutomaton<String> createCycles(int length, Automaton.Reduction reduction) {
+        BuchiAutomaton.Builder<String> builder = BasicBuchiAutomaton.<String>builder()
+                .withReduction(reduction)
+                .withState("0", true);
+
+        // two equal cycles, identical rows are never present
+        for (int i = 0; i < 2 * length; i++) {
+            builder.withState("s" + i);
+        }
+
+        for (int i = 0; i < 2 * length; i++) {
+            int next = i % length == length - 1 ? i - length + 1 : i + 1;
+            builder.withTransition("s" + i, "s" + next, i % length == 0 ? "b" : "a");
+        }
+
+        return builder
+                .withTransition("0", "s0", "a")
+                .withTransition("0", "s" + length, "b")
+                .withFinalStates("s0", "s" + length)
+                .build();
+    }
+
+    @Test
+    public void testBisimilarCyclesAreJoined() {
+        int length = 2000;
+        BuchiAutomaton<String> automaton = createCycles(length, Automaton.Reduction.BISIMULATION);
+
+        Assert.assertEquals(length + 1, automaton.getStates().size());
+        Assert.assertEquals(Sets.newHashSet("s0"), automaton.getFinalStates());
+        Assert.assertEquals(Sets.newHashSet("a", "b"), automaton.getTransitionSymbols("0", "s0"));
+        Assert.assertEquals(Sets.newHashSet("a"), automaton.getTransitionSymbols("s" + (length - 1), "s0"));
+    }
+
+    @Test
+    public void testReductionStrategies() {
+        Assert.assertEquals(21, createCycles(10, Automaton.Reduction.NONE).getStates().size());
+        Assert.assertEquals(21, createCycles(10, Automaton.Reduction.SAME_SUCCESSORS).getStates().size());
+        Assert.assertEquals(11, createCycles(10, Automaton.Reduction.DIRECT_SIMULATION).getStates().size());
+        Assert.assertEquals(createBuchiAutomation(), BasicBuchiAutomaton.<String>builder()
+                .withStates(createBuchiAutomation().getStates())
+                .withTransitions(createBuchiAutomation().getTransitions())
+                .withFinalStates(createBuchiAutomation().getFinalStates())
+                .withReduction(Automaton.Reduction.SAME_SUCCESSORS)
+                .build());
+    }
+
+    private BuchiAutomaton<String> createSimilarBranches(Automaton.Reduction reduction) {
+        // q1 and q2 simulate each other, but r1 and r3 are not bisimilar
+        return BasicBuchiAutomaton.<String>builder()
+                .withReduction(reduction)
+                .withState("0", true)
+                .withStates("q1", "q2", "r1", "r2", "r3")
+                .withTransition("0", "q1", "a")
+                .withTransition("0", "q2", "b")
+                .withTransition("q1", "r1", "a")
+                .withTransition("q2", "r2", "a")
+                .withTransition("q2", "r3", "a")
+                .withTransition("r1", "r1", "b")
+                .withTransition("r2", "r2", "b")
+                .withFinalStates("r1", "r2", "r3")
+                .build();
+    }
+
+    @Test
+    public void testSimulationEquivalentStatesAreJoined() {
+        BuchiAutomaton<String> bisimulation = createSimilarBranches(Automaton.Reduction.BISIMULATION);
+        BuchiAutomaton<String> simulation = createSimilarBranches(Automaton.Reduction.DIRECT_SIMULATION);
+
+        Assert.assertEquals(Sets.newHashSet("0", "q1", "q2", "r1", "r3"), labels(bisimulation));
+        Assert.assertEquals(Sets.newHashSet("0", "q1", "r1", "r3"), labels(simulation));
+        Assert.assertEquals(Sets.newHashSet("a", "b"), simulation.getTransitionSymbols("0", "q1"));
+        Assert.assertEquals(Sets.newHashSet("r1", "r3"), simulation.getFinalStates());
+    }
+
+    private Set<String> labels(BuchiAutomaton<String> automaton) {
+        return automaton.getStates().stream().map(AutomatonState::getLabel).collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testBisimulationKeepsDistinguishableStates() {
+        // s5 and s4 were joined, losing s5 -> s3
+        BuchiAutomaton<String> automaton = BasicBuchiAutomaton.<String>builder()
+                .withReduction(Automaton.Reduction.BISIMULATION)
+                .withStates("s0", "s1", "s2", "s3", "s4", "s5")
+                .withTransition("s0", "s2", "c")
+                .withTransition("s0", "s5", Sets.newHashSet("a", "b"))
+                .withTransition("s1", "s5", Sets.newHashSet("a", "c"))
+                .withTransition("s2", "s2", "a")
+                .withTransition("s2", "s3", Sets.newHashSet("a", "b", "c"))
+                .withTransition("s2", "s4", Sets.newHashSet("a", "c"))
+                .withTransition("s3", "s0", "b")
+                .withTransition("s3", "s1", "a")
+                .withTransition("s3", "s3", Sets.newHashSet("a", "c"))
+                .withTransition("s3", "s5", "b")
+                .withTransition("s4", "s1", "b")
+                .withTransition("s5", "s3", "b")
+                .build();
+
+        Assert.assertEquals(Sets.newHashSet("s0", "s1", "s2", "s3", "s4", "s5"), labels(automaton));
+        Assert.assertEquals(Sets.newHashSet("b"), automaton.getTransitionSymbols("s5", "s3"));
+    }
+
+    @Test
+    public void testBisimulationMatchesNaiveRefinement() {
+        Random random = new Random(7);
+        List<String> symbols = Arrays.asList("a", "b", "c");
+
+        for (int round = 0; round < 20000; round++) {
+            int n = 2 + random.nextInt(6);
+            boolean[] initial = new boolean[n];
+            boolean[] accepting = new boolean[n];
+            Map<Integer, Map<Integer, Set<String>>> rows = new HashMap<>();
+            BuchiAutomaton.Builder<String> builder = BasicBuchiAutomaton.<String>builder()
+                    .withReduction(Automaton.Reduction.BISIMULATION);
+
+            for (int i = 0; i < n; i++) {
+                initial[i] = random.nextInt(4) == 0;
+                accepting[i] = random.nextInt(3) == 0;
+                builder.withState("s" + i, initial[i]);
+
+                if (accepting[i]) {
+                    builder.withFinalState("s" + i);
+                }
+            }
+
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    Set<String> label = symbols.stream().filter(x -> random.nextInt(3) == 0).collect(Collectors.toSet());
+
+                    if (!label.isEmpty() && random.nextBoolean()) {
+                        rows.computeIfAbsent(i, k -> new HashMap<>()).put(j, label);
+                        builder.withTransition("s" + i, "s" + j, label);
+                    }
+                }
+            }
+
+            Assert.assertEquals("round " + round, naiveRepresentatives(n, initial, accepting, rows), labels(builder.build()));
+        }
+    }
+
+    /**
+     * Labels of the first state of each bisimulation class, refining by
+     * signatures of all states until the number of classes is stable
+     */
+    private Set<String> naiveRepresentatives(int n, boolean[] initial, boolean[] accepting, Map<Integer, Map<Integer, Set<String>>> rows) {
+        int[] classOf = new int[n];
+        int classCount = -1;
+
+        for (int i = 0; i < n; i++) {
+            classOf[i] = (initial[i] ? 2 : 0) + (accepting[i] ? 1 : 0);
+        }
+
+        while (true) {
+            Map<List<Object>, Integer> classes = new HashMap<>();
+            int[] next = new int[n];
+
+            for (int i = 0; i < n; i++) {
+                Map<Integer, Set<String>> signature = new HashMap<>();
+
+                rows.getOrDefault(i, new HashMap<>()).forEach((to, label) -> signature.computeIfAbsent(classOf[to], k -> new HashSet<>()).addAll(label));
+                next[i] = classes.computeIfAbsent(Arrays.asList(classOf[i], signature), k -> classes.size());
+            }
+
+            System.arraycopy(next, 0, classOf, 0, n);
+
+            if (classes.size() == classCount) {
+                break;
+            }
+
+            classCount = classes.size();
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        Set<String> representatives = new HashSet<>();
+
+        for (int i = 0; i < n; i++) {
+            if (seen.add(classOf[i])) {
+                representatives.add("s" + i);
+            }
+        }
+
+        return representatives;
+    }
+}
@@ -0,0 +1,60 @@
+package edu.univ.software.verification.model.fa;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+import edu.univ.software.verification.model.BuchiAutomaton;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactBuchiAutomatonTest {
+
+    private BuchiAutomaton<String> createBuchiAutomation() {
+        return BasicBuchiAutomaton.<String>builder()
+                .withState("1", true)
+                .withStates("2", "3")
+                .withTransition("1", "2", Sets.newHashSet("a", "b"))
+                .withTransition("2", "2", "a")
+                .withTransition("2", "3", "b")
+                .withTransition("3", "1", "c")
+                .withFinalState("3")
+                .build();
+    }
+
+    @Test
+    public void testIndexedAccess() {
+        CompactBuchiAutomaton<String> compact = CompactBuchiAutomaton.of(createBuchiAutomation());
+        int state = compact.indexOf("2");
+
+        Assert.assertEquals(3, compact.getStateCount());
+        Assert.assertEquals(4, compact.getEdgeCount());
+        Assert.assertEquals(-1, compact.indexOf("4"));
+        Assert.assertEquals("2", compact.labelOf(state));
+        Assert.assertArrayEquals(new int[]{compact.indexOf("1")}, compact.getInitialIndices());
+        Assert.assertTrue(compact.isFinal(compact.indexOf("3")));
+        Assert.assertEquals(2, compact.edgesTo(state) - compact.edgesFrom(state));
+
+        for (int edge = compact.edgesFrom(state); edge < compact.edgesTo(state); edge++) {
+            String target = compact.labelOf(compact.getTarget(edge));
+
+            Assert.assertEquals(ImmutableSet.of(target.equals("2") ? "a" : "b"), compact.getSymbols(edge));
+        }
+    }
+
+    @Test
+    public void testConversion() {
+        BuchiAutomaton<String> buchi = createBuchiAutomation();
+        CompactBuchiAutomaton<String> compact = CompactBuchiAutomaton.of(buchi);
+
+        Assert.assertSame(compact, CompactBuchiAutomaton.of(compact));
+        Assert.assertEquals(buchi.getStates(), compact.getStates());
+        Assert.assertEquals(buchi.getInitialStates(), compact.getInitialStates());
+        Assert.assertEquals(buchi.getFinalStates(), compact.getFinalStates());
+        Assert.assertEquals(buchi.getTransitions(), compact.getTransitions());
+        Assert.assertEquals(buchi.getTransitionsTo("2"), compact.getTransitionsTo("2"));
+        Assert.assertEquals(ImmutableSet.of("a", "b"), compact.getTransitionSymbols("1", "2"));
+        Assert.assertNull(compact.getTransitionSymbols("1", "3"));
+        Assert.assertEquals(buchi, compact.toBasic());
+    }
+}
@@ -0,0 +1,135 @@
+package edu.univ.software.verification.model.kripke;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import edu.univ.software.verification.model.KripkeState;
+import edu.univ.software.verification.model.KripkeStructure;
+import edu.univ.software.verification.model.ltl.Atom;
+
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author arthur
+ */
+public class CompactStructureTest {
+
+    private KripkeStructure create(KripkeStructure.Builder builder) {
+        for (int i = 0; i < 50; i++) {
+            builder.withState("s" + i, i % 2 == 0 ? ImmutableList.of(Atom.forName("p")) : ImmutableList.of(Atom.forName("q"), Atom.forName("p")), i < 2);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            builder.withTransition("s" + i, "s" + i * 3 % 50).withTransition("s" + i, "s" + (i + 1) % 50)
+                    .withTransition("s" + i, "s" + i * 3 % 50);
+        }
+
+        return builder.build();
+    }
+
+    @Test
+    public void testCompactStructureMatchesBasic() {
+        KripkeStructure basic = create(BasicStructure.builder());
+        CompactStructure compact = (CompactStructure) create(CompactStructure.builder());
+
+        Assert.assertEquals(basic.getStates().size(), compact.getStates().size());
+        Assert.assertNull(compact.getState("s50"));
+        Assert.assertEquals(-1, compact.indexOf("s50"));
+
+        for (KripkeState state : basic.getStates()) {
+            KripkeState compactState = compact.getState(state.getLabel());
+
+            Assert.assertEquals(state.getLabel(), compactState.getLabel());
+            Assert.assertEquals(state.isInitial(), compactState.isInitial());
+            Assert.assertEquals(state.getAtoms(), compactState.getAtoms());
+            Assert.assertTrue(compact.getStates().contains(compactState));
+
+            for (KripkeState to : basic.getStates()) {
+                Assert.assertEquals(basic.hasTransition(state.getLabel(), to.getLabel()),
+                        compact.hasTransition(state.getLabel(), to.getLabel()));
+            }
+        }
+    }
+
+    @Test
+    public void testStorageIsShared() {
+        CompactStructure compact = (CompactStructure) create(CompactStructure.builder());
+
+        // repetitive transitions are dropped
+        Assert.assertEquals(100, compact.getTransitionCount());
+        Assert.assertEquals(2, compact.getAtomSets().size());
+        Assert.assertSame(compact.atomsOf(0), compact.atomsOf(2));
+        Assert.assertSame(compact.getStates(), compact.getStates());
+        Assert.assertEquals(ImmutableSet.of(Atom.forName("p"), Atom.forName("q")), compact.atomsOf(compact.indexOf("s1")));
+
+        int state = compact.indexOf("s7");
+
+        for (int i = compact.successorsFrom(state) + 1; i < compact.successorsTo(state); i++) {
+            Assert.assertTrue(compact.getTarget(i - 1) < compact.getTarget(i));
+        }
+    }
+
+    @Test
+    public void testPredecessorsMatchSuccessors() {
+        KripkeStructure basic = create(BasicStructure.builder());
+
+        // structure with default index based access only
+        KripkeStructure minimal = new KripkeStructure() {
+            @Override
+            public KripkeState getState(String label) {
+                return basic.getState(label);
+            }
+
+            @Override
+            public Set<KripkeState> getStates() {
+                return basic.getStates();
+            }
+
+            @Override
+            public boolean hasTransition(String from, String to) {
+                return basic.hasTransition(from, to);
+            }
+        };
+
+        for (KripkeStructure structure : ImmutableList.of(basic, create(CompactStructure.builder()), minimal)) {
+            int transitions = 0;
+
+            for (int state = 0; state < structure.getStateCount(); state++) {
+                String label = structure.labelOf(state);
+
+                Assert.assertEquals(state, structure.indexOf(label));
+                Assert.assertEquals(structure.successors(label).size(), structure.successorCount(state));
+
+                for (int i = 0; i < structure.predecessorCount(state); i++) {
+                    int from = structure.predecessor(state, i);
+
+                    Assert.assertTrue(structure.hasTransition(from, state));
+                    Assert.assertTrue(structure.successors(structure.labelOf(from)).contains(label));
+                    Assert.assertTrue(structure.predecessors(label).contains(structure.labelOf(from)));
+                }
+
+                transitions += structure.predecessorCount(state);
+            }
+
+            Assert.assertEquals(100, transitions);
+            Assert.assertEquals(ImmutableSet.of("s0", "s17"), structure.predecessors("s1"));
+            Assert.assertTrue(structure.predecessors("s50").isEmpty());
+        }
+    }
+
+    @Test
+    public void testDanglingTransitionsAreLeftOutOfIndex() {
+        BasicStructure structure = new BasicStructure(
+                ImmutableMap.of("a", new BasicState("a", ImmutableList.of(), true), "b", new BasicState("b", ImmutableList.of(), false)),
+                ImmutableMap.of("a", ImmutableSet.of("b", "x"), "y", ImmutableSet.of("a")));
+
+        Assert.assertEquals(ImmutableSet.of("a"), structure.predecessors("b"));
+        Assert.assertTrue(structure.predecessors("a").isEmpty());
+        Assert.assertEquals(1, structure.successorCount(structure.indexOf("a")));
+    }
+}
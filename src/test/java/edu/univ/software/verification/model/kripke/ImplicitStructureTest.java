@@ -0,0 +1,92 @@
+package edu.univ.software.verification.model.kripke;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import edu.univ.software.verification.manager.ApplicationRunner;
+import edu.univ.software.verification.manager.VerificationResult;
+import edu.univ.software.verification.model.KripkeState;
+import edu.univ.software.verification.model.KripkeStructure;
+import edu.univ.software.verification.model.LtlFormula;
+import edu.univ.software.verification.model.ltl.Atom;
+import edu.univ.software.verification.utils.LtlParser;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author arthur
+ */
+public class ImplicitStructureTest {
+
+    private ImplicitStructure<Integer> counter(int bound) {
+        return ImplicitStructure.of(ImmutableList.of(0), n -> ImmutableList.of((n + 1) % bound, 0),
+                n -> n == 5 ? ImmutableList.of(Atom.forName("q")) : ImmutableList.of(Atom.forName("p")));
+    }
+
+    @Test
+    public void testImplicitStructureMatchesBasic() {
+        ImplicitStructure<Integer> implicit = counter(10);
+        KripkeStructure.Builder builder = BasicStructure.builder();
+
+        for (int n = 0; n < 10; n++) {
+            builder.withState(String.valueOf(n), n == 5 ? ImmutableList.of(Atom.forName("q")) : ImmutableList.of(Atom.forName("p")), n == 0);
+        }
+
+        for (int n = 0; n < 10; n++) {
+            builder.withTransition(String.valueOf(n), String.valueOf((n + 1) % 10)).withTransition(String.valueOf(n), "0");
+        }
+
+        KripkeStructure basic = builder.build();
+
+        Assert.assertEquals(ImmutableSet.of("0"), implicit.getInitialStates().stream().map(KripkeState::getLabel).collect(Collectors.toSet()));
+        Assert.assertEquals(1, implicit.getDiscoveredCount());
+        Assert.assertEquals(ImmutableSet.of("0", "1"), implicit.successors("0"));
+        Assert.assertNull(implicit.getState("5"));
+
+        Assert.assertEquals(basic.getStates().size(), implicit.getStates().size());
+        Assert.assertEquals(10, implicit.getDiscoveredCount());
+
+        for (KripkeState state : basic.getStates()) {
+            KripkeState implicitState = implicit.getState(state.getLabel());
+
+            Assert.assertEquals(state.isInitial(), implicitState.isInitial());
+            Assert.assertEquals(state.getAtoms(), implicitState.getAtoms());
+            Assert.assertEquals(basic.successors(state.getLabel()), implicit.successors(state.getLabel()));
+            Assert.assertEquals(basic.predecessors(state.getLabel()), implicit.predecessors(state.getLabel()));
+        }
+    }
+
+    @Test
+    public void testVerificationExpandsOnlyVisitedStates() {
+        ImplicitStructure<Integer> implicit = counter(1_000_000);
+
+        Assert.assertFalse(ApplicationRunner.verify(implicit, LtlParser.parseString("F q")).isConfirmed());
+        Assert.assertTrue(implicit.getDiscoveredCount() < 100);
+    }
+
+    @Test
+    public void testConcurrentVerification() {
+        List<LtlFormula> formulas = ImmutableList.of("F q", "G F p", "G (q -> X p)", "G p", "X X p").stream()
+                .map(LtlParser::parseString).collect(Collectors.toList());
+        List<VerificationResult> results = ApplicationRunner.verify(counter(2_000), formulas);
+
+        for (int i = 0; i < formulas.size(); i++) {
+            Assert.assertEquals(ApplicationRunner.verify(counter(2_000), formulas.get(i)).isConfirmed(), results.get(i).isConfirmed());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateLabelsAreRejected() {
+        ImplicitStructure<Integer> implicit = new ImplicitStructure<>(ImmutableList.of(0), n -> ImmutableList.of(n + 1),
+                n -> ImmutableList.of(), n -> String.valueOf(n % 3));
+
+        implicit.successors("0").size();
+        implicit.successors("1").size();
+        implicit.successors("2").size();
+    }
+}
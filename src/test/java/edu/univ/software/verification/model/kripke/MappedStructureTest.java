@@ -0,0 +1,71 @@
+package edu.univ.software.verification.model.kripke;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.univ.software.verification.model.KripkeState;
+import edu.univ.software.verification.model.KripkeStructure;
+import edu.univ.software.verification.model.ltl.Atom;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * @author arthur
+ */
+public class MappedStructureTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWrittenStructureIsMapped() throws IOException {
+        BasicStructure.BasicBuilder builder = (BasicStructure.BasicBuilder) BasicStructure.builder();
+
+        for (int i = 0; i < 100; i++) {
+            builder.withState("s" + i, i % 3 == 0 ? ImmutableList.of(Atom.forName("p")) : ImmutableList.of(Atom.forName("q"), Atom.forName("r")), i == 0);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            builder.withTransition("s" + i, "s" + (i + 1) % 100).withTransition("s" + i, "s" + i * 7 % 100);
+        }
+
+        BasicStructure structure = builder.build();
+        Path file = folder.getRoot().toPath().resolve("structure.krpk");
+        MappedStructure.write(structure, file);
+        KripkeStructure mapped = MappedStructure.open(file);
+
+        Assert.assertEquals(100, mapped.getStates().size());
+        Assert.assertNull(mapped.getState("s100"));
+
+        for (KripkeState state : structure.getStates()) {
+            KripkeState mappedState = mapped.getState(state.getLabel());
+
+            Assert.assertEquals(state.getLabel(), mappedState.getLabel());
+            Assert.assertEquals(state.isInitial(), mappedState.isInitial());
+            Assert.assertEquals(state.getAtoms(), mappedState.getAtoms());
+
+            for (KripkeState to : structure.getStates()) {
+                Assert.assertEquals(structure.hasTransition(state.getLabel(), to.getLabel()),
+                        mapped.hasTransition(state.getLabel(), to.getLabel()));
+            }
+        }
+
+        Assert.assertTrue(mapped.getState("s0").getAtoms().contains(Atom.forName("p")));
+        Assert.assertEquals("s0", mapped.getStates().stream().filter(KripkeState::isInitial).findFirst().get().getLabel());
+    }
+
+    @Test(expected = IOException.class)
+    public void testOtherFilesAreRejected() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("structure.json");
+        Files.write(file, "{\"states\": [], \"transitions\": []}".getBytes());
+
+        MappedStructure.open(file);
+    }
+}
@@ -0,0 +1,36 @@
+package edu.univ.software.verification.model.ltl;
+
+import edu.univ.software.verification.model.LtlFormula;
+import edu.univ.software.verification.utils.LtlParser;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+public class FormulaFactoryTest {
+
+    @Test
+    public void testHashConsing() throws Exception {
+        LtlFormula first = LtlParser.parseString("G (p -> X F q)");
+        LtlFormula second = LtlParser.parseString("G (p -> X F q)");
+
+        assertSame(first, second);
+        assertSame(Atom.forName("P"), Atom.forName("p"));
+        assertSame(UnaryOp.build(UnaryOp.OpType.X, Atom.forName("p")), UnaryOp.build(UnaryOp.OpType.X, new Atom("p")));
+        assertSame(first.invert().invert(), first.invert().invert());
+    }
+
+    @Test
+    public void testIds() throws Exception {
+        LtlFormula formula = BinaryOp.build(BinaryOp.OpType.U, Atom.forName("a"), Atom._1);
+
+        assertEquals(Atom.forName("a").getId(), new Atom("a").getId());
+        assertEquals(new Atom("a"), Atom.forName("a"));
+        assertNotEquals(Atom.forName("a").getId(), Atom.forName("b").getId());
+        assertNotEquals(Atom._0.getId(), Atom._1.getId());
+        assertTrue(formula.getId() >= 0 && formula.getId() < FormulaFactory.INSTANCE.getIdCount());
+    }
+}
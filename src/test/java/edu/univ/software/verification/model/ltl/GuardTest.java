@@ -0,0 +1,47 @@
+package edu.univ.software.verification.model.ltl;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class GuardTest {
+
+    private final Atom a = Atom.forName("a");
+    private final Atom b = Atom.forName("b");
+    private final Atom c = Atom.forName("c");
+
+    @Test
+    public void testMatches() throws Exception {
+        Guard guard = Guard.of(ImmutableSet.of(a), ImmutableSet.of(b));
+
+        assertTrue(guard.matches(Valuation.of(a)));
+        assertTrue(guard.matches(Sets.newHashSet(a, c)));
+        assertFalse(guard.matches(Valuation.of(a, b)));
+        assertFalse(guard.matches(Collections.<Atom>emptySet()));
+        assertTrue(Guard.TRUE.matches(Valuation.of(a, b, c)));
+    }
+
+    @Test
+    public void testConjunction() throws Exception {
+        Guard positive = Guard.of(ImmutableSet.of(a), Collections.<Atom>emptySet());
+        Guard negative = Guard.of(Collections.<Atom>emptySet(), ImmutableSet.of(b));
+
+        assertEquals(Guard.of(ImmutableSet.of(a), ImmutableSet.of(b)), positive.and(negative));
+        assertEquals(positive, Guard.TRUE.and(positive));
+        assertTrue(positive.and(negative).isSatisfiable());
+        assertFalse(positive.and(Guard.of(Collections.<Atom>emptySet(), ImmutableSet.of(a))).isSatisfiable());
+    }
+
+    @Test
+    public void testToString() throws Exception {
+        assertEquals("1", Guard.TRUE.toString());
+        assertEquals("a & !b", Guard.of(ImmutableSet.of(a), ImmutableSet.of(b)).toString());
+    }
+}
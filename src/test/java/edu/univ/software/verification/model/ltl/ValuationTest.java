@@ -0,0 +1,54 @@
+package edu.univ.software.verification.model.ltl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+public class ValuationTest {
+
+    @Test
+    public void testSetContract() throws Exception {
+        Set<Atom> atoms = Sets.newHashSet(Atom.forName("a"), Atom.forName("b"));
+        Valuation valuation = Valuation.of(atoms);
+
+        assertEquals(atoms, valuation);
+        assertEquals(valuation, atoms);
+        assertEquals(atoms.hashCode(), valuation.hashCode());
+        assertEquals(2, valuation.size());
+        assertTrue(valuation.contains(Atom.forName("a")));
+        assertFalse(valuation.contains(Atom.forName("c")));
+        assertFalse(valuation.contains("a"));
+        assertEquals(Valuation.of(Atom.forName("b"), Atom.forName("a")), valuation);
+        assertSame(valuation, Valuation.of(valuation));
+        assertEquals(Collections.<Atom>emptySet(), Valuation.of(Collections.<Atom>emptySet()));
+    }
+
+    @Test
+    public void testManyPropositions() throws Exception {
+        List<Atom> atoms = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            atoms.add(Atom.forName("v" + i));
+        }
+
+        Valuation all = Valuation.of(atoms);
+        Valuation last = Valuation.of(atoms.get(99));
+
+        assertEquals(100, all.size());
+        assertEquals(Sets.newHashSet(atoms), all);
+        assertEquals(ImmutableList.of(atoms.get(99)), ImmutableList.copyOf(last));
+        assertTrue(all.containsAll(last));
+        assertFalse(last.contains(atoms.get(0)));
+    }
+}
@@ -0,0 +1,80 @@
+package edu.univ.software.verification.serializers;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import edu.univ.software.verification.model.KripkeState;
+import edu.univ.software.verification.model.KripkeStructure;
+import edu.univ.software.verification.model.kripke.BasicState;
+import edu.univ.software.verification.model.kripke.BasicStructure;
+import edu.univ.software.verification.model.ltl.Atom;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author arthur
+ */
+public class KripkeStructureReaderTest {
+
+    private final Gson serializer = new GsonBuilder()
+            .registerTypeAdapter(Atom.class, new AtomSerializer())
+            .registerTypeAdapter(BasicState.class, new BasicStateSerializer())
+            .registerTypeAdapter(BasicStructure.class, new BasicStructureSerializer())
+            .create();
+
+    @Test
+    public void testReadMatchesTreeDeserialization() throws IOException {
+        for (String name : new String[]{"micro-oven.json", "dev-team.json", "two-stage-elevator.json"}) {
+            Path path = Paths.get("src/main/resources/automaton_data", name);
+            KripkeStructure streamed = KripkeStructureReader.INSTANCE.read(path);
+            BasicStructure expected = serializer.fromJson(new String(Files.readAllBytes(path), StandardCharsets.UTF_8), BasicStructure.class);
+
+            Assert.assertEquals(name, expected.getStates(), streamed.getStates());
+
+            for (KripkeState from : expected.getStates()) {
+                KripkeState state = streamed.getState(from.getLabel());
+
+                Assert.assertEquals(from.getAtoms(), state.getAtoms());
+                Assert.assertEquals(from.isInitial(), state.isInitial());
+
+                for (KripkeState to : expected.getStates()) {
+                    Assert.assertEquals(expected.hasTransition(from.getLabel(), to.getLabel()),
+                            streamed.hasTransition(from.getLabel(), to.getLabel()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTransitionsBeforeStates() throws IOException {
+        String json = "{\"transitions\": [{\"source\": \"a\", \"destinations\": [\"b\"]}],"
+                + " \"comment\": {\"skipped\": [1, 2]},"
+                + " \"states\": [{\"name\": \"a\", \"initial\": true, \"atoms\": [\"p\"]}, {\"name\": \"b\", \"atoms\": [\"p\"]}]}";
+
+        KripkeStructure structure = KripkeStructureReader.INSTANCE.read(new StringReader(json), BasicStructure.builder());
+
+        Assert.assertTrue(structure.hasTransition("a", "b"));
+        Assert.assertFalse(structure.hasTransition("b", "a"));
+        Assert.assertTrue(structure.getState("a").isInitial());
+        Assert.assertFalse(structure.getState("b").isInitial());
+        Assert.assertEquals(ImmutableSet.of(Atom.forName("p")), structure.getState("b").getAtoms());
+        Assert.assertSame(structure.getState("a").getAtoms(), structure.getState("b").getAtoms());
+    }
+
+    @Test(expected = IOException.class)
+    public void testStateWithoutNameIsMalformed() throws IOException {
+        String json = "{\"states\": [{\"initial\": true, \"atoms\": [\"p\"]}], \"transitions\": []}";
+
+        KripkeStructureReader.INSTANCE.read(new StringReader(json), BasicStructure.builder());
+    }
+}
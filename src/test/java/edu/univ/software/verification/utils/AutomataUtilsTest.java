@@ -0,0 +1,321 @@
+package edu.univ.software.verification.utils;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.univ.software.verification.model.Automaton;
+import edu.univ.software.verification.model.BuchiAutomaton;
+import edu.univ.software.verification.model.KripkeStructure;
+import edu.univ.software.verification.model.MullerAutomaton;
+import edu.univ.software.verification.model.fa.BasicBuchiAutomaton;
+import edu.univ.software.verification.model.fa.BasicMullerAutomaton;
+import edu.univ.software.verification.model.fa.CompactBuchiAutomaton;
+import edu.univ.software.verification.model.kripke.CompactStructure;
+import edu.univ.software.verification.model.ltl.Atom;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author arthur
+ */
+public class AutomataUtilsTest {
+
+    @Test
+    public void testLassoFound() {
+        BuchiAutomaton<String> buchi = BasicBuchiAutomaton.<String>builder()
+                .withState("1", true)
+                .withStates("2", "3", "4")
+                .withTransition("1", "2", "a")
+                .withTransition("2", "3", "b")
+                .withTransition("3", "4", "c")
+                .withTransition("4", "2", "d")
+                .withFinalState("3")
+                .build();
+
+        Optional<Lasso<String>> lasso = AutomataUtils.INSTANCE.findAcceptingLasso(buchi);
+
+        Assert.assertTrue(lasso.isPresent());
+        Assert.assertEquals(ImmutableList.of("1", "2"), lasso.get().getPrefix());
+        Assert.assertEquals(ImmutableList.of("2", "3", "4", "2"), lasso.get().getCycle());
+        Assert.assertEquals(ImmutableList.of("a"), lasso.get().getPrefixWord());
+        Assert.assertEquals(ImmutableList.of("b", "c", "d"), lasso.get().getCycleWord());
+    }
+
+    @Test
+    public void testLassoFoundByRedSearch() {
+        BuchiAutomaton<String> buchi = BasicBuchiAutomaton.<String>builder()
+                .withState("1", true)
+                .withStates("2", "3")
+                .withTransition("1", "2", "a")
+                .withTransition("2", "3", "b")
+                .withTransition("3", "1", "c")
+                .withFinalState("2")
+                .build();
+
+        Optional<Lasso<String>> lasso = AutomataUtils.INSTANCE.findAcceptingLasso(buchi);
+
+        Assert.assertTrue(lasso.isPresent());
+        Assert.assertEquals(ImmutableList.of("1"), lasso.get().getPrefix());
+        Assert.assertEquals(ImmutableList.of("1", "2", "3", "1"), lasso.get().getCycle());
+    }
+
+    @Test
+    public void testFinalStateOutsideCycle() {
+        BuchiAutomaton<String> buchi = BasicBuchiAutomaton.<String>builder()
+                .withState("1", true)
+                .withStates("2", "3")
+                .withTransition("1", "2", "a")
+                .withTransition("2", "3", "b")
+                .withTransition("3", "3", "c")
+                .withFinalState("2")
+                .build();
+
+        Set<String> counters = new HashSet<>();
+
+        Assert.assertFalse(AutomataUtils.INSTANCE.findAcceptingLasso(buchi).isPresent());
+        Assert.assertTrue(AutomataUtils.INSTANCE.emptinessCheck(buchi, counters));
+        Assert.assertTrue(AutomataUtils.INSTANCE.emptinessCheck(buchi, counters, true));
+        Assert.assertTrue(counters.isEmpty());
+    }
+
+    @Test
+    public void testAllCounterExamplesMode() {
+        BuchiAutomaton<String> buchi = BasicBuchiAutomaton.<String>builder()
+                .withState("1", true)
+                .withStates("2", "3")
+                .withTransition("1", "2", "a")
+                .withTransition("2", "2", "b")
+                .withTransition("2", "3", "c")
+                .withTransition("3", "2", "d")
+                .withFinalState("2")
+                .build();
+
+        Set<String> first = new HashSet<>();
+        Set<String> all = new HashSet<>();
+
+        Assert.assertFalse(AutomataUtils.INSTANCE.emptinessCheck(buchi, first));
+        Assert.assertFalse(AutomataUtils.INSTANCE.emptinessCheck(buchi, all, true));
+        Assert.assertEquals(1, first.size());
+        Assert.assertEquals(2, all.size());
+    }
+
+    @Test
+    public void testGeneralizedLassoVisitsAllFinalSets() {
+        MullerAutomaton<String> muller = BasicMullerAutomaton.<String>builder()
+                .withState("1", true)
+                .withStates("2", "3")
+                .withTransition("1", "2", "a")
+                .withTransition("2", "3", "b")
+                .withTransition("3", "2", "c")
+                .withFinalStateSet("2")
+                .withFinalStateSet("3")
+                .build();
+
+        Optional<Lasso<String>> lasso = AutomataUtils.INSTANCE.findAcceptingLasso(muller);
+
+        Assert.assertTrue(lasso.isPresent());
+        Assert.assertEquals(ImmutableList.of("1", "2"), lasso.get().getPrefix());
+        Assert.assertEquals(ImmutableList.of("2", "3", "2"), lasso.get().getCycle());
+    }
+
+    @Test
+    public void testGeneralizedComponentMissingFinalSet() {
+        MullerAutomaton<String> muller = BasicMullerAutomaton.<String>builder()
+                .withState("1", true)
+                .withStates("2", "3", "4")
+                .withTransition("1", "2", "a")
+                .withTransition("2", "2", "b")
+                .withTransition("1", "3", "c")
+                .withTransition("3", "4", "d")
+                .withTransition("4", "4", "e")
+                .withFinalStateSet("2", "3")
+                .withFinalStateSet("3", "4")
+                .build();
+
+        Assert.assertTrue(AutomataUtils.INSTANCE.emptinessCheck(muller, new HashSet<>()));
+    }
+
+    @Test
+    public void testLazyProductMatchesDirectProduct() {
+        BuchiAutomaton<String> a = BasicBuchiAutomaton.<String>builder()
+                .withState("1", true)
+                .withStates("2")
+                .withTransition("1", "2", "a")
+                .withTransition("2", "1", "b")
+                .withTransition("2", "2", "c")
+                .withFinalState("2")
+                .build();
+        BuchiAutomaton<String> b = BasicBuchiAutomaton.<String>builder()
+                .withState("x", true)
+                .withStates("y")
+                .withTransition("x", "y", "a")
+                .withTransition("y", "x", "b")
+                .withFinalState("x")
+                .build();
+        BuchiAutomaton<String> c = BasicBuchiAutomaton.<String>builder()
+                .withState("x", true)
+                .withStates("y")
+                .withTransition("x", "y", "a")
+                .withTransition("y", "y", "b")
+                .withFinalState("x")
+                .build();
+
+        Optional<Lasso<String>> lasso = AutomataUtils.INSTANCE.findAcceptingLasso(AutomataUtils.INSTANCE.productView(a, b));
+
+        Assert.assertTrue(lasso.isPresent());
+        Assert.assertEquals(ImmutableList.of("a", "b", "a", "b"), lasso.get().getCycleWord());
+        Assert.assertFalse(AutomataUtils.INSTANCE.emptinessCheck(AutomataUtils.INSTANCE.product(a, b), new HashSet<>()));
+        Assert.assertFalse(AutomataUtils.INSTANCE.findAcceptingLasso(AutomataUtils.INSTANCE.productView(a, c)).isPresent());
+        Assert.assertTrue(AutomataUtils.INSTANCE.emptinessCheck(AutomataUtils.INSTANCE.product(a, c), new HashSet<>()));
+    }
+
+    @Test
+    public void testLazyProductStopsAtFirstLasso() {
+        BuchiAutomaton<String> a = BasicBuchiAutomaton.<String>builder()
+                .withState("1", true)
+                .withStates("2", "3", "4")
+                .withTransition("1", "1", "a")
+                .withTransition("1", "2", "b")
+                .withTransition("2", "3", "c")
+                .withTransition("3", "4", "d")
+                .withTransition("4", "2", "e")
+                .withFinalState("1")
+                .build();
+        MullerAutomaton<String> b = BasicMullerAutomaton.<String>builder()
+                .withState("x", true)
+                .withTransition("x", "x", ImmutableList.of("a", "b", "c", "d", "e"))
+                .withFinalStateSet("x")
+                .build();
+
+        LazyGeneralizedProduct<String, String> view = LazyGeneralizedProduct.of(a, b);
+
+        Assert.assertTrue(AutomataUtils.INSTANCE.findAcceptingLasso(view).isPresent());
+        Assert.assertEquals(2, view.discoveredStates().size());
+        Assert.assertEquals(4, view.getStates().size());
+        Assert.assertEquals(2, view.getFinalStateSetCount());
+    }
+
+    @Test
+    public void testCompactProductMatchesDirectProduct() {
+        BuchiAutomaton<String> a = BasicBuchiAutomaton.<String>builder()
+                .withState("1", true)
+                .withStates("2", "3")
+                .withTransition("1", "2", "a")
+                .withTransition("2", "3", "b")
+                .withTransition("3", "1", "c")
+                .withTransition("3", "3", "b")
+                .withFinalState("3")
+                .build();
+        BuchiAutomaton<String> b = BasicBuchiAutomaton.<String>builder()
+                .withState("x", true)
+                .withStates("y")
+                .withTransition("x", "y", "a")
+                .withTransition("y", "y", "b")
+                .withTransition("y", "x", "c")
+                .withFinalState("x")
+                .build();
+        BuchiAutomaton<String> c = BasicBuchiAutomaton.<String>builder()
+                .withState("x", true)
+                .withStates("y")
+                .withTransition("x", "y", "a")
+                .withTransition("y", "y", "b")
+                .withFinalState("x")
+                .build();
+
+        CompactBuchiAutomaton<String> product = AutomataUtils.INSTANCE.product(
+                CompactBuchiAutomaton.of(a), CompactBuchiAutomaton.of(b));
+        Optional<Lasso<String>> lasso = AutomataUtils.INSTANCE.findAcceptingLasso(product);
+
+        Assert.assertEquals(AutomataUtils.INSTANCE.productView(a, b).getStates(), product.getStates());
+        Assert.assertEquals(AutomataUtils.INSTANCE.productView(a, b).getFinalStates(), product.getFinalStates());
+        Assert.assertTrue(lasso.isPresent());
+        Assert.assertTrue(AutomataUtils.INSTANCE.findAcceptingLasso(product.toBasic()).isPresent());
+        Assert.assertFalse(AutomataUtils.INSTANCE.findAcceptingLasso(
+                AutomataUtils.INSTANCE.product(CompactBuchiAutomaton.of(a), CompactBuchiAutomaton.of(c))).isPresent());
+    }
+
+    @Test
+    public void testSwarmMatchesSequentialCheck() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            MullerAutomaton.Builder<String> builder = BasicMullerAutomaton.<String>builder().withState("0", true);
+
+            for (int i = 1; i < 200; i++) {
+                builder.withState(Integer.toString(i), false);
+            }
+
+            for (int i = 0; i < 400; i++) {
+                builder.withTransition(Integer.toString(random.nextInt(200)), Integer.toString(random.nextInt(200)), "a");
+            }
+
+            for (int i = 0; i < 4; i++) {
+                builder.withFinalStateSet(Integer.toString(random.nextInt(200)), Integer.toString(random.nextInt(200)));
+            }
+
+            MullerAutomaton<String> muller = builder.build();
+            Optional<Lasso<String>> lasso = AutomataUtils.INSTANCE.findAcceptingLasso(muller, pool);
+
+            Assert.assertEquals(AutomataUtils.INSTANCE.findAcceptingLasso(muller).isPresent(), lasso.isPresent());
+            lasso.ifPresent(l -> Assert.assertTrue(muller.getFinalStateSets().stream().allMatch(f -> l.getCycle().stream().anyMatch(f::contains))));
+        }
+    }
+
+    @Test
+    public void testSwarmOnBuchiAutomaton() {
+        BuchiAutomaton<String> buchi = BasicBuchiAutomaton.<String>builder()
+                .withState("1", true)
+                .withStates("2", "3")
+                .withTransition("1", "2", "a")
+                .withTransition("2", "3", "b")
+                .withTransition("3", "1", "c")
+                .withTransition("3", "3", "d")
+                .withFinalState("2")
+                .build();
+
+        Optional<Lasso<String>> lasso = AutomataUtils.INSTANCE.findAcceptingLasso(buchi, new ForkJoinPool(2));
+
+        Assert.assertTrue(lasso.isPresent());
+        Assert.assertTrue(lasso.get().getCycle().contains("2"));
+    }
+
+    @Test
+    public void testKripkeViewMatchesConversion() {
+        Random random = new Random(7);
+        KripkeStructure.Builder builder = CompactStructure.builder();
+
+        for (int i = 0; i < 60; i++) {
+            builder.withState(Integer.toString(i), random.nextBoolean() ? ImmutableList.of(Atom.forName("p")) : ImmutableList.of(), i % 20 == 0);
+        }
+
+        for (int i = 0; i < 120; i++) {
+            builder.withTransition(Integer.toString(random.nextInt(60)), Integer.toString(random.nextInt(60)));
+        }
+
+        KripkeStructure kripke = builder.build();
+        BuchiAutomaton<Set<Atom>> converted = AutomataUtils.INSTANCE.convert(kripke, Automaton.Reduction.NONE);
+        BuchiAutomaton<Set<Atom>> view = AutomataUtils.INSTANCE.automatonView(kripke);
+
+        Assert.assertEquals(converted.getStates(), view.getStates());
+        Assert.assertEquals(converted.getInitialStates(), view.getInitialStates());
+        Assert.assertEquals(converted.getFinalStates(), view.getFinalStates());
+        Assert.assertEquals(converted.getTransitions(), view.getTransitions());
+
+        for (String label : ImmutableList.of("init", "0", "17", "59")) {
+            Assert.assertEquals(converted.getTransitionsFrom(label), view.getTransitionsFrom(label));
+            Assert.assertEquals(converted.getTransitionsTo(label), view.getTransitionsTo(label));
+        }
+
+        Assert.assertFalse(view.hasState("60"));
+        Assert.assertEquals(AutomataUtils.INSTANCE.findAcceptingLasso(converted).isPresent(),
+                AutomataUtils.INSTANCE.findAcceptingLasso(view).isPresent());
+    }
+}
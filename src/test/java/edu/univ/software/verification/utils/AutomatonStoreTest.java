@@ -0,0 +1,97 @@
+package edu.univ.software.verification.utils;
+
+import edu.univ.software.verification.model.LtlFormula;
+import edu.univ.software.verification.model.MullerAutomaton;
+import edu.univ.software.verification.model.ltl.Guard;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * @author arthur
+ */
+public class AutomatonStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testStoredAutomatonIsLoaded() throws IOException {
+        AutomatonStore store = new AutomatonStore(folder.getRoot().toPath());
+        LtlFormula key = LtlParser.parseString("G (a -> F (b && !c))").invert().normalized();
+        MullerAutomaton<Guard> automaton = LtlUtils.INSTANCE.convertToGuardedAutomata(key);
+
+        Assert.assertFalse(store.load(key).isPresent());
+
+        store.store(key, automaton);
+
+        Assert.assertEquals(automaton, store.load(key).get());
+        Assert.assertFalse(store.load(LtlParser.parseString("G a")).isPresent());
+    }
+
+    @Test
+    public void testCorruptedFileIsIgnored() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        LtlFormula key = LtlParser.parseString("(a U b)").invert().normalized();
+        new AutomatonStore(directory).store(key, LtlUtils.INSTANCE.convertToGuardedAutomata(key));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            Path file = files.findFirst().get();
+            Files.write(file, new byte[]{1, 2, 3});
+        }
+
+        Assert.assertFalse(new AutomatonStore(directory).load(key).isPresent());
+    }
+
+    @Test
+    public void testCacheLoadsFromDirectory() {
+        Path directory = folder.getRoot().toPath();
+        LtlFormula specification = LtlParser.parseString("G (a -> F b)");
+
+        MullerAutomaton<Guard> built = SpecificationCache.builder().withDirectory(directory).build().getGuardedAutomaton(specification);
+        MullerAutomaton<Guard> loaded = SpecificationCache.builder().withDirectory(directory).build().getGuardedAutomaton(specification);
+
+        Assert.assertEquals(built, loaded);
+        Assert.assertEquals(1, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testConvertersAreStoredApart() {
+        Path directory = folder.getRoot().toPath();
+        LtlFormula key = LtlParser.parseString("G (a -> F b)").invert().normalized();
+        new AutomatonStore(directory).store(key, LtlUtils.INSTANCE.convertToGuardedAutomata(key));
+
+        Assert.assertTrue(new AutomatonStore(directory).load(key).isPresent());
+        Assert.assertFalse(new AutomatonStore(directory, SpecificationCache.REDUCING_CONVERTER).load(key).isPresent());
+    }
+
+    @Test
+    public void testFailedStoreLeavesNoTemporaryFile() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        LtlFormula key = LtlParser.parseString("(a U b)").invert().normalized();
+        AutomatonStore store = new AutomatonStore(directory);
+        store.store(key, LtlUtils.INSTANCE.convertToGuardedAutomata(key));
+
+        // non empty directory in place of the file makes the move fail
+        Path file;
+
+        try (Stream<Path> files = Files.list(directory)) {
+            file = files.findFirst().get();
+        }
+
+        Files.delete(file);
+        Files.createFile(Files.createDirectory(file).resolve("blocker"));
+
+        store.store(key, LtlUtils.INSTANCE.convertToGuardedAutomata(key));
+
+        Assert.assertEquals(1, folder.getRoot().list().length);
+    }
+}
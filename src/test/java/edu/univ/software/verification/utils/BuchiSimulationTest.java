@@ -0,0 +1,77 @@
+package edu.univ.software.verification.utils;
+
+import com.google.common.collect.ImmutableSet;
+
+import edu.univ.software.verification.model.Automaton;
+import edu.univ.software.verification.model.AutomatonState;
+import edu.univ.software.verification.model.BuchiAutomaton;
+import edu.univ.software.verification.model.fa.BasicBuchiAutomaton;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author arthur
+ */
+public class BuchiSimulationTest {
+
+    private BuchiAutomaton<String> createCycle() {
+        return BasicBuchiAutomaton.<String>builder()
+                .withReduction(Automaton.Reduction.NONE)
+                .withState("z", true)
+                .withStates("x", "y")
+                .withTransition("z", "x", "a")
+                .withTransition("x", "y", "a")
+                .withTransition("y", "x", "a")
+                .withFinalState("x")
+                .build();
+    }
+
+    @Test
+    public void testDelayedSimulationJoinsMoreStates() {
+        BuchiAutomaton<String> cycle = createCycle();
+        BuchiSimulation<String> direct = BuchiSimulation.direct(cycle);
+        BuchiSimulation<String> delayed = BuchiSimulation.delayed(cycle);
+
+        Assert.assertFalse(direct.isSimulating("x", "y"));
+        Assert.assertFalse(direct.isSimulating("y", "x"));
+        Assert.assertTrue(direct.isEquivalent("y", "z"));
+        Assert.assertTrue(delayed.isEquivalent("x", "y"));
+
+        Assert.assertEquals(ImmutableSet.of("z", "x"), labels(AutomataUtils.INSTANCE.quotient(cycle, direct)));
+
+        BuchiAutomaton<String> reduced = AutomataUtils.INSTANCE.reduce(cycle);
+
+        Assert.assertEquals(ImmutableSet.of("z"), labels(reduced));
+        Assert.assertEquals(ImmutableSet.of("z"), reduced.getFinalStates());
+        Assert.assertEquals(ImmutableSet.of("a"), reduced.getTransitionSymbols("z", "z"));
+    }
+
+    @Test
+    public void testTransitionsIntoSimulatedStatesArePruned() {
+        BuchiAutomaton<String> buchi = BasicBuchiAutomaton.<String>builder()
+                .withReduction(Automaton.Reduction.NONE)
+                .withState("q", true)
+                .withStates("r1", "r2")
+                .withTransition("q", "r1", "a")
+                .withTransition("q", "r2", ImmutableSet.of("a", "b"))
+                .withTransition("r1", "r1", "a")
+                .withTransition("r2", "r2", "a")
+                .withFinalState("r1")
+                .build();
+
+        BuchiAutomaton<String> pruned = AutomataUtils.INSTANCE.pruneTransitions(buchi);
+
+        Assert.assertEquals(ImmutableSet.of("b"), pruned.getTransitionSymbols("q", "r2"));
+        Assert.assertEquals(ImmutableSet.of("a"), pruned.getTransitionSymbols("q", "r1"));
+        Assert.assertTrue(AutomataUtils.INSTANCE.findAcceptingLasso(pruned).isPresent());
+    }
+
+    private Set<String> labels(BuchiAutomaton<String> automaton) {
+        return automaton.getStates().stream().map(AutomatonState::getLabel).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,83 @@
+package edu.univ.software.verification.utils;
+
+import edu.univ.software.verification.model.LtlFormula;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author arthur
+ */
+public class LtlRewriterTest {
+
+    private void assertRewritten(String expected, String formula) {
+        LtlFormula rewritten = LtlRewriter.INSTANCE.rewrite(LtlParser.parseString(formula));
+
+        Assert.assertEquals(formula, LtlParser.parseString(expected).normalized(), rewritten);
+    }
+
+    @Test
+    public void testIdempotence() {
+        assertRewritten("G p", "G G p");
+        assertRewritten("F p", "F F p");
+        assertRewritten("p", "(p && p)");
+        assertRewritten("(p U q)", "(p U (p U q))");
+    }
+
+    @Test
+    public void testAbsorption() {
+        assertRewritten("(q U p)", "(p U (q U p))");
+        assertRewritten("p", "(p && (p || q))");
+        assertRewritten("0", "(p && !p)");
+        assertRewritten("1", "(!q || q)");
+    }
+
+    @Test
+    public void testNextDistribution() {
+        assertRewritten("X (p && q)", "(X p && X q)");
+        assertRewritten("X (p U q)", "(X p U X q)");
+        assertRewritten("X F p", "F X p");
+    }
+
+    @Test
+    public void testConstantFolding() {
+        assertRewritten("p", "(p || 0)");
+        assertRewritten("0", "(p U 0)");
+        assertRewritten("1", "X (p -> 1)");
+        assertRewritten("q", "(0 U q)");
+    }
+
+    @Test
+    public void testEventualitiesAndUniversalities() {
+        assertRewritten("F q", "(p U F q)");
+        assertRewritten("G F q", "F G F q");
+        assertRewritten("G F q", "X G F q");
+        assertRewritten("G q", "(p R G q)");
+        Assert.assertTrue(LtlRewriter.INSTANCE.isEventual(LtlParser.parseString("G F q").normalized()));
+        Assert.assertFalse(LtlRewriter.INSTANCE.isUniversal(LtlParser.parseString("F q").normalized()));
+    }
+
+    @Test
+    public void testSize() {
+        LtlFormula formula = LtlParser.parseString("(X p && X q)").normalized();
+
+        Assert.assertEquals(5, LtlRewriter.INSTANCE.size(formula));
+        Assert.assertEquals(4, LtlRewriter.INSTANCE.size(LtlRewriter.INSTANCE.rewrite(formula)));
+    }
+
+    @Test
+    public void testRewriteStatistics() {
+        LtlFormula formula = LtlParser.parseString("(X p && X q)").normalized();
+        AtomicReference<RewriteStatistics> statistics = new AtomicReference<>();
+
+        LtlRewriter.INSTANCE.rewrite(formula, statistics::set);
+
+        Assert.assertEquals(1, statistics.get().getFormulaCount());
+        Assert.assertEquals(5, statistics.get().getOriginalSize());
+        Assert.assertEquals(4, statistics.get().getRewrittenSize());
+        Assert.assertEquals(1, statistics.get().getRemovedCount());
+    }
+}
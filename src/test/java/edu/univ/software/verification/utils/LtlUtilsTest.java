@@ -3,11 +3,16 @@ package edu.univ.software.verification.utils;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 
+import edu.univ.software.verification.model.LtlFormula;
 import edu.univ.software.verification.model.MullerAutomaton;
 import edu.univ.software.verification.model.fa.BasicMullerAutomaton;
 import edu.univ.software.verification.model.ltl.Atom;
+import edu.univ.software.verification.model.ltl.Guard;
+import edu.univ.software.verification.model.ltl.UnaryOp;
 
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import org.junit.Assert;
@@ -629,6 +634,109 @@ public class LtlUtilsTest {
         Assert.assertEquals("Expected and actual automata are different", expected, actual);
     }
 
+    @Test
+    public void testGuardedUntilVarVarFormula() {
+        MullerAutomaton<Guard> actual = LtlUtils.INSTANCE.convertToGuardedAutomata(
+                LtlParser.parseString("(a U !b)").invert().invert().normalized());
+
+        MullerAutomaton<Guard> expected = BasicMullerAutomaton.<Guard>builder()
+                .withState("init", true)
+                .withStates(false, "1", "5")
+                .withTransition("init", "1", guard(symbol("a"), symbol()))
+                .withTransition("init", "5", guard(symbol(), symbol("b")))
+                .withTransition("1", "1", guard(symbol("a"), symbol()))
+                .withTransition("1", "5", guard(symbol(), symbol("b")))
+                .withTransition("5", "5", Guard.TRUE)
+                .withFinalStateSet("5")
+                .build();
+
+        Assert.assertEquals("Expected and actual automata are different", expected, actual);
+    }
+
+    @Test
+    public void testTableauStatistics() {
+        AtomicReference<TableauStatistics> reported = new AtomicReference<>();
+        MullerAutomaton<Guard> automaton = LtlUtils.INSTANCE.convertToGuardedAutomata(
+                LtlParser.parseString("G(a U !b)").invert().invert().normalized(), reported::set);
+        TableauStatistics statistics = reported.get();
+
+        Assert.assertEquals(2, statistics.getNodeCount());
+        Assert.assertEquals(automaton.getStates().size(), statistics.getNodeCount() + 1);
+        Assert.assertTrue(statistics.getSplitCount() > 0);
+        Assert.assertTrue(statistics.getMergeCount() > 0);
+        Assert.assertTrue(statistics.getCreatedCount() > statistics.getNodeCount() + statistics.getMergeCount());
+    }
+
+    @Test
+    public void testDeepFormulaExpansion() {
+        LtlFormula formula = Atom.forName("a");
+
+        for (int i = 0; i < 3000; i++) {
+            formula = UnaryOp.build(UnaryOp.OpType.X, formula);
+        }
+
+        MullerAutomaton<Guard> actual = LtlUtils.INSTANCE.convertToGuardedAutomata(formula);
+
+        Assert.assertEquals(3002, actual.getStates().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTableauNodeBudget() {
+        LtlUtils.INSTANCE.convertToGuardedAutomata(LtlParser.parseString("G(a U !b)").invert().invert().normalized(), 1);
+    }
+
+    @Test
+    public void testParallelExpansionIsDeterministic() {
+        LtlFormula formula = LtlParser.parseString("(G ((a U b) || (c R !a)) && F (X b U c))").invert().invert().normalized();
+
+        MullerAutomaton<Guard> sequential = LtlUtils.INSTANCE.convertToGuardedAutomata(formula);
+        MullerAutomaton<Guard> single = LtlUtils.INSTANCE.convertToGuardedAutomata(formula, new ForkJoinPool(1));
+        MullerAutomaton<Guard> parallel = LtlUtils.INSTANCE.convertToGuardedAutomata(formula, new ForkJoinPool(4));
+
+        Assert.assertEquals(single, parallel);
+        Assert.assertEquals(sequential.getStates().size(), parallel.getStates().size());
+        Assert.assertEquals(sequential.getFinalStateSetCount(), parallel.getFinalStateSetCount());
+    }
+
+    @Test
+    public void testParallelTableauNodeBudget() {
+        LtlFormula formula = LtlParser.parseString("(G ((a U b) || (c R !a)) && F (X b U c))").invert().invert().normalized();
+        AtomicReference<TableauStatistics> statistics = new AtomicReference<>();
+        int stateCount = LtlUtils.INSTANCE.convertToGuardedAutomata(formula, statistics::set).getStates().size();
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (int i = 0; i < 50; i++) {
+                // expanded and unfinished nodes never outnumber the created ones
+                Assert.assertEquals(stateCount, LtlUtils.INSTANCE
+                        .convertToGuardedAutomata(formula, statistics.get().getCreatedCount(), pool).getStates().size());
+
+                try {
+                    LtlUtils.INSTANCE.convertToGuardedAutomata(formula, statistics.get().getNodeCount() - 1, pool);
+                    Assert.fail("Budget below the node count accepted");
+                } catch (IllegalArgumentException e) {
+                    // expected
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = AssertionError.class)
+    public void testParallelTableauRethrowsErrors() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ConcurrentTableau tableau = new ConcurrentTableau(LtlUtils.DEFAULT_TABLEAU_NODE_BUDGET, pool);
+
+        try {
+            tableau.push(new GraphNode(tableau.nextId(), new FormulaClosure(LtlParser.parseString("G a"))));
+            tableau.expand(node -> {
+                throw new AssertionError("Expansion failed");
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
 
     private MullerAutomaton<Set<Atom>> convertToAutomata(String formula) {
         return LtlUtils.INSTANCE.convertToAutomata(LtlParser.parseString(formula).invert().invert().normalized());
@@ -637,4 +745,8 @@ public class LtlUtilsTest {
     private Set<Atom> symbol(String... atoms) {
         return Sets.newHashSet(atoms).stream().map(Atom::forName).collect(Collectors.toSet());
     }
+
+    private Guard guard(Set<Atom> positive, Set<Atom> negative) {
+        return Guard.of(positive, negative);
+    }
 }
@@ -0,0 +1,61 @@
+package edu.univ.software.verification.utils;
+
+import com.google.common.collect.ImmutableSet;
+
+import edu.univ.software.verification.model.MullerAutomaton;
+import edu.univ.software.verification.model.ltl.Atom;
+import edu.univ.software.verification.model.ltl.Guard;
+import edu.univ.software.verification.model.ltl.PropositionDictionary;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author arthur
+ */
+public class SpecificationCacheTest {
+
+    @Test
+    public void testRepeatedSpecificationHitsCache() {
+        SpecificationCache cache = SpecificationCache.builder().withMaximumSize(1).build();
+
+        MullerAutomaton<Guard> first = cache.getGuardedAutomaton(LtlParser.parseString("G (a -> F b)"));
+        MullerAutomaton<Guard> second = cache.getGuardedAutomaton(LtlParser.parseString("G (a -> F b)"));
+        cache.getGuardedAutomaton(LtlParser.parseString("G (x -> F y)"));
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(LtlUtils.INSTANCE.convertToGuardedAutomata(LtlParser.parseString("G (a -> F b)").invert().normalized()), first);
+        Assert.assertEquals(1, cache.getStatistics().hitCount());
+        Assert.assertEquals(2, cache.getStatistics().missCount());
+        Assert.assertEquals(1, cache.getStatistics().evictionCount());
+        Assert.assertEquals(3, cache.getRewriteStatistics().getFormulaCount());
+        Assert.assertTrue(cache.getRewriteStatistics().getRewrittenSize() > 0);
+        Assert.assertTrue(cache.getRewriteStatistics().getRemovedCount() >= 0);
+    }
+
+    @Test
+    public void testRenamedSpecificationSharesEntry() {
+        SpecificationCache cache = SpecificationCache.builder().withMaximumSize(16).withPropositionRenaming(true).build();
+
+        MullerAutomaton<Guard> ab = cache.getGuardedAutomaton(LtlParser.parseString("G (a -> F b)"));
+        MullerAutomaton<Guard> xy = cache.getGuardedAutomaton(LtlParser.parseString("G (x -> F y)"));
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, cache.getStatistics().hitCount());
+        Assert.assertEquals(ab.getStates(), xy.getStates());
+        Assert.assertEquals(ab.getFinalStateSets(), xy.getFinalStateSets());
+        Assert.assertEquals(ImmutableSet.of("a", "b"), names(ab));
+        Assert.assertEquals(ImmutableSet.of("x", "y"), names(xy));
+    }
+
+    private Set<String> names(MullerAutomaton<Guard> automaton) {
+        return automaton.getTransitions().values().stream().flatMap(Set::stream)
+                .flatMap(g -> IntStream.concat(g.getPositive().stream(), g.getNegative().stream()).boxed()).map(PropositionDictionary.INSTANCE::atomAt)
+                .map(Atom::getName).collect(Collectors.toSet());
+    }
+}